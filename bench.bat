@@ -0,0 +1,33 @@
+@echo off
+setlocal
+
+rem Usage: bench.bat <BenchmarkClass> [args...]   e.g. bench.bat ScoringBenchmark 5000
+
+set SRC=src
+set BENCH=bench
+set OUT=build-bench
+
+if "%~1"=="" (
+  echo Usage: bench.bat ^<BenchmarkClass^> [args...]
+  exit /b 1
+)
+
+echo Clean
+rmdir /s /q "%OUT%" 2>nul
+mkdir "%OUT%" 2>nul
+
+echo Find sources
+dir /s /b "%SRC%\*.java" "%BENCH%\*.java" > bench-sources.txt
+
+echo Compile
+javac -encoding UTF-8 -d "%OUT%" -cp "lib/*" @bench-sources.txt
+if errorlevel 1 (
+  echo.
+  echo Compile failed. See errors above.
+  exit /b 1
+)
+
+echo Run
+java -Dfile.encoding=UTF-8 -cp "%OUT%;lib/*" benchmarks.%*
+
+endlocal
@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Usage: ./bench.sh <BenchmarkClass> [args...]   e.g. ./bench.sh ScoringBenchmark 5000
+
+SRC="src"
+BENCH="bench"
+OUT="build-bench"
+
+if [ $# -lt 1 ]; then
+  echo "Usage: ./bench.sh <BenchmarkClass> [args...]"
+  exit 1
+fi
+NAME="$1"
+shift
+
+echo "=== Clean ==="
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+echo "=== Find sources ==="
+find "$SRC" "$BENCH" -name "*.java" > bench-sources.txt
+
+echo "=== Compile ==="
+javac -encoding UTF-8 -d "$OUT" -cp "lib/*" @bench-sources.txt
+
+echo "=== Run ==="
+exec java -Dfile.encoding=UTF-8 -cp "$OUT:lib/*" "benchmarks.$NAME" "$@"
@@ -0,0 +1,158 @@
+package benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Rebuilds the PDF/DOCX files in bench/corpus/resumes from the .txt sources next to them.
+ * The generated files are committed so every benchmark run parses the same bytes; only
+ * rerun this when a source text changes.
+ *
+ * Also writes long_cv.pdf (every resume repeated to ~14 pages) so the parallel page-range
+ * extraction path is covered.
+ *
+ * Run with: ./bench.sh CorpusGenerator
+ */
+public class CorpusGenerator {
+
+    static final File CORPUS = new File("bench/corpus");
+    static final File RESUMES = new File(CORPUS, "resumes");
+    static final File JOBS = new File(CORPUS, "jobs");
+
+    private static final float MARGIN = 50;
+    private static final float LEADING = 14;
+    private static final int WRAP = 95;
+    private static final int LONG_CV_REPEATS = 6;
+
+    public static void main(String[] args) throws IOException {
+        List<String> allLines = new ArrayList<>();
+        for (File source : sources()) {
+            String base = source.getName().replaceFirst("\\.txt$", "");
+            List<String> lines = Files.readAllLines(source.toPath(), StandardCharsets.UTF_8);
+
+            writePdf(lines, new File(RESUMES, base + ".pdf"));
+            writeDocx(lines, new File(RESUMES, base + ".docx"));
+            allLines.addAll(lines);
+            allLines.add("");
+            System.out.println("Generated " + base + ".pdf and " + base + ".docx");
+        }
+
+        List<String> longCv = new ArrayList<>();
+        for (int i = 0; i < LONG_CV_REPEATS; i++) longCv.addAll(allLines);
+        writePdf(longCv, new File(RESUMES, "long_cv.pdf"));
+        System.out.println("Generated long_cv.pdf");
+    }
+
+    static File[] sources() {
+        File[] files = RESUMES.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files == null || files.length == 0) {
+            throw new IllegalStateException("No corpus found in " + RESUMES.getAbsolutePath()
+                    + " (run benchmarks from the project root)");
+        }
+        java.util.Arrays.sort(files);
+        return files;
+    }
+
+    private static void writePdf(List<String> lines, File out) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDRectangle size = PDRectangle.LETTER;
+            float y = 0;
+            PDPageContentStream stream = null;
+
+            for (String line : lines) {
+                for (String part : wrap(line)) {
+                    if (stream == null || y < MARGIN) {
+                        if (stream != null) {
+                            stream.endText();
+                            stream.close();
+                        }
+                        PDPage page = new PDPage(size);
+                        document.addPage(page);
+                        stream = new PDPageContentStream(document, page);
+                        stream.setFont(PDType1Font.HELVETICA, 10);
+                        stream.setLeading(LEADING);
+                        stream.beginText();
+                        stream.newLineAtOffset(MARGIN, size.getHeight() - MARGIN);
+                        y = size.getHeight() - MARGIN;
+                    }
+                    stream.showText(part);
+                    stream.newLine();
+                    y -= LEADING;
+                }
+            }
+            if (stream != null) {
+                stream.endText();
+                stream.close();
+            }
+            document.save(out);
+        }
+    }
+
+    // Writes the minimal WordprocessingML package directly, so generating the corpus
+    // doesn't need the OOXML schema jar that XWPFDocument pulls in
+    private static void writeDocx(List<String> lines, File out) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String line : lines) {
+            body.append("<w:p><w:r><w:t xml:space=\"preserve\">").append(escapeXml(line)).append("</w:t></w:r></w:p>");
+        }
+
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(out))) {
+            entry(zip, "[Content_Types].xml",
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                    + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                    + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                    + "<Override PartName=\"/word/document.xml\" ContentType=\""
+                    + "application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml\"/>"
+                    + "</Types>");
+            entry(zip, "_rels/.rels",
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\""
+                    + "http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"word/document.xml\"/>"
+                    + "</Relationships>");
+            entry(zip, "word/document.xml",
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+                    + "<w:body>" + body + "</w:body></w:document>");
+        }
+    }
+
+    private static void entry(ZipOutputStream zip, String name, String content) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(0);   // fixed timestamps keep regenerated files byte-identical
+        zip.putNextEntry(entry);
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static List<String> wrap(String line) {
+        List<String> parts = new ArrayList<>();
+        String rest = line;
+        while (rest.length() > WRAP) {
+            int cut = rest.lastIndexOf(' ', WRAP);
+            if (cut <= 0) cut = WRAP;
+            parts.add(rest.substring(0, cut));
+            rest = rest.substring(cut).trim();
+        }
+        parts.add(rest);
+        return parts;
+    }
+}
@@ -0,0 +1,182 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small JMH-style runner for the bench/ module: timed warmup and measurement iterations,
+ * throughput with an error bound, and per-thread allocation (the same counter JMH's gc
+ * profiler reads). Results can be saved and compared against a baseline file so a
+ * regression fails the run.
+ */
+final class Harness {
+
+    interface Op {
+        Object run() throws Exception;
+    }
+
+    static class Result {
+        final String name;
+        final double opsPerSec;
+        final double error;          // half-width of the ~99.9% interval, ops/s
+        final double bytesPerOp;
+        final double allocMbPerSec;
+        final long gcCount;
+        final long gcMillis;
+
+        Result(String name, double opsPerSec, double error, double bytesPerOp,
+               double allocMbPerSec, long gcCount, long gcMillis) {
+            this.name = name;
+            this.opsPerSec = opsPerSec;
+            this.error = error;
+            this.bytesPerOp = bytesPerOp;
+            this.allocMbPerSec = allocMbPerSec;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+    }
+
+    // Allowed slowdown / extra allocation against a baseline before a run counts as a regression
+    private static final double REGRESSION_TOLERANCE = 0.15;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationMillis;
+    private final List<Result> results = new ArrayList<>();
+
+    private volatile int sink;   // keeps results alive so the JIT can't drop the work
+
+    Harness(int warmupIterations, int measureIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    Result run(String name, Op op) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));   // services log every call
+        try {
+            for (int i = 0; i < warmupIterations; i++) iteration(op);
+
+            double[] throughput = new double[measureIterations];
+            long ops = 0, bytes = 0, nanos = 0;
+            long gcCount0 = gcCount(), gcMillis0 = gcMillis();
+            for (int i = 0; i < measureIterations; i++) {
+                long[] it = iteration(op);
+                ops += it[0];
+                nanos += it[1];
+                bytes += it[2];
+                throughput[i] = it[0] / (it[1] / 1e9);
+            }
+
+            double mean = 0;
+            for (double t : throughput) mean += t;
+            mean /= throughput.length;
+            double variance = 0;
+            for (double t : throughput) variance += (t - mean) * (t - mean);
+            double stdev = throughput.length > 1 ? Math.sqrt(variance / (throughput.length - 1)) : 0;
+            double error = 3.29 * stdev / Math.sqrt(throughput.length);
+
+            Result result = new Result(name, mean, error, (double) bytes / ops,
+                    bytes / (1024.0 * 1024.0) / (nanos / 1e9), gcCount() - gcCount0, gcMillis() - gcMillis0);
+            results.add(result);
+            return result;
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    // Returns {ops, nanos, allocated bytes}
+    private long[] iteration(Op op) throws Exception {
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000;
+        long bytes0 = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long ops = 0;
+        long now;
+        do {
+            Object value = op.run();
+            sink += value == null ? 0 : value.hashCode();
+            ops++;
+        } while ((now = System.nanoTime()) < deadline);
+        return new long[]{ops, now - start, THREADS.getCurrentThreadAllocatedBytes() - bytes0};
+    }
+
+    void printResults() {
+        System.out.printf("%n%-40s %14s %12s %14s %12s %6s%n",
+                "Benchmark", "ops/s", "error", "B/op", "MB/s alloc", "GCs");
+        for (Result r : results) {
+            System.out.printf("%-40s %14.1f %12.1f %14.0f %12.1f %6d%n",
+                    r.name, r.opsPerSec, r.error, r.bytesPerOp, r.allocMbPerSec, r.gcCount);
+        }
+    }
+
+    void save(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("benchmark,ops_per_sec,bytes_per_op");
+            for (Result r : results) {
+                writer.printf("%s,%.3f,%.1f%n", r.name, r.opsPerSec, r.bytesPerOp);
+            }
+        }
+        System.out.println("\nSaved baseline to " + file.getPath());
+    }
+
+    /**
+     * Prints throughput and allocation deltas against a saved run; returns false on any regression
+     */
+    boolean compare(File file) throws IOException {
+        Map<String, double[]> baseline = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();   // header
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length == 3) {
+                    baseline.put(parts[0], new double[]{Double.parseDouble(parts[1]), Double.parseDouble(parts[2])});
+                }
+            }
+        }
+
+        boolean ok = true;
+        System.out.printf("%nAgainst %s:%n%-40s %12s %12s%n", file.getPath(), "Benchmark", "ops/s", "B/op");
+        for (Result r : results) {
+            double[] base = baseline.get(r.name);
+            if (base == null) continue;
+            double speed = r.opsPerSec / base[0] - 1;
+            double alloc = base[1] == 0 ? 0 : r.bytesPerOp / base[1] - 1;
+            boolean regressed = speed < -REGRESSION_TOLERANCE || alloc > REGRESSION_TOLERANCE;
+            ok &= !regressed;
+            System.out.printf("%-40s %+11.1f%% %+11.1f%%%s%n", r.name, speed * 100, alloc * 100,
+                    regressed ? "   REGRESSION" : "");
+        }
+        return ok;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
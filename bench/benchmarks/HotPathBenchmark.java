@@ -0,0 +1,194 @@
+package benchmarks;
+
+import models.Resume;
+import services.AnalysisContext;
+import services.ExportService;
+import services.ResumeAnalyzeService;
+import services.ResumeParserService;
+import services.ResumeParserService.ParsedResume;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and allocation for the parsing, analysis and export hot paths, measured over
+ * the fixed corpus in bench/corpus (sample PDF/DOCX resumes and job descriptions).
+ * Each operation cycles through the corpus so no single input dominates.
+ *
+ * Run with: ./bench.sh HotPathBenchmark [filter] [--save file.csv] [--compare file.csv] [--quick]
+ *   filter      only run benchmarks whose name contains this text
+ *   --save      write the results as a baseline
+ *   --compare   compare with a baseline; exits 1 if throughput drops or allocation grows by more than 15%
+ *   --quick     1 warmup + 3 measurement iterations of 500ms instead of 3 + 5 of 1s
+ */
+public class HotPathBenchmark {
+
+    private final ResumeParserService parser = new ResumeParserService();
+    private final ResumeAnalyzeService analyzer = new ResumeAnalyzeService();
+    private final ExportService exporter = new ExportService();
+
+    private final List<File> resumeFiles = new ArrayList<>();      // PDF and DOCX, excluding long_cv.pdf
+    private final List<File> docxFiles = new ArrayList<>();
+    private final List<String> rawTexts = new ArrayList<>();
+    private final List<String> normalizedTexts = new ArrayList<>();
+    private final List<ParsedResume> parsedResumes = new ArrayList<>();
+    private final List<String> jobDescriptions = new ArrayList<>();
+    private final List<List<String>> jobKeywords = new ArrayList<>();
+    private final List<AnalysisContext> contexts = new ArrayList<>();      // every resume x every JD
+    private File longPdf;
+    private String longPdfText;
+    private File exportDir;
+
+    private int cursor;
+
+    public static void main(String[] args) throws Exception {
+        String filter = "";
+        File save = null;
+        File compare = null;
+        boolean quick = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--save" -> save = new File(args[++i]);
+                case "--compare" -> compare = new File(args[++i]);
+                case "--quick" -> quick = true;
+                default -> filter = args[i];
+            }
+        }
+
+        Harness harness = quick ? new Harness(1, 3, 500) : new Harness(3, 5, 1000);
+        HotPathBenchmark bench = new HotPathBenchmark();
+        bench.setUp();
+        try {
+            bench.runAll(harness, filter);
+        } finally {
+            bench.tearDown();
+        }
+
+        harness.printResults();
+        if (save != null) harness.save(save);
+        if (compare != null && !harness.compare(compare)) {
+            System.exit(1);
+        }
+    }
+
+    private void setUp() throws Exception {
+        for (File source : CorpusGenerator.sources()) {
+            String base = source.getName().replaceFirst("\\.txt$", "");
+            File pdf = new File(CorpusGenerator.RESUMES, base + ".pdf");
+            File docx = new File(CorpusGenerator.RESUMES, base + ".docx");
+            if (!pdf.exists() || !docx.exists()) {
+                throw new IllegalStateException("Missing " + pdf + " or " + docx + " (run ./bench.sh CorpusGenerator)");
+            }
+            resumeFiles.add(pdf);
+            if (canRead(docx)) {
+                resumeFiles.add(docx);
+                docxFiles.add(docx);
+            }
+        }
+        if (docxFiles.isEmpty()) {
+            System.out.println("DOCX inputs skipped: POI could not read them (is poi-ooxml-lite in lib/?)");
+        }
+        longPdf = new File(CorpusGenerator.RESUMES, "long_cv.pdf");
+        longPdfText = parser.extractText(longPdf);
+
+        File[] jobs = CorpusGenerator.JOBS.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (jobs == null || jobs.length == 0) {
+            throw new IllegalStateException("No job descriptions in " + CorpusGenerator.JOBS);
+        }
+        java.util.Arrays.sort(jobs);
+        for (File job : jobs) {
+            String jd = Files.readString(job.toPath(), StandardCharsets.UTF_8);
+            jobDescriptions.add(jd);
+            jobKeywords.add(analyzer.analyzeJobDescription(jd));
+        }
+
+        for (File file : resumeFiles) {
+            String raw = parser.extractText(file);
+            rawTexts.add(raw);
+            normalizedTexts.add(parser.normalizeText(raw));
+            parsedResumes.add(parser.parseResumeComplete(file));
+        }
+
+        for (ParsedResume parsed : parsedResumes) {
+            for (String jd : jobDescriptions) {
+                contexts.add(analyzer.analyze(parsed, jd));
+            }
+        }
+
+        exportDir = Files.createTempDirectory("hot-path-bench").toFile();
+        System.out.printf("Corpus: %d resume files, %d job descriptions%n", resumeFiles.size(), jobDescriptions.size());
+    }
+
+    // XWPF needs the OOXML schema jar at runtime; measure PDF only rather than fail without it
+    private boolean canRead(File docx) {
+        try {
+            parser.extractText(docx);
+            return true;
+        } catch (Exception | LinkageError e) {
+            return false;
+        }
+    }
+
+    private void tearDown() {
+        File[] leftovers = exportDir.listFiles();
+        if (leftovers != null) {
+            for (File f : leftovers) f.delete();
+        }
+        exportDir.delete();
+    }
+
+    private void runAll(Harness harness, String filter) throws Exception {
+        Map<String, Harness.Op> benchmarks = new java.util.LinkedHashMap<>();
+
+        benchmarks.put("parser.parseResumeComplete", () -> parser.parseResumeComplete(next(resumeFiles)));
+        benchmarks.put("parser.extractText", () -> parser.extractText(next(resumeFiles)));
+        benchmarks.put("parser.extractText.longPdf", () -> parser.extractText(longPdf));
+        benchmarks.put("parser.normalizeText", () -> parser.normalizeText(next(rawTexts)));
+        benchmarks.put("parser.extractSections", () -> parser.extractSections(next(normalizedTexts)));
+        benchmarks.put("parser.parseText", () -> parser.parseText(next(rawTexts)));
+        benchmarks.put("parser.parseText.longPdf", () -> parser.parseText(longPdfText));
+
+        benchmarks.put("analyzer.analyzeJobDescription", () -> analyzer.analyzeJobDescription(next(jobDescriptions)));
+        benchmarks.put("analyzer.mapKeywords", () -> {
+            int i = cursor++;
+            return analyzer.mapKeywords(normalizedTexts.get(i % normalizedTexts.size()),
+                    jobKeywords.get(i % jobKeywords.size()));
+        });
+        benchmarks.put("analyzer.tailorResume", () -> {
+            int i = cursor++;
+            return analyzer.tailorResume(parsedResumes.get(i % parsedResumes.size()),
+                    jobDescriptions.get(i % jobDescriptions.size()));
+        });
+        benchmarks.put("analyzer.analyze", () -> {
+            int i = cursor++;
+            return analyzer.analyze(parsedResumes.get(i % parsedResumes.size()),
+                    jobDescriptions.get(i % jobDescriptions.size()));
+        });
+        benchmarks.put("analyzer.tailorResume.fromContext", () -> analyzer.tailorResume(next(contexts)));
+
+        // DOCX sources are rendered to a new PDF; PDF sources are only copied, so they aren't measured here
+        if (!docxFiles.isEmpty()) {
+            benchmarks.put("export.exportToPDF", () -> {
+                File source = next(docxFiles);
+                File out = new File(exportDir, "export.pdf");
+                out.delete();
+                Resume resume = new Resume("bench", source.getName(), source.getPath());
+                return exporter.exportToPDF(resume, out.getPath());
+            });
+        }
+
+        for (Map.Entry<String, Harness.Op> benchmark : benchmarks.entrySet()) {
+            if (!benchmark.getKey().contains(filter)) continue;
+            System.out.println("Running " + benchmark.getKey() + " ...");
+            harness.run(benchmark.getKey(), benchmark.getValue());
+        }
+    }
+
+    private <T> T next(List<T> items) {
+        return items.get(cursor++ % items.size());
+    }
+}
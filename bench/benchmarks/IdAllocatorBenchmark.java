@@ -0,0 +1,139 @@
+package benchmarks;
+
+import dao.ConnectionPool;
+import dao.IdAllocator;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent signups against a scratch database: the old "read the max id, then insert"
+ * approach versus IdAllocator. Reports signups/sec and how many inserts collided on a
+ * duplicate id (the old approach races; the allocator should always report 0).
+ * Needs the SQLite JDBC driver on the classpath.
+ *
+ * Run with: ./bench.sh IdAllocatorBenchmark [threads] [signupsPerThread] [existingUsers]
+ */
+public class IdAllocatorBenchmark {
+
+    private static final String MAX_ID_SQL =
+            "SELECT id FROM users WHERE id LIKE 'U%' ORDER BY CAST(SUBSTR(id, 2) AS INTEGER) DESC LIMIT 1";
+    private static final String INSERT_SQL = "INSERT INTO users (id, email) VALUES (?, ?)";
+
+    private interface Signup {
+        void run(int thread, int n) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 250;
+        int existing = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        Class.forName("org.sqlite.JDBC");
+        File dbFile = File.createTempFile("id-allocator-bench", ".db");
+        dbFile.deleteOnExit();
+        ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + dbFile.getAbsolutePath(), threads);
+
+        System.out.printf("%d threads x %d signups, %d existing users%n%n", threads, perThread, existing);
+        System.out.printf("%-22s %14s %12s%n", "strategy", "signups/sec", "collisions");
+
+        reset(pool, existing);
+        AtomicLong collisions = new AtomicLong();
+        double legacy = run(threads, perThread, (thread, n) -> {
+            // The pre-allocator UserDAO: read the highest id on a reader, insert on the writer
+            while (true) {
+                String id;
+                try (Connection conn = pool.getReader();
+                     PreparedStatement ps = conn.prepareStatement(MAX_ID_SQL);
+                     ResultSet rs = ps.executeQuery()) {
+                    id = rs.next() ? "U" + (Integer.parseInt(rs.getString(1).substring(1)) + 1) : "U1";
+                }
+                if (insert(pool, id, thread, n)) return;
+                collisions.incrementAndGet();
+            }
+        });
+        System.out.printf("%-22s %14.0f %12d%n", "select max + insert", legacy, collisions.get());
+
+        reset(pool, existing);
+        IdAllocator allocator = new IdAllocator(pool::getWriter, "users", "U", "users", 16);
+        AtomicLong allocatorCollisions = new AtomicLong();
+        double blocks = run(threads, perThread, (thread, n) -> {
+            if (!insert(pool, allocator.nextId(), thread, n)) allocatorCollisions.incrementAndGet();
+        });
+        System.out.printf("%-22s %14.0f %12d%n", "allocator + insert", blocks, allocatorCollisions.get());
+
+        // Allocation alone, to show it stays O(1) however many users exist
+        double allocateOnly = run(threads, perThread * 20, (thread, n) -> allocator.nextId());
+        System.out.printf("%-22s %14.0f %12s%n", "allocator only", allocateOnly, "-");
+
+        pool.close();
+    }
+
+    private static double run(int threads, int perThread, Signup signup) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong failures = new AtomicLong();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int n = 0; n < perThread; n++) signup.run(thread, n);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                    System.err.println("Signup failed: " + e.getMessage());
+                }
+            });
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        if (failures.get() > 0) System.err.println(failures.get() + " worker(s) stopped early");
+        return threads * (double) perThread / seconds;
+    }
+
+    // false when the id was already taken
+    private static boolean insert(ConnectionPool pool, String id, int thread, int n) throws SQLException {
+        try (Connection conn = pool.getWriter();
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            ps.setString(1, id);
+            ps.setString(2, "bench-" + thread + "-" + n + "@example.com");
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (e.getMessage() != null && e.getMessage().contains("UNIQUE")) return false;
+            throw e;
+        }
+    }
+
+    private static void reset(ConnectionPool pool, int existing) throws SQLException {
+        try (Connection conn = pool.getWriter(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS users");
+            stmt.execute("DROP TABLE IF EXISTS id_sequences");
+            stmt.execute("CREATE TABLE users (id VARCHAR(20) PRIMARY KEY, email VARCHAR(255) UNIQUE NOT NULL)");
+            stmt.execute("CREATE TABLE id_sequences (name TEXT PRIMARY KEY, next_value INTEGER NOT NULL)");
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+                for (int i = 1; i <= existing; i++) {
+                    ps.setString(1, "U" + i);
+                    ps.setString(2, "existing-" + i + "@example.com");
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+}
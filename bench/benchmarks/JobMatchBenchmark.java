@@ -0,0 +1,153 @@
+package benchmarks;
+
+import models.JobDescription;
+import services.JobMatchIndex;
+import services.ResumeAnalyzeService;
+import services.ResumeParserService;
+import services.ResumeParserService.ParsedResume;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reverse matching latency: top-K stored job descriptions for one resume, over a large
+ * synthetic JD corpus. JDs are generated from a fixed seed out of the words of the real corpus
+ * job descriptions and resumes (so they share vocabulary with the resumes) plus Zipf-distributed
+ * filler. The resumes are the corpus PDFs, long_cv.pdf included.
+ *
+ * Before timing, every top-K list is checked against scoring all JDs one by one with
+ * ResumeAnalyzeService.matchScore.
+ *
+ * Run with: ./bench.sh JobMatchBenchmark [job descriptions] [k]     (default 20000, 10)
+ */
+public class JobMatchBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        ResumeParserService parser = new ResumeParserService();
+        ResumeAnalyzeService analyzer = new ResumeAnalyzeService();
+
+        List<File> pdfs = new ArrayList<>();
+        for (File source : CorpusGenerator.sources()) {
+            pdfs.add(new File(CorpusGenerator.RESUMES, source.getName().replaceFirst("\\.txt$", ".pdf")));
+        }
+        pdfs.add(new File(CorpusGenerator.RESUMES, "long_cv.pdf"));
+
+        LinkedHashSet<String> realWords = new LinkedHashSet<>();
+        List<ParsedResume> resumes = new ArrayList<>();
+        for (File pdf : pdfs) {
+            if (!pdf.exists()) {
+                throw new IllegalStateException("Missing " + pdf + " (run ./bench.sh CorpusGenerator)");
+            }
+            ParsedResume parsed = parser.parseText(parser.extractText(pdf));
+            resumes.add(parsed);
+            addWords(parsed.getFullText(), realWords);
+        }
+        File[] jobs = CorpusGenerator.JOBS.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (jobs == null || jobs.length == 0) {
+            throw new IllegalStateException("No job descriptions in " + CorpusGenerator.JOBS);
+        }
+        Arrays.sort(jobs);
+        for (File job : jobs) {
+            addWords(Files.readString(job.toPath(), StandardCharsets.UTF_8), realWords);
+        }
+        String[] real = realWords.toArray(new String[0]);
+
+        Random random = new Random(42);
+        String[] filler = vocabulary(5000, random);
+        List<JobDescription> corpus = new ArrayList<>();
+        JobMatchIndex index = new JobMatchIndex();
+        long start = System.nanoTime();
+        for (int id = 1; id <= count; id++) {
+            JobDescription jd = new JobDescription(id, "U" + (id % 500), "Job " + id, "Company" + (id % 1000),
+                    generate(random, real, filler), null);
+            index.add(jd);
+            corpus.add(jd);
+        }
+        double indexSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Indexed %d job descriptions in %.1fs (keyword extraction included)%n", count, indexSeconds);
+
+        for (int r = 0; r < resumes.size(); r++) {
+            checkAgainstBruteForce(index, analyzer, corpus, resumes.get(r), k, pdfs.get(r).getName());
+        }
+
+        Harness harness = new Harness(2, 5, 500);
+        System.out.printf("%-22s %12s %10s %10s%n", "resume", "ms/query", "B/op", "top score");
+        for (int r = 0; r < resumes.size(); r++) {
+            ParsedResume resume = resumes.get(r);
+            String name = pdfs.get(r).getName();
+            List<JobMatchIndex.Match> top = index.topMatches(resume, k);
+            Harness.Result result = harness.run("topMatches." + name, () -> index.topMatches(resume, k));
+            System.out.printf("%-22s %12.3f %10.0f %10.1f%n", name, 1000.0 / result.opsPerSec, result.bytesPerOp,
+                    top.isEmpty() ? 0.0 : top.get(0).getScore());
+        }
+    }
+
+    // Scores are compared position by position; ids are only compared where the score is unique
+    private static void checkAgainstBruteForce(JobMatchIndex index, ResumeAnalyzeService analyzer,
+                                               List<JobDescription> corpus, ParsedResume resume, int k, String name) {
+        double[] all = new double[corpus.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = analyzer.matchScore(resume.getFullText(), corpus.get(i).getKeywords());
+        }
+        double[] sorted = all.clone();
+        Arrays.sort(sorted);
+
+        List<JobMatchIndex.Match> top = index.topMatches(resume, k);
+        int expected = 0;
+        for (double score : all) if (score > 0) expected++;
+        if (top.size() != Math.min(k, expected)) {
+            throw new IllegalStateException(name + ": expected " + Math.min(k, expected) + " matches, got " + top.size());
+        }
+        for (int i = 0; i < top.size(); i++) {
+            JobMatchIndex.Match match = top.get(i);
+            double want = sorted[sorted.length - 1 - i];
+            double got = match.getScore();
+            double own = all[match.getJobDescription().getId() - 1];
+            if (got != want || own != got) {
+                throw new IllegalStateException(name + ": rank " + i + " has score " + got + ", brute force says " + want);
+            }
+        }
+    }
+
+    private static String generate(Random random, String[] real, String[] filler) {
+        StringBuilder sb = new StringBuilder("We are hiring. ");
+        int words = 80 + random.nextInt(160);
+        for (int w = 0; w < words; w++) {
+            if (random.nextInt(3) == 0) {
+                sb.append(real[random.nextInt(real.length)]);
+            } else {
+                double u = random.nextDouble();
+                int rank = (int) Math.pow(filler.length, u);
+                sb.append(filler[Math.min(filler.length - 1, rank - 1)]);
+            }
+            sb.append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return sb.toString();
+    }
+
+    private static void addWords(String text, LinkedHashSet<String> out) {
+        for (String word : text.toLowerCase().split("[^a-z0-9+]+")) {
+            if (word.length() >= 3) out.add(word);
+        }
+    }
+
+    private static String[] vocabulary(int size, Random random) {
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder w = new StringBuilder();
+            int length = 3 + random.nextInt(7);
+            for (int c = 0; c < length; c++) w.append((char) ('a' + random.nextInt(26)));
+            words[i] = w.toString();
+        }
+        return words;
+    }
+}
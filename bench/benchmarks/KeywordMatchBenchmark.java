@@ -0,0 +1,67 @@
+package benchmarks;
+
+import services.KeywordMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Keyword-matching latency as the keyword list grows:
+ * one String.contains scan per keyword versus a single KeywordMatcher pass.
+ *
+ * Run with: ./bench.sh KeywordMatchBenchmark
+ */
+public class KeywordMatchBenchmark {
+
+    public static void main(String[] args) {
+        String resume = ScoringBenchmark.syntheticResumes(1, 2000, 7L).get(0);
+        int[] keywordCounts = {20, 100, 500, 2000};
+        int iterations = 2000;
+
+        System.out.printf("%-10s %16s %16s%n", "keywords", "contains (us)", "automaton (us)");
+        for (int count : keywordCounts) {
+            List<String> keywords = keywords(count);
+            KeywordMatcher matcher = KeywordMatcher.compile(keywords);
+
+            long sink = 0;
+            for (int i = 0; i < iterations; i++) {
+                sink += containsLoop(resume, keywords);
+                sink += matcher.findAll(resume).size();
+            }
+
+            long t0 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) sink += containsLoop(resume, keywords);
+            long t1 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) sink += matcher.findAll(resume).size();
+            long t2 = System.nanoTime();
+
+            System.out.printf("%-10d %16.1f %16.1f%n", count,
+                    (t1 - t0) / 1000.0 / iterations, (t2 - t1) / 1000.0 / iterations);
+            if (sink == 42) System.out.println();
+        }
+    }
+
+    // The pre-automaton mapKeywords strategy
+    private static int containsLoop(String resume, List<String> keywords) {
+        String lower = resume.toLowerCase();
+        int hits = 0;
+        for (String k : keywords) {
+            if (lower.contains(k)) hits++;
+        }
+        return hits;
+    }
+
+    // Real vocabulary words plus random filler terms that mostly miss
+    private static List<String> keywords(int count) {
+        List<String> keywords = new ArrayList<>(List.of(ScoringBenchmark.VOCABULARY));
+        Random random = new Random(count);
+        while (keywords.size() < count) {
+            StringBuilder sb = new StringBuilder();
+            int len = 4 + random.nextInt(6);
+            for (int i = 0; i < len; i++) sb.append((char) ('a' + random.nextInt(26)));
+            keywords.add(sb.toString());
+        }
+        return keywords.subList(0, count);
+    }
+}
@@ -0,0 +1,166 @@
+package benchmarks;
+
+import services.ResumeParserService.ParsedResume;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Frozen copy of the regex-based text parsing that ResumeParserService used before the
+ * precompiled pattern registry, kept as the baseline for RegexBenchmark.
+ */
+class LegacyParser {
+
+    ParsedResume parseText(String rawText) {
+        String text = normalizeText(rawText);
+        ParsedResume parsed = new ParsedResume();
+        parsed.setFullText(text);
+        Map<String, String> sections = extractSections(text);
+        parsed.setSections(sections);
+        parsed.setExperiences(splitExperienceBlocks(sections.getOrDefault("experience", "")));
+        return parsed;
+    }
+
+    // ---------------------------------------------------------
+    // Normalization (PUBLIC)
+    // ---------------------------------------------------------
+    String normalizeText(String text) {
+        return text
+                .replace("\r", "\n")
+                .replaceAll("\n{3,}", "\n\n")
+                .replace("▪", "-")
+                .replace("•", "-")
+                .replace("●", "-")
+                .replace("■", "-")
+                .replace("–", "-")
+                .replace("—", "-")
+                .trim();
+    }
+
+    // ---------------------------------------------------------
+    // Extract Sections (PUBLIC)
+    // ---------------------------------------------------------
+    Map<String, String> extractSections(String text) {
+        Map<String, String> sections = new LinkedHashMap<>();
+
+        // Normalize combined headers BEFORE regex
+        text = text.replaceAll("(?i)skills\\s*[/&]\\s*interests", "skills");
+        text = text.replaceAll("(?i)experience\\s*[/&]\\s*projects", "experience");
+
+        // Supported headers
+        String[] headers = {
+                "experience", "work experience", "professional experience",
+                "projects",
+                "skills", "technical skills",
+                "education",
+                "certifications", "awards", "honors",
+                "languages",
+                "interests"
+        };
+
+        // Build regex to detect headers
+        String headerRegex = "(?im)^(" + String.join("|", headers) + ")\\s*:?$";
+
+        Pattern pattern = Pattern.compile(headerRegex);
+        Matcher matcher = pattern.matcher(text);
+
+        List<Integer> indices = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        while (matcher.find()) {
+            indices.add(matcher.start());
+            names.add(matcher.group(1).trim().toLowerCase());
+        }
+
+        // end of document
+        indices.add(text.length());
+
+        // Build section blocks
+        for (int i = 0; i < names.size(); i++) {
+            int start = indices.get(i);
+            int end = indices.get(i + 1);
+
+            String header = names.get(i);
+            String content = text.substring(start, end)
+                    .replaceFirst("(?i)^" + Pattern.quote(header) + "\\s*:?", "")
+                    .trim();
+
+            sections.put(header, content);
+        }
+
+        // -----------------------------------------------------
+        // Auto-detect Education if missing
+        // -----------------------------------------------------
+        if (!sections.containsKey("education")) {
+            Pattern edu = Pattern.compile(
+                    "(?i)([A-Z][A-Za-z0-9 .,&-]+University[\\s\\S]{30,400})"
+            );
+            Matcher m = edu.matcher(text);
+            if (m.find()) {
+                sections.put("education", m.group(1).trim());
+            }
+        }
+
+        // -----------------------------------------------------
+        // Fallback SKILL extraction if no SKILLS section present
+        // -----------------------------------------------------
+        if (!sections.containsKey("skills")) {
+            Pattern skillPattern = Pattern.compile(
+                    "(?i)(skills?)[:\\s\\n-]+([\\s\\S]{20,200})(?=\\n[A-Z][A-Za-z ]+:|$)"
+            );
+            Matcher sm = skillPattern.matcher(text);
+            if (sm.find()) {
+                sections.put("skills", cleanSkills(sm.group(2)));
+            }
+        } else {
+            sections.put("skills", cleanSkills(sections.get("skills")));
+        }
+
+        return sections;
+    }
+
+    // ---------------------------------------------------------
+    // Clean Skills Block
+    // ---------------------------------------------------------
+    private String cleanSkills(String block) {
+        block = block
+                .replaceAll("(?i)interests?:.*", "")
+                .replaceAll("(?i)languages?:.*", "")
+                .trim();
+
+        String[] parts = block.split("[-,\\n]+");
+
+        List<String> cleaned = new ArrayList<>();
+        for (String p : parts) {
+            p = p.trim();
+            if (p.length() > 1) cleaned.add(p);
+        }
+
+        return String.join(", ", cleaned);
+    }
+
+    // ---------------------------------------------------------
+    // Split Experience Blocks
+    // ---------------------------------------------------------
+    private List<String> splitExperienceBlocks(String text) {
+        List<String> blocks = new ArrayList<>();
+
+        if (text == null || text.isEmpty()) return blocks;
+
+        // Split on lines starting with capitalized titles
+        String[] candidates = text.split("(?m)^(?=[A-Z][A-Za-z0-9 ]{3,})");
+
+        for (String c : candidates) {
+            c = c.trim();
+            if (c.length() > 60) {
+                blocks.add(c);
+            }
+        }
+
+        return blocks;
+    }
+}
@@ -0,0 +1,116 @@
+package benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import utils.TextScanner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Frozen copy of the text-to-PDF code that UploadController and SavedResumesController
+ * each carried before PdfTextRenderer, kept as the baseline for PdfRenderBenchmark.
+ * Only the destination changed, from a file to a stream.
+ */
+class LegacyPdfWriter {
+
+    static void render(String content, OutputStream out) throws IOException {
+        PDDocument document = new PDDocument();
+
+        // Clean content - remove control characters and replace special Unicode
+        content = content.replace("\r", "").replace("\t", "    ");
+        content = TextScanner.removeControlChars(content);
+
+        // Replace common special characters with ASCII equivalents
+        content = content.replace("■", "-").replace("▪", "-");
+        content = content.replace("●", "-").replace("•", "-");
+        content = content.replace("◦", "-").replace("▸", "-");
+        content = content.replace("►", "-").replace("→", "->");
+        content = content.replace("←", "<-").replace("–", "-");
+        content = content.replace("—", "-").replace("‘", "'");
+        content = content.replace("’", "'").replace("“", "\"");
+        content = content.replace("”", "\"").replace("…", "...");
+        content = content.replace("©", "(c)").replace("®", "(R)");
+        content = content.replace("™", "(TM)").replace("°", " deg");
+        // Strip any remaining non-ASCII characters
+        content = TextScanner.removeNonAscii(content);
+
+        String[] lines = content.split("\n");
+        int linesPerPage = 45;
+        int currentLine = 0;
+
+        // Write lines across multiple pages if needed
+        while (currentLine < lines.length) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+
+            PDPageContentStream contentStream = new PDPageContentStream(document, page);
+
+            contentStream.setFont(PDType1Font.HELVETICA, 11);
+            contentStream.beginText();
+            contentStream.newLineAtOffset(50, 750);
+
+            int linesOnThisPage = 0;
+            while (currentLine < lines.length && linesOnThisPage < linesPerPage) {
+                String line = lines[currentLine];
+
+                // Wrap long lines so they don't run off the page
+                if (line.length() > 90) {
+                    String[] wrappedLines = wrapText(line, 90);
+                    for (String wrappedLine : wrappedLines) {
+                        if (linesOnThisPage >= linesPerPage) break;
+                        contentStream.showText(wrappedLine);
+                        contentStream.newLineAtOffset(0, -15);
+                        linesOnThisPage++;
+                    }
+                } else {
+                    contentStream.showText(line);
+                    contentStream.newLineAtOffset(0, -15);
+                    linesOnThisPage++;
+                }
+                currentLine++;
+            }
+
+            contentStream.endText();
+            contentStream.close();
+        }
+
+        // If no content, still create an empty page
+        if (lines.length == 0 || (lines.length == 1 && lines[0].isEmpty())) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+        }
+
+        document.save(out);
+        document.close();
+    }
+
+    private static String[] wrapText(String text, int width) {
+        if (text.length() <= width) {
+            return new String[]{text};
+        }
+
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(start + width, text.length());
+
+            // Try to break at a space if possible
+            if (end < text.length()) {
+                int lastSpace = text.lastIndexOf(' ', end);
+                if (lastSpace > start) {
+                    end = lastSpace;
+                }
+            }
+
+            lines.add(text.substring(start, end).trim());
+            start = end + 1;
+        }
+
+        return lines.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import services.PdfTextRenderer;
+import services.ResumeAnalyzeService;
+import services.ResumeParserService;
+import services.ResumeParserService.ParsedResume;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Text-to-PDF rendering of analysis reports: PdfTextRenderer against the frozen copy of
+ * the code it replaced (LegacyPdfWriter). The documents are tailorResume reports for the
+ * corpus resumes and job descriptions, concatenated until they fill the requested number
+ * of pages, so they contain the usual bullets, arrows and long lines. Output goes to a
+ * null stream; B/op is allocation per rendered document.
+ *
+ * Run with: ./bench.sh PdfRenderBenchmark [pages...]     (default 1 20 200)
+ */
+public class PdfRenderBenchmark {
+
+    private static final int LINES_PER_PAGE = 45;
+
+    public static void main(String[] args) throws Exception {
+        int[] pageCounts = args.length == 0
+                ? new int[]{1, 20, 200}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        List<String> reports = reports();
+        Harness harness = new Harness(2, 5, 1000);
+        System.out.printf("%-8s %8s %14s %14s %14s %14s%n",
+                "pages", "lines", "legacy ms", "legacy B/op", "renderer ms", "renderer B/op");
+        for (int pages : pageCounts) {
+            String content = document(reports, pages * LINES_PER_PAGE);
+            int lines = content.split("\n").length;
+            int rendered = pageCount(content);
+
+            Harness.Result legacy = harness.run("legacy." + pages, () -> {
+                LegacyPdfWriter.render(content, OutputStream.nullOutputStream());
+                return null;
+            });
+            Harness.Result renderer = harness.run("renderer." + pages, () -> {
+                PdfTextRenderer.DOCUMENT.render(content, OutputStream.nullOutputStream());
+                return null;
+            });
+            System.out.printf("%-8d %8d %14.3f %14.0f %14.3f %14.0f%n", rendered, lines,
+                    1000.0 / legacy.opsPerSec, legacy.bytesPerOp,
+                    1000.0 / renderer.opsPerSec, renderer.bytesPerOp);
+        }
+    }
+
+    // One tailorResume report per corpus resume and job description
+    private static List<String> reports() throws Exception {
+        ResumeParserService parser = new ResumeParserService();
+        ResumeAnalyzeService analyzer = new ResumeAnalyzeService();
+
+        File[] jobs = CorpusGenerator.JOBS.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (jobs == null || jobs.length == 0) {
+            throw new IllegalStateException("No job descriptions in " + CorpusGenerator.JOBS);
+        }
+        Arrays.sort(jobs);
+
+        List<String> reports = new ArrayList<>();
+        for (File source : CorpusGenerator.sources()) {
+            File pdf = new File(CorpusGenerator.RESUMES, source.getName().replaceFirst("\\.txt$", ".pdf"));
+            if (!pdf.exists()) {
+                throw new IllegalStateException("Missing " + pdf + " (run ./bench.sh CorpusGenerator)");
+            }
+            ParsedResume parsed = parser.parseText(parser.extractText(pdf));
+            for (File job : jobs) {
+                reports.add(analyzer.tailorResume(parsed, Files.readString(job.toPath(), StandardCharsets.UTF_8)));
+            }
+        }
+        return reports;
+    }
+
+    private static String document(List<String> reports, int minLines) {
+        StringBuilder sb = new StringBuilder();
+        int lines = 0;
+        for (int i = 0; lines < minLines; i++) {
+            String report = reports.get(i % reports.size());
+            sb.append(report).append('\n');
+            lines += report.split("\n").length + 1;
+        }
+        return sb.toString();
+    }
+
+    private static int pageCount(String content) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfTextRenderer.DOCUMENT.render(content, out);
+        try (PDDocument doc = PDDocument.load(out.toByteArray())) {
+            return doc.getNumberOfPages();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import services.ResumeParserService;
+import services.ResumeParserService.ParsedResume;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text parsing (normalize, section split, skills cleanup, experience blocks) with the old
+ * String.replaceAll/split/matches calls versus the precompiled TextPatterns registry and the
+ * TextScanner loops. Inputs are the extracted text of each corpus PDF, including long_cv.pdf.
+ * Both parsers must produce the same ParsedResume before anything is timed.
+ *
+ * Run with: ./bench.sh RegexBenchmark
+ */
+public class RegexBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        ResumeParserService parser = new ResumeParserService();
+        LegacyParser legacy = new LegacyParser();
+
+        List<File> pdfs = new ArrayList<>();
+        for (File source : CorpusGenerator.sources()) {
+            pdfs.add(new File(CorpusGenerator.RESUMES, source.getName().replaceFirst("\\.txt$", ".pdf")));
+        }
+        pdfs.add(new File(CorpusGenerator.RESUMES, "long_cv.pdf"));
+
+        Harness harness = new Harness(2, 5, 500);
+        System.out.printf("%-22s %8s %12s %12s %12s %12s%n",
+                "input", "chars", "old B/op", "new B/op", "old ops/s", "new ops/s");
+        for (File pdf : pdfs) {
+            if (!pdf.exists()) {
+                throw new IllegalStateException("Missing " + pdf + " (run ./bench.sh CorpusGenerator)");
+            }
+            String raw = parser.extractText(pdf);
+            if (!sameResult(legacy.parseText(raw), parser.parseText(raw))) {
+                throw new IllegalStateException("Parsers disagree on " + pdf.getName());
+            }
+
+            String name = pdf.getName();
+            Harness.Result old = harness.run("regex." + name, () -> legacy.parseText(raw));
+            Harness.Result now = harness.run("compiled." + name, () -> parser.parseText(raw));
+            System.out.printf("%-22s %8d %12.0f %12.0f %12.0f %12.0f%n", name, raw.length(),
+                    old.bytesPerOp, now.bytesPerOp, old.opsPerSec, now.opsPerSec);
+        }
+    }
+
+    private static boolean sameResult(ParsedResume a, ParsedResume b) {
+        return a.getFullText().equals(b.getFullText())
+                && a.getSections().equals(b.getSections())
+                && a.getExperiences().equals(b.getExperiences());
+    }
+}
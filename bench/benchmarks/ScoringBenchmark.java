@@ -0,0 +1,124 @@
+package benchmarks;
+
+import services.BatchScoringService;
+import services.Bm25Scorer;
+import services.DocumentFrequencies;
+import services.MatchScorer;
+import services.ResumeAnalyzeService;
+import services.ResumeParserService;
+import services.TfIdfScorer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Throughput of scoring N resumes against one job description:
+ * the old per-resume calculatedMatchScore loop versus BatchScoringService, then
+ * BatchScoringService with each MatchScorer. The TF-IDF and BM25 scorers use the
+ * synthetic resumes themselves as the document-frequency corpus, added one at a time.
+ *
+ * Run with: ./bench.sh ScoringBenchmark [resumeCount] [rounds]
+ */
+public class ScoringBenchmark {
+
+    static final String JOB_DESCRIPTION = """
+            Senior Backend Engineer
+            We are looking for a backend engineer with strong Java and Spring Boot experience.
+            You will design REST APIs, build microservices on Kubernetes and Docker, and own
+            PostgreSQL and Redis data stores. Experience with Kafka, AWS, Terraform, CI/CD
+            pipelines, GitHub Actions, observability with Prometheus and Grafana, and Python
+            scripting is a plus. Java, Kubernetes and AWS are required; Go or Scala is nice to have.
+            """;
+
+    static final String[] VOCABULARY = {
+            "java", "python", "javascript", "spring", "boot", "kubernetes", "docker", "aws",
+            "terraform", "postgresql", "redis", "kafka", "react", "angular", "node", "grafana",
+            "prometheus", "scala", "golang", "rest", "apis", "microservices", "pipelines", "github",
+            "designed", "implemented", "led", "improved", "reduced", "latency", "built", "shipped",
+            "team", "customers", "platform", "services", "deployed", "migrated", "monitoring", "tests"
+    };
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        List<String> resumes = syntheticResumes(count, 400, 42L);
+        ResumeAnalyzeService analyzer = new ResumeAnalyzeService();
+        BatchScoringService batch = new BatchScoringService();
+
+        System.out.println("Resumes: " + count + ", rounds: " + rounds
+                + ", cores: " + Runtime.getRuntime().availableProcessors());
+
+        // Warm up both paths so the JIT has compiled the hot loops
+        for (int i = 0; i < 3; i++) {
+            sequential(analyzer, resumes);
+            batch.rankTexts(JOB_DESCRIPTION, resumes);
+        }
+
+        long seqNanos = 0;
+        long batchNanos = 0;
+        for (int r = 0; r < rounds; r++) {
+            long t0 = System.nanoTime();
+            sequential(analyzer, resumes);
+            long t1 = System.nanoTime();
+            batch.rankTexts(JOB_DESCRIPTION, resumes);
+            long t2 = System.nanoTime();
+            seqNanos += t1 - t0;
+            batchNanos += t2 - t1;
+        }
+
+        report("calculatedMatchScore loop", count * (long) rounds, seqNanos);
+        report("BatchScoringService", count * (long) rounds, batchNanos);
+
+        DocumentFrequencies corpus = new DocumentFrequencies();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < resumes.size(); i++) {
+            corpus.add(i, resumes.get(i));
+        }
+        report("DocumentFrequencies.add", count, System.nanoTime() - t0);
+
+        scorer("scorer: keywords", MatchScorer.KEYWORD_COVERAGE, resumes, rounds);
+        scorer("scorer: tfidf", new TfIdfScorer(corpus), resumes, rounds);
+        scorer("scorer: bm25", new Bm25Scorer(corpus), resumes, rounds);
+    }
+
+    private static void scorer(String label, MatchScorer scorer, List<String> resumes, int rounds) {
+        BatchScoringService batch = new BatchScoringService(new ResumeAnalyzeService(scorer), new ResumeParserService());
+        for (int i = 0; i < 3; i++) {
+            batch.rankTexts(JOB_DESCRIPTION, resumes);
+        }
+        long t0 = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            batch.rankTexts(JOB_DESCRIPTION, resumes);
+        }
+        report(label, resumes.size() * (long) rounds, System.nanoTime() - t0);
+    }
+
+    private static double sequential(ResumeAnalyzeService analyzer, List<String> resumes) {
+        double sink = 0;
+        for (String text : resumes) {
+            sink += analyzer.calculatedMatchScore(text, JOB_DESCRIPTION);
+        }
+        return sink;
+    }
+
+    private static void report(String label, long resumes, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        System.out.printf("%-28s %,12.0f resumes/sec%n", label, resumes / seconds);
+    }
+
+    static List<String> syntheticResumes(int count, int wordsPerResume, long seed) {
+        Random random = new Random(seed);
+        List<String> resumes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder("Candidate " + i + "\nEXPERIENCE\n");
+            for (int w = 0; w < wordsPerResume; w++) {
+                sb.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+                sb.append(w % 12 == 11 ? ".\n" : " ");
+            }
+            resumes.add(sb.toString());
+        }
+        return resumes;
+    }
+}
@@ -0,0 +1,132 @@
+package benchmarks;
+
+import models.Resume;
+import services.ResumeParserService;
+import services.ResumeSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Query latency of ResumeSearchIndex over a large synthetic population.
+ * Resumes are generated from a fixed seed: a skills line drawn from a list of technologies and
+ * experience text drawn from a Zipf-distributed vocabulary, then run through the real parser.
+ * Also reports how long indexing and incremental replace/remove take.
+ *
+ * Run with: ./bench.sh SearchBenchmark [resumes]     (default 100000)
+ */
+public class SearchBenchmark {
+
+    private static final String[] SKILLS = {
+            "Java", "Go", "Python", "Kubernetes", "Docker", "AWS", "GCP", "Azure", "Terraform", "SQL",
+            "PostgreSQL", "MySQL", "Redis", "Kafka", "Spark", "React", "TypeScript", "Node.js", "C++", "Rust",
+            "Scala", "Kotlin", "Swift", "Linux", "Git", "CI/CD", "GraphQL", "REST", "gRPC", "Machine Learning",
+            "TensorFlow", "PyTorch", "Pandas", "Tableau", "Excel", "Jenkins", "Ansible", "Elasticsearch", "MongoDB", "Spring"
+    };
+
+    private static final String[] QUERIES = {
+            "kubernetes AND go",
+            "skill:kubernetes skill:go",
+            "\"machine learning\" python",
+            "java OR kotlin",
+            "terraform aws -azure",
+            "\"distributed systems\" kafka",
+    };
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        ResumeParserService parser = new ResumeParserService();
+        ResumeSearchIndex index = new ResumeSearchIndex();
+        Random random = new Random(42);
+        String[] vocabulary = vocabulary(5000, random);
+
+        long start = System.nanoTime();
+        for (int id = 1; id <= count; id++) {
+            Resume resume = new Resume("user" + (id % 500), "resume" + id + ".pdf", "uploads/resume" + id + ".pdf");
+            resume.setId(id);
+            index.add(resume, parser.parseText(generate(random, vocabulary)));
+        }
+        double indexSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Indexed %d resumes in %.1fs (%.0f/s), heap used %d MB%n", count, indexSeconds,
+                count / indexSeconds, usedHeapMb());
+
+        Harness harness = new Harness(2, 5, 500);
+        System.out.printf("%-32s %10s %12s %10s%n", "query", "hits", "ms/query", "B/op");
+        for (String query : QUERIES) {
+            int hits = index.search(query, 20).size();
+            Harness.Result r = harness.run("search." + query, () -> index.search(query, 20));
+            System.out.printf("%-32s %10d %12.3f %10.0f%n", query, hits, 1000.0 / r.opsPerSec, r.bytesPerOp);
+        }
+
+        // Incremental maintenance: replace then remove a spread of resumes
+        int updates = Math.min(1000, count);
+        start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            int id = 1 + random.nextInt(count);
+            Resume resume = new Resume("user" + (id % 500), "resume" + id + ".pdf", "uploads/edited" + id + ".pdf");
+            resume.setId(id);
+            index.add(resume, parser.parseText(generate(random, vocabulary)));
+        }
+        double replaceMs = (System.nanoTime() - start) / 1e6 / updates;
+        start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            index.remove(1 + random.nextInt(count));
+        }
+        double removeMs = (System.nanoTime() - start) / 1e6 / updates;
+        System.out.printf("replace %.3f ms/resume (parse included), remove %.3f ms/resume, %d left%n",
+                replaceMs, removeMs, index.size());
+    }
+
+    private static String generate(Random random, String[] vocabulary) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Jordan Example\njordan@example.com\n\nSkills\n");
+        int skills = 4 + random.nextInt(8);
+        for (int i = 0; i < skills; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(SKILLS[random.nextInt(SKILLS.length)]);
+        }
+        sb.append("\n\nExperience\n");
+        int jobs = 2 + random.nextInt(3);
+        for (int j = 0; j < jobs; j++) {
+            sb.append("Software Engineer at Company").append(random.nextInt(1000)).append('\n');
+            int words = 40 + random.nextInt(80);
+            for (int w = 0; w < words; w++) {
+                if (random.nextInt(25) == 0) {
+                    sb.append(random.nextBoolean() ? "distributed systems " : "machine learning ");
+                } else if (random.nextInt(12) == 0) {
+                    sb.append(SKILLS[random.nextInt(SKILLS.length)]).append(' ');
+                } else {
+                    sb.append(zipf(random, vocabulary)).append(' ');
+                }
+            }
+            sb.append(".\n");
+        }
+        sb.append("\nEducation\nState University, B.S. Computer Science\n");
+        return sb.toString();
+    }
+
+    private static String[] vocabulary(int size, Random random) {
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder w = new StringBuilder();
+            int length = 3 + random.nextInt(7);
+            for (int c = 0; c < length; c++) w.append((char) ('a' + random.nextInt(26)));
+            words[i] = w.toString();
+        }
+        return words;
+    }
+
+    // Rank r is drawn with probability ~ 1/r
+    private static String zipf(Random random, String[] vocabulary) {
+        double u = random.nextDouble();
+        int rank = (int) Math.pow(vocabulary.length, u);
+        return vocabulary[Math.min(vocabulary.length - 1, rank - 1)];
+    }
+
+    private static long usedHeapMb() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import services.ResumeAnalyzeService;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Per-call garbage of analyzeJobDescription on postings of growing length:
+ * the old toLowerCase/split/groupingBy/sort pipeline versus the TermCounter tokenizer.
+ * Postings are built by repeating the corpus job descriptions.
+ *
+ * Run with: ./bench.sh TokenizerBenchmark
+ */
+public class TokenizerBenchmark {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "and", "or", "with", "the", "a", "an", "to", "of", "in", "for",
+            "on", "at", "by", "is", "are", "as", "be", "this", "that", "will",
+            "we", "our", "you", "your", "from"
+    );
+
+    public static void main(String[] args) throws Exception {
+        StringBuilder all = new StringBuilder();
+        File[] jobs = CorpusGenerator.JOBS.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (jobs == null || jobs.length == 0) {
+            throw new IllegalStateException("No job descriptions in " + CorpusGenerator.JOBS);
+        }
+        Arrays.sort(jobs);
+        for (File job : jobs) {
+            all.append(Files.readString(job.toPath(), StandardCharsets.UTF_8)).append('\n');
+        }
+
+        ResumeAnalyzeService analyzer = new ResumeAnalyzeService();
+        Harness harness = new Harness(2, 5, 500);
+        int[] sizes = {2_000, 10_000, 50_000};
+
+        System.out.printf("%-10s %14s %14s %10s %12s %12s%n",
+                "chars", "old B/op", "new B/op", "garbage", "old ops/s", "new ops/s");
+        for (int size : sizes) {
+            StringBuilder sb = new StringBuilder(size);
+            while (sb.length() < size) sb.append(all);
+            String posting = sb.substring(0, size);
+
+            if (!analyzer.analyzeJobDescription(posting).containsAll(streamTop20(posting).subList(0, 5))) {
+                System.out.println("warning: top terms differ for " + size + " chars");
+            }
+
+            Harness.Result old = harness.run("stream." + size, () -> streamTop20(posting));
+            Harness.Result now = harness.run("termCounter." + size, () -> analyzer.analyzeJobDescription(posting));
+            System.out.printf("%-10d %14.0f %14.0f %9.1fx %12.0f %12.0f%n", size, old.bytesPerOp, now.bytesPerOp,
+                    old.bytesPerOp / Math.max(1, now.bytesPerOp), old.opsPerSec, now.opsPerSec);
+        }
+    }
+
+    // The pre-TermCounter analyzeJobDescription
+    private static List<String> streamTop20(String jobDescription) {
+        String[] tokens = jobDescription.toLowerCase().split("[^a-zA-Z0-9+]+");
+        Map<String, Long> frequency = Arrays.stream(tokens)
+                .filter(token -> token.length() > 2 && !STOPWORDS.contains(token))
+                .collect(Collectors.groupingBy(token -> token, Collectors.counting()));
+
+        return frequency.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(20)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+}
@@ -31,7 +31,7 @@ CREATE TABLE IF NOT EXISTS resumes (
 -- Tailored resumes generated from an original resume --
 CREATE TABLE IF NOT EXISTS tailored_resumes (
     id                  INTEGER PRIMARY KEY AUTOINCREMENT,
-    user_id             INTEGER NOT NULL,
+    user_id             TEXT    NOT NULL,
     resume_id           INTEGER NOT NULL,   -- FK to resumes.id
     job_title           TEXT,               -- what job this was tailored for
     job_company         TEXT,
@@ -41,4 +41,126 @@ CREATE TABLE IF NOT EXISTS tailored_resumes (
     created_at          TEXT    DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id)   REFERENCES users(id)    ON DELETE CASCADE,
     FOREIGN KEY (resume_id) REFERENCES resumes(id)  ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- Parsed resume cache, keyed by SHA-256 of the file bytes --
+CREATE TABLE IF NOT EXISTS parsed_resume_cache (
+    content_hash TEXT    PRIMARY KEY,   -- parser version + ':' + hex SHA-256 of the original file
+    raw_text     TEXT,                  -- text as extracted, for showing, editing and exporting
+    full_text    TEXT    NOT NULL,      -- normalized extracted text, for parsing and scoring
+    created_at   TEXT    DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS parsed_resume_sections (
+    content_hash TEXT    NOT NULL,
+    position     INTEGER NOT NULL,      -- keeps section order
+    name         TEXT    NOT NULL,
+    content      TEXT    NOT NULL,
+    PRIMARY KEY (content_hash, position),
+    FOREIGN KEY (content_hash) REFERENCES parsed_resume_cache(content_hash) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS parsed_resume_experiences (
+    content_hash TEXT    NOT NULL,
+    position     INTEGER NOT NULL,
+    content      TEXT    NOT NULL,
+    PRIMARY KEY (content_hash, position),
+    FOREIGN KEY (content_hash) REFERENCES parsed_resume_cache(content_hash) ON DELETE CASCADE
+);
+
+-- Indexes. Every DAO query must be answerable without a full table scan --
+-- (QueryPlanCheck runs EXPLAIN QUERY PLAN over the DAO statements at startup) --
+
+-- Saved resumes list, newest first. Covering, so the list never touches the table --
+CREATE INDEX IF NOT EXISTS idx_resumes_user_uploaded
+    ON resumes (user_id, uploaded_at DESC, file_name, file_path);
+
+-- Saved resumes list, A-Z. Expression index matches ORDER BY LOWER(file_name) --
+CREATE INDEX IF NOT EXISTS idx_resumes_user_name
+    ON resumes (user_id, LOWER(file_name), uploaded_at DESC, file_name, file_path);
+
+-- References to a stored file, counted by BlobStore before it deletes the file --
+CREATE INDEX IF NOT EXISTS idx_resumes_file_path
+    ON resumes (file_path);
+
+-- Parse cache eviction, oldest entries first --
+CREATE INDEX IF NOT EXISTS idx_parsed_resume_cache_created
+    ON parsed_resume_cache (created_at);
+
+-- Analyzed resumes per user, newest first --
+CREATE INDEX IF NOT EXISTS idx_tailored_user_created
+    ON tailored_resumes (user_id, created_at DESC);
+
+-- Analyzed resumes per original resume, also used by ON DELETE CASCADE from resumes --
+CREATE INDEX IF NOT EXISTS idx_tailored_resume_created
+    ON tailored_resumes (resume_id, created_at DESC, user_id);
+
+-- OAuth login lookup and the email-in-use check --
+CREATE INDEX IF NOT EXISTS idx_oauth_users_email
+    ON oauth_users (oauth_email, oauth_provider);
+
+-- Next free number for each prefixed id sequence (U for users, O for oauth_users) --
+-- IdAllocator reserves blocks from here, seeded from the existing ids on first use --
+CREATE TABLE IF NOT EXISTS id_sequences (
+    name       TEXT    PRIMARY KEY,
+    next_value INTEGER NOT NULL
+);
+
+-- Saved job descriptions, the corpus JobMatchIndex ranks for a resume --
+CREATE TABLE IF NOT EXISTS job_descriptions (
+    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id     TEXT    NOT NULL,
+    title       TEXT,
+    company     TEXT,
+    description TEXT    NOT NULL,
+    created_at  TEXT    DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Scoring keywords of each job description, computed once when it is saved --
+CREATE TABLE IF NOT EXISTS job_description_keywords (
+    job_id   INTEGER NOT NULL,
+    position INTEGER NOT NULL,   -- rank of the keyword in the description
+    keyword  TEXT    NOT NULL,
+    PRIMARY KEY (job_id, position),
+    FOREIGN KEY (job_id) REFERENCES job_descriptions(id) ON DELETE CASCADE
+);
+
+-- Job descriptions per user, newest first --
+CREATE INDEX IF NOT EXISTS idx_job_descriptions_user_created
+    ON job_descriptions (user_id, created_at DESC);
+
+-- Full-text search (FTS5). Kept last so a driver without FTS5 still gets every table above --
+
+-- Resume text search is in memory (ResumeSearchIndex); drop the old copy of the text --
+DROP TRIGGER IF EXISTS resume_fts_delete;
+DROP TABLE IF EXISTS resume_fts;
+
+-- Index over tailored_resumes without a second copy of the text (external content) --
+-- rowid = tailored_resumes.id, kept in sync by the triggers below --
+CREATE VIRTUAL TABLE IF NOT EXISTS tailored_fts USING fts5(
+    job_title,
+    job_company,
+    job_description,
+    tailored_text,
+    content = 'tailored_resumes',
+    content_rowid = 'id',
+    tokenize = 'porter unicode61'
+);
+
+CREATE TRIGGER IF NOT EXISTS tailored_fts_insert AFTER INSERT ON tailored_resumes BEGIN
+    INSERT INTO tailored_fts (rowid, job_title, job_company, job_description, tailored_text)
+    VALUES (new.id, new.job_title, new.job_company, new.job_description, new.tailored_text);
+END;
+
+CREATE TRIGGER IF NOT EXISTS tailored_fts_delete AFTER DELETE ON tailored_resumes BEGIN
+    INSERT INTO tailored_fts (tailored_fts, rowid, job_title, job_company, job_description, tailored_text)
+    VALUES ('delete', old.id, old.job_title, old.job_company, old.job_description, old.tailored_text);
+END;
+
+CREATE TRIGGER IF NOT EXISTS tailored_fts_update AFTER UPDATE ON tailored_resumes BEGIN
+    INSERT INTO tailored_fts (tailored_fts, rowid, job_title, job_company, job_description, tailored_text)
+    VALUES ('delete', old.id, old.job_title, old.job_company, old.job_description, old.tailored_text);
+    INSERT INTO tailored_fts (rowid, job_title, job_company, job_description, tailored_text)
+    VALUES (new.id, new.job_title, new.job_company, new.job_description, new.tailored_text);
+END;
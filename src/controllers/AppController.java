@@ -3,7 +3,9 @@ package controllers;
 import services.AuthService;
 import services.TwilioService;
 import services.ResumeParserService;
+import services.AnalysisService;
 import services.ResumeAnalyzeService;
+import services.MatchScorer;
 import dao.ResumeDAO;
 import dao.AnalyzedResumeDAO;
 
@@ -62,6 +64,13 @@ public class AppController extends BaseController<ResumeAnalyzingContainer> {
                 openLogin();
             }
         });
+
+        // Logout: an analysis still running would be saved for the user who just left
+        view.setOnLogout(() -> {
+            if (uploadController != null) {
+                uploadController.cancelCurrent();
+            }
+        });
     }
 
     // Upload wiring
@@ -71,20 +80,19 @@ public class AppController extends BaseController<ResumeAnalyzingContainer> {
         if (up != null && uploadController == null) {
             // Services for parsing
             ResumeParserService parser = new ResumeParserService();
-            ResumeAnalyzeService analyzeService = new ResumeAnalyzeService();
+            ResumeAnalyzeService analyzeService =
+                    new ResumeAnalyzeService(MatchScorer.forMode(utils.Constants.Scoring.MODE));
 
             // DAOs for both forms of resumes
             ResumeDAO resumeDAO = new ResumeDAO();
             AnalyzedResumeDAO analyzedResumeDAO = new AnalyzedResumeDAO();
 
+            // Background pipeline: parse -> analyze -> render -> save
+            AnalysisService analysisService =
+                    new AnalysisService(parser, analyzeService, resumeDAO, analyzedResumeDAO);
+
             // Controller that handles the upload
-            uploadController = new UploadController(
-                    up,
-                    parser,
-                    analyzeService,
-                    resumeDAO,
-                    analyzedResumeDAO
-            );
+            uploadController = new UploadController(up, analysisService);
         }
     }
 
@@ -1,6 +1,12 @@
 package controllers;
 
+import services.BlockingTaskExecutor;
+
+import javax.swing.SwingUtilities;
 import java.awt.Window;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
 
 public abstract class BaseController<V> {
     protected final V view;
@@ -23,6 +29,16 @@ public abstract class BaseController<V> {
         if (view instanceof Window w) { w.dispose(); }
     }
 
+    /*
+         Runs blocking work (network, database) on the shared task executor and hands the
+         outcome to onDone on the event thread: the result and null, or null and the failure
+         (a TimeoutException when the task ran out of time).
+    */
+    protected <T> void runInBackground(Callable<T> task, Duration timeout, BiConsumer<T, Throwable> onDone) {
+        BlockingTaskExecutor.shared().submit(task, timeout)
+                .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> onDone.accept(result, error)));
+    }
+
     // Convenience helper to get the current user ID or null if there isnt a user
     protected String getCurrentUserId() {
         try {
@@ -1,11 +1,8 @@
 package controllers;
 
-import models.User;
 import services.AuthService;
 import ui.LoginFrame;
 
-import javax.swing.SwingWorker;
-
 public class LoginController extends BaseController<LoginFrame> {
     private final AuthService authService;  // Auth service for oauth
     private final Runnable onSuccess;       // Callback for when login works
@@ -49,10 +46,13 @@ public class LoginController extends BaseController<LoginFrame> {
             return;
         }
 
-        try {
-            // Delegate auth to Authservice
-            User user = authService.login(email, password);
-            if (user != null) {
+        // Password check and database lookup run off the EDT
+        view.setOAuthEnabled(false);
+        runInBackground(() -> authService.login(email, password), utils.Constants.Timeouts.DATABASE, (user, error) -> {
+            view.setOAuthEnabled(true);
+            if (error != null) {
+                view.showError("An error occurred: " + error.getMessage(), "Error");
+            } else if (user != null) {
                 // Stores the user in the session
                 try { utils.Constants.Session.login(user); } catch (Throwable ignored) {}
                 view.showInfo("Welcome " + (user.getName() != null ? user.getName() : "back") + "!", "Login Successful");
@@ -62,9 +62,7 @@ public class LoginController extends BaseController<LoginFrame> {
                 // Credentials not matching
                 view.showError("Invalid email or password.", "Login Failed");
             }
-        } catch (Exception ex) {
-            view.showError("An error occurred: " + ex.getMessage(), "Error");
-        }
+        });
     }
 
     // Handles an OAuth login
@@ -72,35 +70,26 @@ public class LoginController extends BaseController<LoginFrame> {
         // Temp disables OAuth buttons so the user can't click it multiple times
         view.setOAuthEnabled(false);
 
-        // Runs the OAuth flow off the EDT using Swing
-        new SwingWorker<User, Void>() {
-            @Override
-            protected User doInBackground() throws Exception {
-                // Chooses the correct OAuth method
-                if ("google".equals(provider)) return authService.continueWithGoogle();
-                if ("github".equals(provider)) return authService.continueWithGitHub();
-                return null;
-            }
-
-            @Override
-            protected void done() {
-                // Re-enable the OAuth buttons
-                view.setOAuthEnabled(true);
-                try {
-                    User user = get();
-                    if (user != null) {
-                        // Stores the user in the session
-                        try { utils.Constants.Session.login(user); } catch (Throwable ignored) {}
-                        dispose();
-                        onSuccess.run();
-                    } else {
-                        view.showError("OAuth sign-in failed.", "Login Failed");
-                    }
-                } catch (Exception ex) {
-                    // Any exceptions during OAuth
-                    view.showError("OAuth error: " + ex.getMessage(), "Error");
-                }
+        // Runs the OAuth flow off the EDT; it gives up when the browser sign-in times out
+        runInBackground(() -> {
+            // Chooses the correct OAuth method
+            if ("google".equals(provider)) return authService.continueWithGoogle();
+            if ("github".equals(provider)) return authService.continueWithGitHub();
+            return null;
+        }, utils.Constants.Timeouts.OAUTH, (user, error) -> {
+            // Re-enable the OAuth buttons
+            view.setOAuthEnabled(true);
+            if (error != null) {
+                // Any exceptions during OAuth
+                view.showError("OAuth error: " + error.getMessage(), "Error");
+            } else if (user != null) {
+                // Stores the user in the session
+                try { utils.Constants.Session.login(user); } catch (Throwable ignored) {}
+                dispose();
+                onSuccess.run();
+            } else {
+                view.showError("OAuth sign-in failed.", "Login Failed");
             }
-        }.execute();
+        });
     }
 }
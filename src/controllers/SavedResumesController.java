@@ -1,8 +1,17 @@
 package controllers;
 
 import dao.ResumeDAO;
+import dao.TextSearchDAO;
 import models.Resume;
+import services.BatchScoringService;
+import services.BlobStore;
+import services.BulkExportService;
+import services.BulkImportService;
 import services.ExportService;
+import services.PdfTextRenderer;
+import services.ResumeParserService;
+import services.ResumeSearchIndex;
+import services.TextSearchService;
 import ui.ResumeEditFrame;
 import ui.SavedResumesPanel;
 
@@ -12,7 +21,9 @@ import java.io.IOException;
 import java.nio.file.*;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class SavedResumesController extends BaseController<SavedResumesPanel> {
 
@@ -22,14 +33,42 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
     // Service responsible for exporting resumes (PDF / DOCX)
     private final ExportService exportService;
 
+    // Pipeline for importing a whole folder of resumes
+    private final BulkImportService bulkImportService;
+
+    // Exports the selected resumes, or all of them, into one ZIP
+    private final BulkExportService bulkExportService;
+
+    // Content-addressed storage for uploaded and edited files
+    private final BlobStore blobStore;
+
+    // Ranks the user's resumes against one job description
+    private final BatchScoringService batchScoringService;
+
     // Sorting options for the list
     private enum SortMode { DATE_DESC, NAME_ASC }
     private SortMode sortMode = SortMode.DATE_DESC; // default sort
 
+    // Most search results shown at once
+    private static final int SEARCH_LIMIT = 100;
+
+    // Matched keywords listed on a ranked card
+    private static final int RANK_KEYWORDS_SHOWN = 6;
+
+    // Current search over the resume contents; blank lists the whole library
+    private String searchQuery = "";
+    // Job description the list is ranked against; null for the sorted library
+    private String rankJobDescription;
+    private int listGeneration; // only the latest search or ranking may update the list
+
     public SavedResumesController(SavedResumesPanel view, ResumeDAO resumeDAO) {
         super(view);
         this.resumeDAO = resumeDAO;
         this.exportService = new ExportService();
+        this.bulkImportService = new BulkImportService(resumeDAO, new ResumeParserService());
+        this.bulkExportService = new BulkExportService(resumeDAO, exportService);
+        this.blobStore = BlobStore.getInstance();
+        this.batchScoringService = new BatchScoringService();
 
         attach(); // wire UI callbacks
         reload(); // initial load of resumes
@@ -40,18 +79,33 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
         // Upload button: open file chooser and save to DB
         view.setOnUpload(this::handleUploadClicked);
 
+        // Import folder button: bulk import every resume in a folder
+        view.setOnImportFolder(this::handleImportFolderClicked);
+
         // Sort by date
         view.setOnSortByDate(() -> {
             sortMode = SortMode.DATE_DESC;
+            rankJobDescription = null;
             reload();
         });
 
         // Sort by alphabet
         view.setOnSortByName(() -> {
             sortMode = SortMode.NAME_ASC;
+            rankJobDescription = null;
+            reload();
+        });
+
+        // Search the resume contents (ResumeSearchIndex), then past analyses (TextSearchService)
+        view.setOnSearch(query -> {
+            searchQuery = query;
+            rankJobDescription = null;
             reload();
         });
 
+        // Rank the resumes against a pasted job description (BatchScoringService)
+        view.setOnRankForJob(this::handleRankForJobClicked);
+
         // Edit selected resume
         view.setOnEdit(resume -> handleEdit(resume));
 
@@ -104,6 +158,9 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
 
         // Export as DOCX
         view.setOnExportDocx(resume -> handleExportDocx(resume));
+
+        // Export the selection (or everything) into one ZIP
+        view.setOnBulkExport(this::handleBulkExportClicked);
     }
 
     // Handle editing a saved resume
@@ -155,117 +212,60 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
         editFrame.setVisible(true);
     }
 
-    // Saves edited content to the existing file
+    /*
+         Saves edited content in the same format as the resume's file. Stored files can be
+         shared by several resumes, so the edit is written to a new file, stored, and the
+         resume pointed at it; the old file is collected once nothing refers to it.
+    */
     private boolean saveEditedContent(Resume resume, String content, String userId) {
+        Path edited = null;
         try {
             String originalPath = resume.getFilePath();
             String fileType = getFileExtension(originalPath);
 
-            // Overwrite the existing file with the same format
+            Path uploadsDir = Paths.get("uploads");
+            Files.createDirectories(uploadsDir);
+            edited = Files.createTempFile(uploadsDir, "edited_", "." + fileType);
+
+            // Write the edited file with the same format
             boolean success;
             if ("pdf".equalsIgnoreCase(fileType)) {
-                success = saveEditedPdfFile(originalPath, content);
+                success = saveEditedPdfFile(edited.toString(), content);
             } else {
-                success = saveEditedDocxFile(originalPath, content);
+                success = saveEditedDocxFile(edited.toString(), content);
+            }
+            if (!success) {
+                return false;
             }
 
-            return success;
+            BlobStore.Blob blob = blobStore.adopt(edited, originalPath);
+            try {
+                String newPath = blob.getPath().toString();
+                if (!resumeDAO.updateResumeFilePath(resume.getId(), userId, newPath)) {
+                    return false;
+                }
+                resume.setFilePath(newPath);
+            } finally {
+                blobStore.release(blob);
+            }
+            return true;
 
         } catch (Exception e) {
             e.printStackTrace();
             return false;
+        } finally {
+            try {
+                if (edited != null) Files.deleteIfExists(edited);
+            } catch (IOException ignored) {}
         }
     }
 
 
-    //Saves edited content to an existing PDF file (overwrites)
+    //Writes edited content to a PDF file (overwrites)
     private boolean saveEditedPdfFile(String filePath, String content) {
         try {
-            // Create PDF with the edited content using PDFBox
-            org.apache.pdfbox.pdmodel.PDDocument document = new org.apache.pdfbox.pdmodel.PDDocument();
-
-            // Clean content - remove control characters and replace special Unicode characters
-            // that Helvetica font doesn't support
-            content = content.replace("\r", "").replace("\t", "    ");
-            content = content.replaceAll("[\\p{Cntrl}&&[^\n]]", "");
-            
-            // Replace common bullet points and special characters with ASCII equivalents
-            content = content.replace("\u25A0", "-");  // blacksquare ■
-            content = content.replace("\u25AA", "-");  // small blacksquare ▪
-            content = content.replace("\u25CF", "-");  // bullet ●
-            content = content.replace("\u2022", "-");  // bullet •
-            content = content.replace("\u25E6", "-");  // white bullet ◦
-            content = content.replace("\u25B8", "-");  // right arrow ▸
-            content = content.replace("\u25BA", "-");  // right pointer ►
-            content = content.replace("\u2192", "->");  // arrow →
-            content = content.replace("\u2190", "<-");  // left arrow ←
-            content = content.replace("\u2013", "-");  // en dash –
-            content = content.replace("\u2014", "-");  // em dash —
-            content = content.replace("\u2018", "'");  // left single quote '
-            content = content.replace("\u2019", "'");  // right single quote '
-            content = content.replace("\u201C", "\""); // left double quote "
-            content = content.replace("\u201D", "\""); // right double quote "
-            content = content.replace("\u2026", "..."); // ellipsis …
-            content = content.replace("\u00A9", "(c)"); // copyright ©
-            content = content.replace("\u00AE", "(R)"); // registered ®
-            content = content.replace("\u2122", "(TM)"); // trademark ™
-            content = content.replace("\u00B0", " deg"); // degree °
-            
-            // Remove any remaining non-ASCII characters that Helvetica can't handle
-            content = content.replaceAll("[^\\x00-\\x7F]", "");
-
-            String[] lines = content.split("\n");
-
-            // Calculate pages needed (approx 45 lines per page with 12pt font)
-            int linesPerPage = 45;
-            int currentLine = 0;
-
-            while (currentLine < lines.length) {
-                org.apache.pdfbox.pdmodel.PDPage page = new org.apache.pdfbox.pdmodel.PDPage();
-                document.addPage(page);
-
-                org.apache.pdfbox.pdmodel.PDPageContentStream contentStream = 
-                    new org.apache.pdfbox.pdmodel.PDPageContentStream(document, page);
-
-                contentStream.setFont(org.apache.pdfbox.pdmodel.font.PDType1Font.HELVETICA, 11);
-                contentStream.beginText();
-                contentStream.newLineAtOffset(50, 750);
-
-                int linesOnThisPage = 0;
-                while (currentLine < lines.length && linesOnThisPage < linesPerPage) {
-                    String line = lines[currentLine];
-
-                    // Wrap long lines
-                    if (line.length() > 90) {
-                        String[] wrappedLines = wrapText(line, 90);
-                        for (String wrappedLine : wrappedLines) {
-                            if (linesOnThisPage >= linesPerPage) break;
-                            contentStream.showText(wrappedLine);
-                            contentStream.newLineAtOffset(0, -15);
-                            linesOnThisPage++;
-                        }
-                    } else {
-                        contentStream.showText(line);
-                        contentStream.newLineAtOffset(0, -15);
-                        linesOnThisPage++;
-                    }
-                    currentLine++;
-                }
-
-                contentStream.endText();
-                contentStream.close();
-            }
-
-            // Handle empty content case
-            if (lines.length == 0 || (lines.length == 1 && lines[0].isEmpty())) {
-                org.apache.pdfbox.pdmodel.PDPage page = new org.apache.pdfbox.pdmodel.PDPage();
-                document.addPage(page);
-            }
-
-            // Save to the original file path (overwrite)
-            document.save(new File(filePath));
-            document.close();
-
+            // Overwrites the path once the new document is complete
+            PdfTextRenderer.DOCUMENT.render(content, Paths.get(filePath));
             System.out.println("✓ PDF updated: " + filePath);
             return true;
 
@@ -275,33 +275,7 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
         }
     }
 
-    // Helper method to wrap text at a specified width
-    private String[] wrapText(String text, int width) {
-        if (text.length() <= width) {
-            return new String[]{text};
-        }
-
-        java.util.List<String> lines = new java.util.ArrayList<>();
-        int start = 0;
-        while (start < text.length()) {
-            int end = Math.min(start + width, text.length());
-
-            // Try to break at a space if possible
-            if (end < text.length()) {
-                int lastSpace = text.lastIndexOf(' ', end);
-                if (lastSpace > start) {
-                    end = lastSpace;
-                }
-            }
-
-            lines.add(text.substring(start, end).trim());
-            start = end + 1;
-        }
-
-        return lines.toArray(new String[0]);
-    }
-
-    //Saves edited content to an existing DOCX file (overwrites)
+    //Writes edited content to a DOCX file (overwrites)
     private boolean saveEditedDocxFile(String filePath, String content) {
         try {
             // Create DOCX with the edited content
@@ -316,7 +290,7 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
                 run.setFontSize(11);
             }
 
-            // Write to the original file path (overwrite)
+            // Write to the file path (overwrite)
             try (java.io.FileOutputStream out = new java.io.FileOutputStream(filePath)) {
                 document.write(out);
             }
@@ -369,11 +343,10 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
                 if (overwrite != JOptionPane.YES_OPTION) {
                     return; // User cancelled
                 }
-                // Delete existing file to allow overwrite
-                checkFile.delete();
             }
             
-            boolean success = exportService.exportToPDF(resume, path);
+            // Replaces an existing file, or leaves it alone if it already matches
+            boolean success = exportService.exportToPDF(resume, path, true);
             if (success) {
                 JOptionPane.showMessageDialog(
                         view,
@@ -420,11 +393,10 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
                 if (overwrite != JOptionPane.YES_OPTION) {
                     return; // User cancelled
                 }
-                // Delete existing file to allow overwrite
-                checkFile.delete();
             }
             
-            boolean success = exportService.exportToDOCX(resume, path);
+            // Replaces an existing file, or leaves it alone if it already matches
+            boolean success = exportService.exportToDOCX(resume, path, true);
             if (success) {
                 JOptionPane.showMessageDialog(
                         view,
@@ -512,20 +484,198 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
         }
     }
 
-    //Copies file into an "uploads" folder and inserts a row in `resumes`.
-    private int saveResumeFile(File originalFile, String userId) throws IOException, SQLException {
-        Path uploadsDir = Paths.get("uploads");
-        if (Files.notExists(uploadsDir)) {
-            Files.createDirectories(uploadsDir);
+    private void handleImportFolderClicked() {
+        String userId = getCurrentUserId();
+        if (userId == null || userId.isBlank()) {
+            JOptionPane.showMessageDialog(
+                    view,
+                    "Please log in before importing resumes.",
+                    "Not Logged In",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Resumes from Folder");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+
+        if (chooser.showOpenDialog(view) != JFileChooser.APPROVE_OPTION) {
+            return; // user cancelled
+        }
+        File folder = chooser.getSelectedFile();
+
+        view.setImportBusy(true);
+        view.setImportProgress(0, "Scanning folder…");
+
+        new SwingWorker<BulkImportService.Result, BulkImportService.Progress>() {
+            @Override
+            protected BulkImportService.Result doInBackground() throws Exception {
+                return bulkImportService.importFolder(folder, userId, this::publish);
+            }
+
+            @Override
+            protected void process(List<BulkImportService.Progress> chunks) {
+                // Only the latest snapshot matters
+                BulkImportService.Progress p = chunks.get(chunks.size() - 1);
+                String status = p.isDiscoveryDone()
+                        ? "Imported " + p.getSaved() + " of " + (p.getDiscovered() - p.getSkipped())
+                        : "Found " + p.getDiscovered() + " files…";
+                view.setImportProgress(p.getPercent(), status);
+            }
+
+            @Override
+            protected void done() {
+                view.setImportBusy(false);
+                try {
+                    BulkImportService.Result result = get();
+                    StringBuilder message = new StringBuilder("Imported " + result.getSaved() + " resumes.");
+                    if (result.getSkipped() > 0) {
+                        message.append("\n").append(result.getSkipped()).append(" already imported earlier were skipped.");
+                    }
+                    if (!result.getFailures().isEmpty()) {
+                        message.append("\n\n").append(result.getFailures().size()).append(" files could not be imported:");
+                        result.getFailures().stream().limit(10).forEach(f -> message.append("\n  ").append(f));
+                    }
+                    JOptionPane.showMessageDialog(
+                            view,
+                            message.toString(),
+                            "Import Finished",
+                            result.getFailures().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE
+                    );
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(
+                            view,
+                            "Import stopped: " + e.getMessage() + "\nRun the import again to continue where it left off.",
+                            "Import Failed",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+                reload();
+            }
+        }.execute();
+    }
+
+    private void handleBulkExportClicked() {
+        String userId = getCurrentUserId();
+        if (userId == null || userId.isBlank()) {
+            JOptionPane.showMessageDialog(
+                    view,
+                    "Please log in before exporting resumes.",
+                    "Not Logged In",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        // Ticked resumes, or the whole library when nothing is ticked
+        List<Resume> selected = view.getSelectedResumes();
+        String what = selected.isEmpty() ? "all your resumes" : selected.size() + " selected resumes";
+
+        Object[] formats = {"PDF", "DOCX"};
+        int choice = JOptionPane.showOptionDialog(
+                view,
+                "Export " + what + " into one ZIP as:",
+                "Export Resumes",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                formats,
+                formats[0]
+        );
+        if (choice < 0) {
+            return; // user cancelled
+        }
+        BulkExportService.Format format = choice == 0 ? BulkExportService.Format.PDF : BulkExportService.Format.DOCX;
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Resumes as ZIP");
+        chooser.setSelectedFile(new File("resumes_" + format.getExtension() + ".zip"));
+        if (chooser.showSaveDialog(view) != JFileChooser.APPROVE_OPTION) {
+            return; // user cancelled
         }
+        String path = chooser.getSelectedFile().getAbsolutePath();
+
+        // Ensure .zip extension
+        if (!path.toLowerCase().endsWith(".zip")) {
+            path += ".zip";
+        }
+        File archive = new File(path);
+        if (archive.exists()) {
+            int overwrite = JOptionPane.showConfirmDialog(
+                    view,
+                    "File already exists. Do you want to overwrite it?\n" + path,
+                    "File Exists",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE
+            );
+            if (overwrite != JOptionPane.YES_OPTION) {
+                return; // User cancelled
+            }
+        }
+
+        view.setExportBusy(true);
+        view.setExportProgress(0, "Preparing export…");
+
+        new SwingWorker<BulkExportService.Result, BulkExportService.Progress>() {
+            @Override
+            protected BulkExportService.Result doInBackground() throws Exception {
+                if (selected.isEmpty()) {
+                    return bulkExportService.exportLibrary(userId, format, archive, this::publish);
+                }
+                return bulkExportService.exportAll(selected, format, archive, this::publish);
+            }
 
-        String storedFileName = userId + "_" + System.currentTimeMillis() + "_" + originalFile.getName();
-        Path dest = uploadsDir.resolve(storedFileName);
+            @Override
+            protected void process(List<BulkExportService.Progress> chunks) {
+                // Only the latest snapshot matters
+                BulkExportService.Progress p = chunks.get(chunks.size() - 1);
+                String status = "Exported " + (p.getWritten() + p.getFailed()) + " of " + p.getTotal()
+                        + (p.getCurrentFile() != null ? " – " + p.getCurrentFile() : "");
+                view.setExportProgress(p.getPercent(), status);
+            }
 
-        Files.copy(originalFile.toPath(), dest, StandardCopyOption.REPLACE_EXISTING);
+            @Override
+            protected void done() {
+                view.setExportBusy(false);
+                try {
+                    BulkExportService.Result result = get();
+                    StringBuilder message = new StringBuilder("Exported " + result.getWritten() + " resumes to:\n"
+                            + result.getArchive().getAbsolutePath());
+                    if (!result.getFailures().isEmpty()) {
+                        message.append("\n\n").append(result.getFailures().size()).append(" resumes could not be exported:");
+                        result.getFailures().stream().limit(10).forEach(f -> message.append("\n  ").append(f));
+                    }
+                    JOptionPane.showMessageDialog(
+                            view,
+                            message.toString(),
+                            "Export Finished",
+                            result.getFailures().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE
+                    );
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(
+                            view,
+                            "Export failed: " + cause.getMessage(),
+                            "Export Failed",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            }
+        }.execute();
+    }
 
-        Resume resume = new Resume(userId, originalFile.getName(), dest.toString());
-        return resumeDAO.saveResume(resume);
+    //Stores the file in the blob store (once per content) and inserts a row in `resumes`.
+    private int saveResumeFile(File originalFile, String userId) throws IOException, SQLException {
+        BlobStore.Blob blob = blobStore.put(originalFile.toPath(), originalFile.getName());
+        try {
+            Resume resume = new Resume(userId, originalFile.getName(), blob.getPath().toString());
+            return resumeDAO.saveResume(resume);
+        } finally {
+            blobStore.release(blob);
+        }
     }
 
     private void reload() {
@@ -545,6 +695,17 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
             return;
         }
 
+        view.setSearching(!searchQuery.isBlank());
+        if (!searchQuery.isBlank()) {
+            search(userId, searchQuery);
+            return;
+        }
+        if (rankJobDescription != null) {
+            rank(userId, rankJobDescription);
+            return;
+        }
+        listGeneration++; // a search or ranking still running must not replace the full list
+
         try {
             List<Resume> resumes;
             if (sortMode == SortMode.NAME_ASC) {
@@ -564,6 +725,124 @@ public class SavedResumesController extends BaseController<SavedResumesPanel> {
         }
     }
 
+    // Runs the query off the EDT: the index is built on the first search and may still be loading
+    private void search(String userId, String query) {
+        int generation = ++listGeneration;
+        new SwingWorker<List<Resume>, Void>() {
+            @Override
+            protected List<Resume> doInBackground() throws Exception {
+                List<ResumeSearchIndex.Hit> hits = ResumeSearchIndex.getInstance().search(query, userId, SEARCH_LIMIT);
+
+                // The index applies changes in the background; show the rows as they are now,
+                // leaving out resumes deleted since
+                Map<Integer, Resume> current = new HashMap<>();
+                for (Resume r : resumeDAO.getResumesByUserOrderByDate(userId)) current.put(r.getId(), r);
+                List<Resume> matches = new ArrayList<>();
+                for (ResumeSearchIndex.Hit hit : hits) {
+                    Resume r = current.remove(hit.getResume().getId());
+                    if (r != null) matches.add(r);
+                }
+                // Then resumes with an analysis that matches, e.g. the job title or company it was analyzed for
+                for (TextSearchDAO.Match match : TextSearchService.getInstance().searchAnalyses(userId, query, SEARCH_LIMIT)) {
+                    Resume r = current.remove(match.getResumeId());
+                    if (r != null) matches.add(r);
+                }
+                return matches;
+            }
+
+            @Override
+            protected void done() {
+                if (generation != listGeneration) return;
+                try {
+                    view.showResumes(get());
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(
+                            view,
+                            "Error searching resumes: " + cause.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            }
+        }.execute();
+    }
+
+    private void handleRankForJobClicked() {
+        String userId = getCurrentUserId();
+        if (userId == null || userId.isBlank()) {
+            JOptionPane.showMessageDialog(
+                    view,
+                    "Please log in before ranking resumes.",
+                    "Not Logged In",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        JTextArea jobArea = new JTextArea(rankJobDescription != null ? rankJobDescription : "", 12, 48);
+        jobArea.setLineWrap(true);
+        jobArea.setWrapStyleWord(true);
+        int choice = JOptionPane.showConfirmDialog(
+                view,
+                new Object[]{"Paste the job description to rank your resumes against:", new JScrollPane(jobArea)},
+                "Rank for a job",
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE
+        );
+        if (choice != JOptionPane.OK_OPTION || jobArea.getText().isBlank()) return;
+
+        rankJobDescription = jobArea.getText().trim();
+        reload();
+    }
+
+    // Scores every resume of the user against the job description, best match first
+    private void rank(String userId, String jobDescription) {
+        int generation = ++listGeneration;
+        view.setRankBusy(true);
+        new SwingWorker<List<BatchScoringService.ScoredResume>, Void>() {
+            @Override
+            protected List<BatchScoringService.ScoredResume> doInBackground() throws Exception {
+                return batchScoringService.rankResumes(jobDescription, resumeDAO.getResumesByUserOrderByDate(userId));
+            }
+
+            @Override
+            protected void done() {
+                view.setRankBusy(false);
+                if (generation != listGeneration) return;
+                try {
+                    List<Resume> ranked = new ArrayList<>();
+                    Map<Integer, String> notes = new HashMap<>();
+                    for (BatchScoringService.ScoredResume scored : get()) {
+                        ranked.add(scored.getResume());
+                        notes.put(scored.getResume().getId(), matchNote(scored));
+                    }
+                    view.showResumes(ranked, notes);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(
+                            view,
+                            "Error ranking resumes: " + cause.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            }
+        }.execute();
+    }
+
+    private static String matchNote(BatchScoringService.ScoredResume scored) {
+        List<String> matched = scored.getMatchedKeywords();
+        StringBuilder note = new StringBuilder(String.format("Match: %.0f%%", scored.getScore()));
+        if (!matched.isEmpty()) {
+            note.append(" – ").append(String.join(", ", matched.subList(0, Math.min(RANK_KEYWORDS_SHOWN, matched.size()))));
+            if (matched.size() > RANK_KEYWORDS_SHOWN) note.append(", …");
+        }
+        return note.toString();
+    }
+
     public void refresh() {
         reload();
     }
@@ -5,8 +5,6 @@ import services.TwilioService;
 import ui.SignupFrame;
 import ui.VerificationFrame;
 
-import javax.swing.SwingWorker;
-
 
 // Controller for the signup window.
 public class SignupController extends BaseController<SignupFrame> {
@@ -61,11 +59,16 @@ public class SignupController extends BaseController<SignupFrame> {
             return;
         }
 
-        try {
-            // initiateSignup returns a verification TOKEN, not a boolean
-            String token = authService.initiateSignup(email, pw, "");
-
-            if (token != null && !token.isEmpty()) {
+        // Email lookup and password hashing run off the EDT
+        view.setOAuthEnabled(false);
+        runInBackground(() -> authService.initiateSignup(email, pw, ""),
+                utils.Constants.Timeouts.DATABASE, (token, error) -> {
+            view.setOAuthEnabled(true);
+            if (error != null) {
+                // Catch any unexpected error from auth layer
+                view.showError("An error occurred: " + error.getMessage(), "Error");
+            } else if (token != null && !token.isEmpty()) {
+                // initiateSignup returns a verification TOKEN, not a boolean
                 // Open verification frame - it will auto-send the code
                 VerificationFrame vf = new VerificationFrame(email, token);
 
@@ -80,10 +83,7 @@ public class SignupController extends BaseController<SignupFrame> {
                 // If no token was returned, sign-up could not be started
                 view.showError("Failed to start sign up. Please try again.", "Sign Up Failed");
             }
-        } catch (Exception ex) {
-            // Catch any unexpected error from auth layer
-            view.showError("An error occurred: " + ex.getMessage(), "Error");
-        }
+        });
     }
 
     // Handle OAuth-based sign-up (Google / GitHub)
@@ -91,36 +91,27 @@ public class SignupController extends BaseController<SignupFrame> {
         // Disable OAuth buttons while the async operation is running
         view.setOAuthEnabled(false);
 
-        // Run OAuth call in a background thread
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                if ("google".equals(provider)) {
-                    return authService.continueWithGoogle() != null;
-                } else if ("github".equals(provider)) {
-                    return authService.continueWithGitHub() != null;
-                }
-                return false;
+        // Run OAuth call in a background thread; it gives up when the browser sign-in times out
+        runInBackground(() -> {
+            if ("google".equals(provider)) {
+                return authService.continueWithGoogle() != null;
+            } else if ("github".equals(provider)) {
+                return authService.continueWithGitHub() != null;
             }
-
-            @Override
-            protected void done() {
-                // Re-enable OAuth buttons when background work is done
-                view.setOAuthEnabled(true);
-                try {
-                    boolean ok = get();
-                    if (ok) {
-                        // On success, close signup and return to login screen
-                        dispose();
-                        onBackToLogin.run();
-                    } else {
-                        view.showError("OAuth sign-up failed.", "Sign Up Failed");
-                    }
-                } catch (Exception ex) {
-                    // Any exception in the OAuth process is shown as an error
-                    view.showError("OAuth error: " + ex.getMessage(), "Error");
-                }
+            return false;
+        }, utils.Constants.Timeouts.OAUTH, (ok, error) -> {
+            // Re-enable OAuth buttons when background work is done
+            view.setOAuthEnabled(true);
+            if (error != null) {
+                // Any exception in the OAuth process is shown as an error
+                view.showError("OAuth error: " + error.getMessage(), "Error");
+            } else if (ok) {
+                // On success, close signup and return to login screen
+                dispose();
+                onBackToLogin.run();
+            } else {
+                view.showError("OAuth sign-up failed.", "Sign Up Failed");
             }
-        }.execute();
+        });
     }
 }
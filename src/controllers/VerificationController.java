@@ -5,7 +5,6 @@ import services.TwilioService;
 import ui.VerificationFrame;
 
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 import java.awt.Color;
 
 /*
@@ -56,30 +55,20 @@ public class VerificationController extends BaseController<VerificationFrame> {
         view.setStatusText("Sending verification code...");
         view.setInputsEnabled(false);
 
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                twilioService.sendVerificationCode(email);
-                return true;
+        runInBackground(() -> twilioService.sendVerificationCode(email),
+                utils.Constants.Timeouts.EMAIL, (sent, error) -> {
+            view.setInputsEnabled(true);
+            if (error != null) {
+                view.setStatusText("Failed: " + error.getMessage());
+                view.setStatusColor(Color.RED);
+            } else if (sent) {
+                view.setStatusText("Verification code sent!");
+                view.setStatusColor(new Color(0, 180, 0)); // Green
+            } else {
+                view.setStatusText("Failed to send code. Try again.");
+                view.setStatusColor(Color.RED);
             }
-
-            @Override
-            protected void done() {
-                view.setInputsEnabled(true);
-                try {
-                    if (get()) {
-                        view.setStatusText("Verification code sent!");
-                        view.setStatusColor(new Color(0, 180, 0)); // Green
-                    } else {
-                        view.setStatusText("Failed to send code. Try again.");
-                        view.setStatusColor(Color.RED);
-                    }
-                } catch (Exception ex) {
-                    view.setStatusText("Failed: " + ex.getMessage());
-                    view.setStatusColor(Color.RED);
-                }
-            }
-        }.execute();
+        });
     }
 
     /*
@@ -93,27 +82,17 @@ public class VerificationController extends BaseController<VerificationFrame> {
         }
 
         view.setInputsEnabled(false);
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                twilioService.sendVerificationCode(email);
-                return true;
-            }
-
-            @Override
-            protected void done() {
-                view.setInputsEnabled(true);
-                try {
-                    if (get()) {
-                        view.showInfo("Verification code sent!", "Sent");
-                    } else {
-                        view.showError("Failed to send verification code.", "Error");
-                    }
-                } catch (Exception ex) {
-                    view.showError("Failed to send code: " + ex.getMessage(), "Error");
-                }
+        runInBackground(() -> twilioService.sendVerificationCode(email),
+                utils.Constants.Timeouts.EMAIL, (sent, error) -> {
+            view.setInputsEnabled(true);
+            if (error != null) {
+                view.showError("Failed to send code: " + error.getMessage(), "Error");
+            } else if (sent) {
+                view.showInfo("Verification code sent!", "Sent");
+            } else {
+                view.showError("Failed to send verification code.", "Error");
             }
-        }.execute();
+        });
     }
 
 
@@ -136,34 +115,25 @@ public class VerificationController extends BaseController<VerificationFrame> {
         }
 
         view.setInputsEnabled(false);
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                // First confirm the code with Twilio
-                boolean codeOk = twilioService.verifyCode(code);
-                if (!codeOk) return false;
-                // Then finalize the signup in the auth service
-                return authService.completeSignup(token);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    boolean ok = get();
-                    if (ok) {
-                        view.showInfo("Account verified! You can now log in.", "Verified");
-                        dispose();
-                        onVerified.run();
-                    } else {
-                        view.setInputsEnabled(true);
-                        view.showError("Verification failed. Check your code or try again.", "Error");
-                    }
-                } catch (Exception ex) {
-                    view.setInputsEnabled(true);
-                    view.showError("Verification error: " + ex.getMessage(), "Error");
-                }
+        runInBackground(() -> {
+            // First confirm the code with Twilio
+            boolean codeOk = twilioService.verifyCode(code);
+            if (!codeOk) return false;
+            // Then finalize the signup in the auth service
+            return authService.completeSignup(token);
+        }, utils.Constants.Timeouts.DATABASE, (ok, error) -> {
+            if (error != null) {
+                view.setInputsEnabled(true);
+                view.showError("Verification error: " + error.getMessage(), "Error");
+            } else if (ok) {
+                view.showInfo("Account verified! You can now log in.", "Verified");
+                dispose();
+                onVerified.run();
+            } else {
+                view.setInputsEnabled(true);
+                view.showError("Verification failed. Check your code or try again.", "Error");
             }
-        }.execute();
+        });
     }
 
     // Null-safe trim helper
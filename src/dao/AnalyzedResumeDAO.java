@@ -13,6 +13,24 @@ import java.util.List;
 
 public class AnalyzedResumeDAO {
 
+    static final String SELECT_BY_USER = """
+            SELECT id, user_id, resume_id, job_title, job_company,
+                   job_description, tailored_text, file_path, created_at
+            FROM tailored_resumes
+            WHERE user_id = ?
+            ORDER BY created_at DESC
+        """;
+
+    static final String SELECT_BY_USER_AND_RESUME = """
+            SELECT id, user_id, resume_id, job_title, job_company,
+                   job_description, tailored_text, file_path, created_at
+            FROM tailored_resumes
+            WHERE user_id = ? AND resume_id = ?
+            ORDER BY created_at DESC
+        """;
+
+    static final String DELETE_BY_ID = "DELETE FROM tailored_resumes WHERE id = ? AND user_id = ?";
+
     public int saveTailoredResume(AnalyzedResume tr) throws SQLException {
         String sql = """
         INSERT INTO tailored_resumes
@@ -24,7 +42,7 @@ public class AnalyzedResumeDAO {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setInt(1, tr.getUserId());
+            ps.setString(1, tr.getUserId());
             ps.setInt(2, tr.getResumeId());
             ps.setString(3, tr.getJobTitle());
             ps.setString(4, tr.getJobCompany());
@@ -57,21 +75,61 @@ public class AnalyzedResumeDAO {
         }
     }
 
-    public List<AnalyzedResume> getTailoredByUser(int userId) throws SQLException {
+    /**
+     * Inserts many analyzed resumes in one transaction with a single batched statement.
+     * Returns the generated ids in input order and sets them on the models.
+     */
+    public int[] saveAll(List<AnalyzedResume> analyzed) throws SQLException {
+        if (analyzed == null || analyzed.isEmpty()) {
+            return new int[0];
+        }
+
         String sql = """
-            SELECT id, user_id, resume_id, job_title, job_company,
-                   job_description, tailored_text, file_path, created_at
-            FROM tailored_resumes
-            WHERE user_id = ?
-            ORDER BY created_at DESC
-        """;
+        INSERT INTO tailored_resumes
+            (user_id, resume_id, job_title, job_company,
+             job_description, tailored_text, file_path)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+    """;
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (AnalyzedResume tr : analyzed) {
+                    ps.setString(1, tr.getUserId());
+                    ps.setInt(2, tr.getResumeId());
+                    ps.setString(3, tr.getJobTitle());
+                    ps.setString(4, tr.getJobCompany());
+                    ps.setString(5, tr.getJobDescription());
+                    // avoid NULL for NOT NULL column, same as saveTailoredResume
+                    ps.setString(6, tr.getTailoredText() == null ? "" : tr.getTailoredText());
+                    ps.setString(7, tr.getFilePath());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                int[] ids = ResumeDAO.generatedIds(conn, analyzed.size());
+                conn.commit();
+
+                for (int i = 0; i < ids.length; i++) {
+                    analyzed.get(i).setId(ids[i]);
+                }
+                return ids;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
 
+    public List<AnalyzedResume> getTailoredByUser(String userId) throws SQLException {
         List<AnalyzedResume> list = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_USER)) {
 
-            ps.setInt(1, userId);
+            ps.setString(1, userId);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -83,21 +141,13 @@ public class AnalyzedResumeDAO {
         return list;
     }
 
-    public List<AnalyzedResume> getTailoredByUserAndResume(int userId, int resumeId) throws SQLException {
-        String sql = """
-            SELECT id, user_id, resume_id, job_title, job_company,
-                   job_description, tailored_text, file_path, created_at
-            FROM tailored_resumes
-            WHERE user_id = ? AND resume_id = ?
-            ORDER BY created_at DESC
-        """;
-
+    public List<AnalyzedResume> getTailoredByUserAndResume(String userId, int resumeId) throws SQLException {
         List<AnalyzedResume> list = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_USER_AND_RESUME)) {
 
-            ps.setInt(1, userId);
+            ps.setString(1, userId);
             ps.setInt(2, resumeId);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -110,14 +160,12 @@ public class AnalyzedResumeDAO {
         return list;
     }
 
-    public boolean deleteTailoredResume(int id, int userId) throws SQLException {
-        String sql = "DELETE FROM tailored_resumes WHERE id = ? AND user_id = ?";
-
+    public boolean deleteTailoredResume(int id, String userId) throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(DELETE_BY_ID)) {
 
             ps.setInt(1, id);
-            ps.setInt(2, userId);
+            ps.setString(2, userId);
 
             return ps.executeUpdate() > 0;
         }
@@ -126,7 +174,7 @@ public class AnalyzedResumeDAO {
     private AnalyzedResume mapRow(ResultSet rs) throws SQLException {
         AnalyzedResume tr = new AnalyzedResume();
         tr.setId(rs.getInt("id"));
-        tr.setUserId(rs.getInt("user_id"));
+        tr.setUserId(rs.getString("user_id"));
         tr.setResumeId(rs.getInt("resume_id"));
         tr.setJobTitle(rs.getString("job_title"));
         tr.setJobCompany(rs.getString("job_company"));
@@ -0,0 +1,343 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded SQLite connection pool for WAL mode: one writer connection and up to
+ * maxReaders read-only connections. SQLite only allows one writer at a time, so writes
+ * queue on a lock here instead of failing with SQLITE_BUSY, while readers run in parallel.
+ *
+ * Connections handed out are proxies: close() returns them to the pool, so the DAOs'
+ * try-with-resources blocks keep working unchanged.
+ */
+public class ConnectionPool {
+
+    private static final long BORROW_TIMEOUT_MS = 30_000;
+    private static final long VALIDATE_AFTER_IDLE_MS = 30_000;
+    private static final int BUSY_TIMEOUT_MS = 5_000;
+
+    // ---------------------------------------------------------
+    // Metrics snapshot
+    // ---------------------------------------------------------
+    public static class Stats {
+        private final int maxReaders;
+        private final int idleReaders;
+        private final int activeReaders;
+        private final boolean writerBusy;
+        private final long borrows;
+        private final long timeouts;
+        private final long created;
+        private final long discarded;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        Stats(int maxReaders, int idleReaders, int activeReaders, boolean writerBusy, long borrows,
+              long timeouts, long created, long discarded, long totalWaitNanos, long maxWaitNanos) {
+            this.maxReaders = maxReaders;
+            this.idleReaders = idleReaders;
+            this.activeReaders = activeReaders;
+            this.writerBusy = writerBusy;
+            this.borrows = borrows;
+            this.timeouts = timeouts;
+            this.created = created;
+            this.discarded = discarded;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public int getMaxReaders() { return maxReaders; }
+        public int getIdleReaders() { return idleReaders; }
+        public int getActiveReaders() { return activeReaders; }
+        public boolean isWriterBusy() { return writerBusy; }
+        public long getBorrows() { return borrows; }
+        public long getTimeouts() { return timeouts; }
+        public long getCreated() { return created; }
+        public long getDiscarded() { return discarded; }
+        public double getAverageWaitMillis() { return borrows == 0 ? 0 : totalWaitNanos / 1e6 / borrows; }
+        public double getMaxWaitMillis() { return maxWaitNanos / 1e6; }
+
+        @Override
+        public String toString() {
+            return "ConnectionPool{readers=" + activeReaders + " active/" + idleReaders + " idle/" + maxReaders + " max"
+                    + ", writerBusy=" + writerBusy + ", borrows=" + borrows + ", timeouts=" + timeouts
+                    + ", created=" + created + ", discarded=" + discarded
+                    + String.format(", avgWait=%.3fms, maxWait=%.3fms}", getAverageWaitMillis(), getMaxWaitMillis());
+        }
+    }
+
+    // A raw connection plus the time it was last returned, for idle health checks
+    private static class Entry {
+        final Connection raw;
+        long lastUsed;
+
+        Entry(Connection raw) {
+            this.raw = raw;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    private final String url;
+    private final int maxReaders;
+
+    private final Semaphore readerPermits;
+    private final Deque<Entry> idleReaders = new ArrayDeque<>();
+
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private Entry writer;
+
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxReaders) {
+        this.url = url;
+        this.maxReaders = maxReaders;
+        this.readerPermits = new Semaphore(maxReaders, true);
+    }
+
+    /**
+     * Borrows the writer connection. Re-entrant: a thread that already holds it
+     * gets the same connection, and only the outermost close() releases it.
+     */
+    public Connection getWriter() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out waiting for the database writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for the database writer connection", e);
+        }
+        recordWait(start);
+
+        try {
+            if (writerLock.getHoldCount() == 1) {
+                if (writer == null || !isHealthy(writer)) {
+                    discard(writer);
+                    writer = new Entry(open(false));
+                }
+            }
+            return wrap(writer, true);
+        } catch (SQLException | RuntimeException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrows a read-only connection; blocks while all readers are in use
+     */
+    public Connection getReader() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        try {
+            if (!readerPermits.tryAcquire(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out waiting for a database read connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database read connection", e);
+        }
+        recordWait(start);
+
+        try {
+            Entry entry;
+            synchronized (idleReaders) {
+                entry = idleReaders.pollFirst();
+            }
+            if (entry != null && !isHealthy(entry)) {
+                discard(entry);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(open(true));
+            }
+            return wrap(entry, false);
+        } catch (SQLException | RuntimeException e) {
+            readerPermits.release();
+            throw e;
+        }
+    }
+
+    public Stats getStats() {
+        int idle;
+        synchronized (idleReaders) {
+            idle = idleReaders.size();
+        }
+        return new Stats(maxReaders, idle, maxReaders - readerPermits.availablePermits(), writerLock.isLocked(),
+                borrows.get(), timeouts.get(), created.get(), discarded.get(),
+                totalWaitNanos.get(), maxWaitNanos.get());
+    }
+
+    /**
+     * Closes every idle connection; connections still borrowed are closed when returned
+     */
+    public void close() {
+        closed = true;
+        synchronized (idleReaders) {
+            while (!idleReaders.isEmpty()) discard(idleReaders.pollFirst());
+        }
+        if (writerLock.tryLock()) {
+            try {
+                discard(writer);
+                writer = null;
+            } finally {
+                writerLock.unlock();
+            }
+        }
+    }
+
+    private Connection open(boolean readOnly) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            } else {
+                // WAL is stored in the database file, so setting it on the writer covers every connection
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        created.incrementAndGet();
+        return conn;
+    }
+
+    private boolean isHealthy(Entry entry) {
+        try {
+            if (entry.raw.isClosed()) return false;
+            if (System.currentTimeMillis() - entry.lastUsed < VALIDATE_AFTER_IDLE_MS) return true;
+            try (Statement stmt = entry.raw.createStatement()) {
+                stmt.execute("SELECT 1");
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Entry entry, boolean isWriter) {
+        if (isWriter) {
+            try {
+                if (writerLock.getHoldCount() == 1) {
+                    reset(entry);
+                    if (closed) {
+                        discard(writer);
+                        writer = null;
+                    }
+                }
+            } finally {
+                writerLock.unlock();
+            }
+            return;
+        }
+
+        try {
+            if (closed || !reset(entry)) {
+                discard(entry);
+            } else {
+                synchronized (idleReaders) {
+                    idleReaders.addFirst(entry);
+                }
+            }
+        } finally {
+            readerPermits.release();
+        }
+    }
+
+    // Rolls back anything a caller left open; returns false if the connection is unusable
+    private boolean reset(Entry entry) {
+        entry.lastUsed = System.currentTimeMillis();
+        try {
+            if (entry.raw.isClosed()) return false;
+            if (!entry.raw.getAutoCommit()) {
+                entry.raw.rollback();
+                entry.raw.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(Entry entry) {
+        if (entry == null) return;
+        discarded.incrementAndGet();
+        try {
+            entry.raw.close();
+        } catch (SQLException ignored) {}
+    }
+
+    private void recordWait(long startNanos) {
+        long waited = System.nanoTime() - startNanos;
+        borrows.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+    }
+
+    // Proxy whose close() hands the connection back instead of closing it
+    private Connection wrap(Entry entry, boolean isWriter) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (method.getDeclaringClass() == Object.class) {
+                    if (name.equals("equals")) return proxy == args[0];
+                    if (name.equals("hashCode")) return System.identityHashCode(proxy);
+                    return "Pooled" + (isWriter ? "Writer" : "Reader") + "[" + entry.raw + "]";
+                }
+                if (name.equals("close")) {
+                    if (!returned) {
+                        returned = true;
+                        release(entry, isWriter);
+                    }
+                    return null;
+                }
+                if (name.equals("isClosed")) {
+                    return returned || entry.raw.isClosed();
+                }
+                if (returned) {
+                    throw new SQLException("Connection has been returned to the pool");
+                }
+                try {
+                    return method.invoke(entry.raw, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+}
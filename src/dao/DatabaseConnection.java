@@ -1,44 +1,54 @@
 package dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DatabaseConnection {
     private static DatabaseConnection instance;
     private static final String DB_URL = "jdbc:sqlite:database/database.db";
-    private Connection connection;
+    private static final int MAX_READERS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private final ConnectionPool pool;
     
     private DatabaseConnection() {
+        pool = new ConnectionPool(DB_URL, MAX_READERS);
         initializeDatabase();
     }
     
-    public static DatabaseConnection getInstance() {
+    public static synchronized DatabaseConnection getInstance() {
         if (instance == null) {
             instance = new DatabaseConnection();
         }
         return instance;
     }
     
+    /**
+     * Borrows the writer connection (safe for any statement).
+     * Closing it returns it to the pool, so keep using try-with-resources.
+     */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL);
-        }
-        return connection;
+        return pool.getWriter();
+    }
+
+    /**
+     * Borrows a read-only connection for SELECTs; readers run in parallel with the writer
+     */
+    public Connection getReadConnection() throws SQLException {
+        return pool.getReader();
+    }
+
+    public ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
     }
     
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        pool.close();
     }
     
     private void initializeDatabase() {
@@ -46,11 +56,12 @@ public class DatabaseConnection {
             // Load SQLite JDBC driver
             Class.forName("org.sqlite.JDBC");
             
-            // Create database connection
-            connection = DriverManager.getConnection(DB_URL);
-            
-            // Read and execute schema
-            executeSchema();
+            // Read and execute schema on the writer connection
+            try (Connection connection = pool.getWriter()) {
+                executeSchema(connection);
+                migrateSchema(connection);
+                verifyQueryPlans(connection);
+            }
             
             System.out.println("Database initialized successfully!");
             
@@ -63,7 +74,55 @@ public class DatabaseConnection {
         }
     }
     
-    private void executeSchema() {
+    // CREATE TABLE IF NOT EXISTS leaves existing tables alone, so columns added to a table
+    // in schema.sql since it was first created are added here
+    private void migrateSchema(Connection connection) {
+        addColumnIfMissing(connection, "parsed_resume_cache", "raw_text", "TEXT");
+    }
+
+    private void addColumnIfMissing(Connection connection, String table, String column, String definition) {
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+                while (rs.next()) {
+                    if (column.equalsIgnoreCase(rs.getString("name"))) return;
+                }
+            }
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        } catch (SQLException e) {
+            System.err.println("Could not add " + table + "." + column + ": " + e.getMessage());
+        }
+    }
+
+    // Warns about DAO statements that would scan a whole table; see QueryPlanCheck
+    private void verifyQueryPlans(Connection connection) {
+        try {
+            for (String problem : QueryPlanCheck.findFullScans(connection)) {
+                System.err.println("Query plan warning: " + problem);
+            }
+        } catch (SQLException e) {
+            System.err.println("Query plan check failed: " + e.getMessage());
+        }
+    }
+
+    // Splits on ';', except inside a trigger body (CREATE TRIGGER ... BEGIN ...; ...; END)
+    static List<String> splitStatements(String schema) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String piece : schema.split(";")) {
+            current.append(piece);
+            String upper = current.toString().toUpperCase();
+            if (upper.contains("CREATE TRIGGER") && !upper.trim().endsWith("END")) {
+                current.append(';');
+                continue;
+            }
+            statements.add(current.toString());
+            current.setLength(0);
+        }
+        if (current.length() > 0) statements.add(current.toString());
+        return statements;
+    }
+
+    private void executeSchema(Connection connection) {
         try {
             StringBuilder schema = new StringBuilder();
             BufferedReader reader = new BufferedReader(new FileReader("resources/schema.sql"));
@@ -75,9 +134,7 @@ public class DatabaseConnection {
             reader.close();
             
             Statement stmt = connection.createStatement();
-            String[] statements = schema.toString().split(";");
-            
-            for (String statement : statements) {
+            for (String statement : splitStatements(schema.toString())) {
                 if (statement.trim().length() > 0) {
                     stmt.execute(statement);
                 }
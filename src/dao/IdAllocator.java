@@ -0,0 +1,144 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Hands out prefixed ids (U1, U2... / O1, O2...) without scanning the user tables.
+ *
+ * The next free number lives in the id_sequences table. Each allocator reserves a block of
+ * numbers from it in one short write transaction and then serves ids from memory, so a signup
+ * costs one synchronized increment and the database is touched once per block. Two signups can
+ * never get the same id, even from two processes, because the reservation is an UPDATE on the
+ * writer connection. Ids left in a block when the app exits are skipped, so ids stay unique
+ * but are not guaranteed to be gap-free.
+ */
+public class IdAllocator {
+
+    private static final int DEFAULT_BLOCK_SIZE = 16;
+
+    static final String RESERVE_BLOCK = "UPDATE id_sequences SET next_value = next_value + ? WHERE name = ?";
+    static final String SELECT_NEXT_VALUE = "SELECT next_value FROM id_sequences WHERE name = ?";
+
+    /**
+     * Where reservations get their connection; the app uses the pool's writer
+     */
+    public interface ConnectionSource {
+        Connection getConnection() throws SQLException;
+    }
+
+    private static IdAllocator users;
+    private static IdAllocator oauthUsers;
+
+    private final ConnectionSource connections;
+    private final String sequence;
+    private final String prefix;
+    private final String seedSql;
+    private final int blockSize;
+
+    private boolean seeded;
+    private long next;     // next number to hand out
+    private long limit;    // first number not in the current block
+
+    public IdAllocator(ConnectionSource connections, String sequence, String prefix, String table, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1");
+        }
+        this.connections = connections;
+        this.sequence = sequence;
+        this.prefix = prefix;
+        this.blockSize = blockSize;
+        // One-time seed from the ids already in the table; the id range stays on the primary key index
+        this.seedSql = "INSERT OR IGNORE INTO id_sequences (name, next_value) "
+                + "SELECT ?, COALESCE(MAX(CAST(SUBSTR(id, " + (prefix.length() + 1) + ") AS INTEGER)), 0) + 1 "
+                + "FROM " + table + " WHERE id >= ? AND id < ?";
+    }
+
+    /**
+     * Allocator for users.id (U1, U2, U3...)
+     */
+    public static synchronized IdAllocator users() {
+        if (users == null) {
+            users = new IdAllocator(DatabaseConnection.getInstance()::getConnection,
+                    "users", "U", "users", DEFAULT_BLOCK_SIZE);
+        }
+        return users;
+    }
+
+    /**
+     * Allocator for oauth_users.id (O1, O2, O3...)
+     */
+    public static synchronized IdAllocator oauthUsers() {
+        if (oauthUsers == null) {
+            oauthUsers = new IdAllocator(DatabaseConnection.getInstance()::getConnection,
+                    "oauth_users", "O", "oauth_users", DEFAULT_BLOCK_SIZE);
+        }
+        return oauthUsers;
+    }
+
+    /**
+     * Returns the next unused id, e.g. "U42"
+     */
+    public synchronized String nextId() throws SQLException {
+        if (next >= limit) {
+            reserveBlock();
+        }
+        return prefix + next++;
+    }
+
+    // Moves next_value forward by one block and takes the numbers it skipped over
+    private void reserveBlock() throws SQLException {
+        try (Connection conn = connections.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                if (!seeded) {
+                    try (PreparedStatement ps = conn.prepareStatement(seedSql)) {
+                        ps.setString(1, sequence);
+                        ps.setString(2, prefix);
+                        ps.setString(3, upperBound(prefix));
+                        ps.executeUpdate();
+                    }
+                }
+
+                // UPDATE first so the transaction holds the write lock before it reads
+                try (PreparedStatement ps = conn.prepareStatement(RESERVE_BLOCK)) {
+                    ps.setInt(1, blockSize);
+                    ps.setString(2, sequence);
+                    if (ps.executeUpdate() != 1) {
+                        throw new SQLException("No id sequence named " + sequence);
+                    }
+                }
+
+                long end;
+                try (PreparedStatement ps = conn.prepareStatement(SELECT_NEXT_VALUE)) {
+                    ps.setString(1, sequence);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new SQLException("No id sequence named " + sequence);
+                        }
+                        end = rs.getLong(1);
+                    }
+                }
+
+                conn.commit();
+                seeded = true;
+                next = end - blockSize;
+                limit = end;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    // Smallest string greater than every string that starts with prefix ("U" -> "V")
+    private static String upperBound(String prefix) {
+        char last = prefix.charAt(prefix.length() - 1);
+        return prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+    }
+}
@@ -0,0 +1,179 @@
+package dao;
+
+import models.JobDescription;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saved job descriptions together with their scoring keywords.
+ * The keywords are computed by the caller when the description is saved and stored in
+ * rank order, so loading the corpus never re-analyzes the text.
+ */
+public class JobDescriptionDAO {
+
+    static final String SELECT_BY_USER = """
+            SELECT id, user_id, title, company, description
+            FROM job_descriptions
+            WHERE user_id = ?
+            ORDER BY created_at DESC
+            """;
+
+    static final String SELECT_KEYWORDS = """
+            SELECT keyword
+            FROM job_description_keywords
+            WHERE job_id = ?
+            ORDER BY position
+            """;
+
+    static final String DELETE_KEYWORDS = "DELETE FROM job_description_keywords WHERE job_id = ?";
+
+    static final String DELETE_BY_ID = "DELETE FROM job_descriptions WHERE id = ? AND user_id = ?";
+
+    /**
+     * Inserts the description and its keywords in one transaction and sets the generated id
+     */
+    public int saveJobDescription(JobDescription jd) throws SQLException {
+        String sql = """
+            INSERT INTO job_descriptions (user_id, title, company, description)
+            VALUES (?, ?, ?, ?)
+            """;
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement kw = conn.prepareStatement(
+                         "INSERT INTO job_description_keywords (job_id, position, keyword) VALUES (?, ?, ?)")) {
+                ps.setString(1, jd.getUserId());
+                ps.setString(2, jd.getTitle());
+                ps.setString(3, jd.getCompany());
+                ps.setString(4, jd.getDescription() == null ? "" : jd.getDescription());
+                if (ps.executeUpdate() == 0) {
+                    throw new SQLException("Inserting job description failed, no rows affected.");
+                }
+
+                int id;
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Inserting job description failed, no ID obtained.");
+                    }
+                    id = rs.getInt(1);
+                }
+
+                List<String> keywords = jd.getKeywords() == null ? List.of() : jd.getKeywords();
+                for (int i = 0; i < keywords.size(); i++) {
+                    kw.setInt(1, id);
+                    kw.setInt(2, i);
+                    kw.setString(3, keywords.get(i));
+                    kw.addBatch();
+                }
+                kw.executeBatch();
+                conn.commit();
+
+                jd.setId(id);
+                return id;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    public List<JobDescription> getJobDescriptionsByUser(String userId) throws SQLException {
+        List<JobDescription> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_USER);
+             PreparedStatement kw = conn.prepareStatement(SELECT_KEYWORDS)) {
+
+            ps.setString(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+
+            for (JobDescription jd : list) {
+                List<String> keywords = new ArrayList<>();
+                kw.setInt(1, jd.getId());
+                try (ResultSet rs = kw.executeQuery()) {
+                    while (rs.next()) {
+                        keywords.add(rs.getString("keyword"));
+                    }
+                }
+                jd.setKeywords(keywords);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Every saved job description with its keywords, oldest first. Two sequential reads
+     * instead of one keyword query per description, for loading the whole corpus.
+     */
+    public List<JobDescription> getAllJobDescriptions() throws SQLException {
+        List<JobDescription> list = new ArrayList<>();
+        Map<Integer, List<String>> keywordsById = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT id, user_id, title, company, description FROM job_descriptions ORDER BY id")) {
+                while (rs.next()) {
+                    JobDescription jd = mapRow(rs);
+                    jd.setKeywords(new ArrayList<>());
+                    keywordsById.put(jd.getId(), jd.getKeywords());
+                    list.add(jd);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT job_id, keyword FROM job_description_keywords ORDER BY job_id, position")) {
+                while (rs.next()) {
+                    List<String> keywords = keywordsById.get(rs.getInt("job_id"));
+                    if (keywords != null) keywords.add(rs.getString("keyword"));
+                }
+            }
+        }
+        return list;
+    }
+
+    public boolean deleteJobDescription(int id, String userId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(DELETE_BY_ID);
+                 PreparedStatement kw = conn.prepareStatement(DELETE_KEYWORDS)) {
+                ps.setInt(1, id);
+                ps.setString(2, userId);
+                boolean deleted = ps.executeUpdate() > 0;
+
+                // The pool does not turn on foreign_keys, so ON DELETE CASCADE would not fire
+                if (deleted) {
+                    kw.setInt(1, id);
+                    kw.executeUpdate();
+                }
+                conn.commit();
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private JobDescription mapRow(ResultSet rs) throws SQLException {
+        JobDescription jd = new JobDescription();
+        jd.setId(rs.getInt("id"));
+        jd.setUserId(rs.getString("user_id"));
+        jd.setTitle(rs.getString("title"));
+        jd.setCompany(rs.getString("company"));
+        jd.setDescription(rs.getString("description"));
+        return jd;
+    }
+}
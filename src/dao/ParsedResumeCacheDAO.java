@@ -0,0 +1,203 @@
+package dao;
+
+import services.ResumeParserService.ParsedResume;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ On-disk tier of the parsed resume cache. One row per cache key (parser version and content
+ hash) in parsed_resume_cache, with sections and experience blocks in child tables so their
+ order is preserved. prune() keeps the tables bounded by age and entry count.
+ */
+public class ParsedResumeCacheDAO {
+
+    static final String SELECT_TEXT = "SELECT raw_text, full_text FROM parsed_resume_cache WHERE content_hash = ?";
+    static final String SELECT_SECTIONS = """
+            SELECT name, content FROM parsed_resume_sections
+            WHERE content_hash = ?
+            ORDER BY position
+            """;
+    static final String SELECT_EXPERIENCES = """
+            SELECT content FROM parsed_resume_experiences
+            WHERE content_hash = ?
+            ORDER BY position
+            """;
+    static final String DELETE_SECTIONS = "DELETE FROM parsed_resume_sections WHERE content_hash = ?";
+    static final String DELETE_EXPERIENCES = "DELETE FROM parsed_resume_experiences WHERE content_hash = ?";
+    static final String COUNT_EXPIRED = "SELECT COUNT(*) FROM parsed_resume_cache WHERE created_at < datetime('now', ?)";
+    static final String DELETE_ENTRY = "DELETE FROM parsed_resume_cache WHERE content_hash = ?";
+    // Walks idx_parsed_resume_cache_created, oldest first
+    static final String SELECT_OLDEST = "SELECT content_hash FROM parsed_resume_cache ORDER BY created_at LIMIT ?";
+
+    private final DatabaseConnection dbConnection;
+
+    public ParsedResumeCacheDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Loads a cached parse result, or null if this content has never been parsed
+     */
+    public ParsedResume find(String contentHash) throws SQLException {
+        try (Connection conn = dbConnection.getReadConnection()) {
+            ParsedResume parsed = new ParsedResume();
+
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_TEXT)) {
+                ps.setString(1, contentHash);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    parsed.setRawText(rs.getString("raw_text"));
+                    parsed.setFullText(rs.getString("full_text"));
+                }
+            }
+
+            Map<String, String> sections = new LinkedHashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_SECTIONS)) {
+                ps.setString(1, contentHash);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        sections.put(rs.getString("name"), rs.getString("content"));
+                    }
+                }
+            }
+            parsed.setSections(sections);
+
+            List<String> experiences = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_EXPERIENCES)) {
+                ps.setString(1, contentHash);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        experiences.add(rs.getString("content"));
+                    }
+                }
+            }
+            parsed.setExperiences(experiences);
+
+            return parsed;
+        }
+    }
+
+    /**
+     * Stores (or replaces) the parse result for a content hash in one transaction
+     */
+    public void save(String contentHash, ParsedResume parsed) throws SQLException {
+        String sqlText = "INSERT OR REPLACE INTO parsed_resume_cache (content_hash, raw_text, full_text) VALUES (?, ?, ?)";
+        String sqlSection = "INSERT INTO parsed_resume_sections (content_hash, position, name, content) VALUES (?, ?, ?, ?)";
+        String sqlExperience = "INSERT INTO parsed_resume_experiences (content_hash, position, content) VALUES (?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                deleteChildren(conn, contentHash);
+
+                try (PreparedStatement ps = conn.prepareStatement(sqlText)) {
+                    ps.setString(1, contentHash);
+                    ps.setString(2, parsed.getRawText());
+                    ps.setString(3, parsed.getFullText() == null ? "" : parsed.getFullText());
+                    ps.executeUpdate();
+                }
+
+                try (PreparedStatement ps = conn.prepareStatement(sqlSection)) {
+                    int position = 0;
+                    for (Map.Entry<String, String> section : parsed.getSections().entrySet()) {
+                        ps.setString(1, contentHash);
+                        ps.setInt(2, position++);
+                        ps.setString(3, section.getKey());
+                        ps.setString(4, section.getValue() == null ? "" : section.getValue());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+
+                try (PreparedStatement ps = conn.prepareStatement(sqlExperience)) {
+                    int position = 0;
+                    for (String experience : parsed.getExperiences()) {
+                        ps.setString(1, contentHash);
+                        ps.setInt(2, position++);
+                        ps.setString(3, experience);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Deletes the entries parsed more than maxAgeDays ago and, if more than maxEntries are
+     * left, the oldest of those too. Returns how many entries were deleted.
+     */
+    public int prune(int maxEntries, int maxAgeDays) throws SQLException {
+        try (Connection conn = dbConnection.getConnection()) {
+            int total;
+            int expired;
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM parsed_resume_cache")) {
+                total = rs.next() ? rs.getInt(1) : 0;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(COUNT_EXPIRED)) {
+                ps.setString(1, "-" + maxAgeDays + " days");
+                try (ResultSet rs = ps.executeQuery()) {
+                    expired = rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+
+            // The expired entries are the oldest ones, so both limits come down to "the oldest n"
+            int excess = Math.max(expired, total - maxEntries);
+            if (excess <= 0) return 0;
+
+            List<String> victims = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_OLDEST)) {
+                ps.setInt(1, excess);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        victims.add(rs.getString("content_hash"));
+                    }
+                }
+            }
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(DELETE_ENTRY)) {
+                for (String contentHash : victims) {
+                    // The pool does not turn on foreign_keys, so ON DELETE CASCADE would not fire
+                    deleteChildren(conn, contentHash);
+                    ps.setString(1, contentHash);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            return victims.size();
+        }
+    }
+
+    private void deleteChildren(Connection conn, String contentHash) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DELETE_SECTIONS)) {
+            ps.setString(1, contentHash);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(DELETE_EXPERIENCES)) {
+            ps.setString(1, contentHash);
+            ps.executeUpdate();
+        }
+    }
+}
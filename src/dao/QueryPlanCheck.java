@@ -0,0 +1,147 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over every DAO statement that filters rows and reports the ones
+ * SQLite would answer with a full table scan. A missing index is invisible with a handful
+ * of test rows, so this checks the plan instead of the timing.
+ *
+ * It only sees the statements listed in STATEMENTS. The DAOs keep every statement with a
+ * WHERE clause in a package-private constant, and each constant is listed there by hand, so
+ * a new one is unchecked until it is added. Inline SQL is never checked. That covers the
+ * inserts (e.g. the keyword insert in JobDescriptionDAO.saveJobDescription), whole-table
+ * counts, the tailored_fts rebuild and IdAllocator's seed query, which is built per table.
+ * ParsedResumeCacheDAO.SELECT_OLDEST is left out on purpose: it walks the created_at
+ * index in order, and that plan step reads as a SCAN.
+ *
+ * DatabaseConnection runs it after the schema is applied and logs any findings;
+ * main() exits non-zero so it can gate a build:
+ *   java -cp "build:lib/*" dao.QueryPlanCheck [database-url]
+ */
+public final class QueryPlanCheck {
+
+    // Statement name -> SQL, taken from the DAO constants so the check can't drift from the code
+    private static final Map<String, String> STATEMENTS = new LinkedHashMap<>();
+
+    static {
+        STATEMENTS.put("ResumeDAO.getResumesByUserOrderByDate", ResumeDAO.SELECT_BY_USER_ORDER_BY_DATE);
+        STATEMENTS.put("ResumeDAO.getResumesByUserOrderByName", ResumeDAO.SELECT_BY_USER_ORDER_BY_NAME);
+        STATEMENTS.put("ResumeDAO.getResumeById", ResumeDAO.SELECT_BY_ID);
+        STATEMENTS.put("ResumeDAO.deleteResume", ResumeDAO.DELETE_BY_ID);
+        STATEMENTS.put("ResumeDAO.deleteResume(file path)", ResumeDAO.SELECT_FILE_PATH_BY_ID);
+        STATEMENTS.put("ResumeDAO.countResumesWithFilePath", ResumeDAO.COUNT_BY_FILE_PATH);
+        STATEMENTS.put("ResumeDAO.updateResumeFilePath", ResumeDAO.UPDATE_FILE_PATH);
+
+        STATEMENTS.put("AnalyzedResumeDAO.getTailoredByUser", AnalyzedResumeDAO.SELECT_BY_USER);
+        STATEMENTS.put("AnalyzedResumeDAO.getTailoredByUserAndResume", AnalyzedResumeDAO.SELECT_BY_USER_AND_RESUME);
+        STATEMENTS.put("AnalyzedResumeDAO.deleteTailoredResume", AnalyzedResumeDAO.DELETE_BY_ID);
+
+        STATEMENTS.put("UserDAO.findByEmail", UserDAO.SELECT_USER_BY_EMAIL);
+        STATEMENTS.put("UserDAO.emailExists(users)", UserDAO.COUNT_USERS_BY_EMAIL);
+        STATEMENTS.put("UserDAO.emailExists(oauth_users)", UserDAO.COUNT_OAUTH_USERS_BY_EMAIL);
+        STATEMENTS.put("UserDAO.updatePassword", UserDAO.UPDATE_PASSWORD);
+        STATEMENTS.put("UserDAO.updateEmailVerification", UserDAO.UPDATE_EMAIL_VERIFIED);
+        STATEMENTS.put("UserDAO.findByOAuthEmail", UserDAO.SELECT_OAUTH_USER);
+        STATEMENTS.put("UserDAO.findById", UserDAO.SELECT_USER_BY_ID);
+
+        STATEMENTS.put("IdAllocator.reserveBlock(update)", IdAllocator.RESERVE_BLOCK);
+        STATEMENTS.put("IdAllocator.reserveBlock(select)", IdAllocator.SELECT_NEXT_VALUE);
+
+        STATEMENTS.put("ParsedResumeCacheDAO.find(text)", ParsedResumeCacheDAO.SELECT_TEXT);
+        STATEMENTS.put("ParsedResumeCacheDAO.find(sections)", ParsedResumeCacheDAO.SELECT_SECTIONS);
+        STATEMENTS.put("ParsedResumeCacheDAO.find(experiences)", ParsedResumeCacheDAO.SELECT_EXPERIENCES);
+        STATEMENTS.put("ParsedResumeCacheDAO.save(sections)", ParsedResumeCacheDAO.DELETE_SECTIONS);
+        STATEMENTS.put("ParsedResumeCacheDAO.save(experiences)", ParsedResumeCacheDAO.DELETE_EXPERIENCES);
+        STATEMENTS.put("ParsedResumeCacheDAO.prune(expired)", ParsedResumeCacheDAO.COUNT_EXPIRED);
+        STATEMENTS.put("ParsedResumeCacheDAO.prune(delete)", ParsedResumeCacheDAO.DELETE_ENTRY);
+
+        STATEMENTS.put("JobDescriptionDAO.getJobDescriptionsByUser", JobDescriptionDAO.SELECT_BY_USER);
+        STATEMENTS.put("JobDescriptionDAO.getJobDescriptionsByUser(keywords)", JobDescriptionDAO.SELECT_KEYWORDS);
+        STATEMENTS.put("JobDescriptionDAO.deleteJobDescription", JobDescriptionDAO.DELETE_BY_ID);
+        STATEMENTS.put("JobDescriptionDAO.deleteJobDescription(keywords)", JobDescriptionDAO.DELETE_KEYWORDS);
+
+        STATEMENTS.put("TextSearchDAO.searchTailored", TextSearchDAO.SEARCH_TAILORED);
+        STATEMENTS.put("TextSearchDAO.searchJobDescriptions", TextSearchDAO.SEARCH_JOB_DESCRIPTIONS);
+    }
+
+    private QueryPlanCheck() {}
+
+    /**
+     * Returns one line per plan step that scans a whole table, e.g.
+     * "ResumeDAO.getResumesByUserOrderByDate: SCAN resumes". Empty when every statement uses an index.
+     */
+    public static List<String> findFullScans(Connection conn) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, String> statement : STATEMENTS.entrySet()) {
+            for (String step : explain(conn, statement.getValue())) {
+                if (isFullScan(step)) {
+                    problems.add(statement.getKey() + ": " + step);
+                }
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * The plan steps for one statement, as SQLite prints them in the detail column
+     */
+    public static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            // The plan doesn't depend on the values, but the driver wants every parameter bound
+            int params = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= params; i++) {
+                ps.setNull(i, Types.NULL);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    steps.add(rs.getString("detail"));
+                }
+            }
+        }
+        return steps;
+    }
+
+    // "SCAN resumes" (3.36+) or "SCAN TABLE resumes" (older) is a full pass over the table;
+    // index lookups show up as "SEARCH ... USING INDEX" instead
+    private static boolean isFullScan(String step) {
+        return step != null && step.startsWith("SCAN ") && !step.contains("VIRTUAL TABLE");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        String url = args.length > 0 ? args[0] : "jdbc:sqlite:database/database.db";
+
+        // Goes through DatabaseConnection for the default database so the schema is applied first
+        List<String> problems;
+        if (args.length == 0) {
+            try (Connection conn = DatabaseConnection.getInstance().getReadConnection()) {
+                problems = findFullScans(conn);
+            }
+        } else {
+            try (Connection conn = DriverManager.getConnection(url)) {
+                problems = findFullScans(conn);
+            }
+        }
+
+        if (problems.isEmpty()) {
+            System.out.println("Query plans OK: " + STATEMENTS.size() + " statements use an index.");
+            return;
+        }
+        System.err.println("Full table scans found in " + url + ":");
+        for (String problem : problems) {
+            System.err.println("  " + problem);
+        }
+        System.exit(1);
+    }
+}
@@ -5,9 +5,70 @@ import models.Resume;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ResumeDAO {
 
+    static final String SELECT_BY_USER_ORDER_BY_DATE = """
+            SELECT id, user_id, file_name, file_path, uploaded_at
+            FROM resumes
+            WHERE user_id = ?
+            ORDER BY uploaded_at DESC
+            """;
+
+    static final String SELECT_BY_USER_ORDER_BY_NAME = """
+            SELECT id, user_id, file_name, file_path, uploaded_at
+            FROM resumes
+            WHERE user_id = ?
+            ORDER BY LOWER(file_name) ASC, uploaded_at DESC
+            """;
+
+    static final String SELECT_BY_ID = """
+            SELECT id, user_id, file_name, file_path, uploaded_at
+            FROM resumes
+            WHERE id = ? AND user_id = ?
+            """;
+
+    static final String SELECT_FILE_PATH_BY_ID = "SELECT file_path FROM resumes WHERE id = ? AND user_id = ?";
+
+    static final String COUNT_BY_FILE_PATH = "SELECT COUNT(*) FROM resumes WHERE file_path = ?";
+
+    static final String DELETE_BY_ID = "DELETE FROM resumes WHERE id = ? AND user_id = ?";
+
+    static final String UPDATE_FILE_PATH = "UPDATE resumes SET file_path = ? WHERE id = ? AND user_id = ?";
+
+    // ---------------------------------------------------------
+    // Change notifications
+    // ---------------------------------------------------------
+
+    /**
+     * Told about every committed change to the resumes table, on the thread that made it,
+     * after the writer connection has been handed back (so a listener may write itself).
+     * Implementations should still hand real work off to their own thread.
+     */
+    public interface ChangeListener {
+        default void resumeSaved(Resume resume) {}
+        default void resumeFilePathChanged(int resumeId, String userId, String newFilePath) {}
+        default void resumeDeleted(int resumeId, String userId) {}
+        // A row stopped pointing at this file (deleted, or moved to another file); others may still
+        default void resumeFileReleased(String filePath) {}
+    }
+
+    private static final List<ChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    public static void addChangeListener(ChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeChangeListener(ChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    // Only call once the connection that made the change is closed
+    private static void fire(java.util.function.Consumer<ChangeListener> event) {
+        LISTENERS.forEach(event);
+    }
+
     private final DatabaseConnection dbConnection;
 
     public ResumeDAO() {
@@ -20,6 +81,7 @@ public class ResumeDAO {
             VALUES (?, ?, ?, COALESCE(?, datetime('now')))
             """;
 
+        int id = -1;
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -32,27 +94,88 @@ public class ResumeDAO {
 
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
-                    int id = rs.getInt(1);
+                    id = rs.getInt(1);
                     resume.setId(id);
-                    return id;
                 }
             }
         }
-        return -1;
+        if (id > 0) {
+            fire(l -> l.resumeSaved(resume));
+        }
+        return id;
     }
 
-    public List<Resume> getResumesByUserOrderByDate(String userId) throws SQLException {
+    /**
+     * Inserts many resumes in one transaction with a single batched statement.
+     * Returns the generated ids in input order and sets them on the models.
+     */
+    public int[] saveAll(List<Resume> resumes) throws SQLException {
+        if (resumes == null || resumes.isEmpty()) {
+            return new int[0];
+        }
+
         String sql = """
-            SELECT id, user_id, file_name, file_path, uploaded_at
-            FROM resumes
-            WHERE user_id = ?
-            ORDER BY datetime(uploaded_at) DESC
+            INSERT INTO resumes (user_id, file_name, file_path, uploaded_at)
+            VALUES (?, ?, ?, COALESCE(?, datetime('now')))
             """;
 
+        int[] ids;
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Resume resume : resumes) {
+                    ps.setString(1, resume.getUserId());
+                    ps.setString(2, resume.getFileName());
+                    ps.setString(3, resume.getFilePath());
+                    ps.setString(4, resume.getUploadedAt());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                ids = generatedIds(conn, resumes.size());
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            resumes.get(i).setId(ids[i]);
+        }
+        for (Resume resume : resumes) {
+            fire(l -> l.resumeSaved(resume));
+        }
+        return ids;
+    }
+
+    /*
+     SQLite's driver only reports the last rowid after a batch. We hold the single writer
+     connection inside one transaction and the table is AUTOINCREMENT, so the batch got
+     count consecutive ids ending at last_insert_rowid().
+     */
+    static int[] generatedIds(Connection conn, int count) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            if (!rs.next()) {
+                throw new SQLException("Batch insert failed, no ID obtained.");
+            }
+            int last = rs.getInt(1);
+            int[] ids = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = last - count + 1 + i;
+            }
+            return ids;
+        }
+    }
+
+    public List<Resume> getResumesByUserOrderByDate(String userId) throws SQLException {
         List<Resume> results = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_USER_ORDER_BY_DATE)) {
 
             ps.setString(1, userId);
 
@@ -66,17 +189,10 @@ public class ResumeDAO {
     }
 
     public List<Resume> getResumesByUserOrderByName(String userId) throws SQLException {
-        String sql = """
-            SELECT id, user_id, file_name, file_path, uploaded_at
-            FROM resumes
-            WHERE user_id = ?
-            ORDER BY LOWER(file_name) ASC, datetime(uploaded_at) DESC
-            """;
-
         List<Resume> results = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_USER_ORDER_BY_NAME)) {
 
             ps.setString(1, userId);
 
@@ -90,17 +206,68 @@ public class ResumeDAO {
     }
 
     public boolean deleteResume(int resumeId, String userId) throws SQLException {
-        String sql = "DELETE FROM resumes WHERE id = ? AND user_id = ?";
-
+        String filePath;
+        int affected;
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(DELETE_BY_ID)) {
+
+            filePath = findFilePath(conn, resumeId, userId);
+            ps.setInt(1, resumeId);
+            ps.setString(2, userId);
+
+            affected = ps.executeUpdate();
+        }
+        if (affected > 0) {
+            fire(l -> l.resumeDeleted(resumeId, userId));
+            if (filePath != null) {
+                fire(l -> l.resumeFileReleased(filePath));
+            }
+        }
+        return affected > 0;
+    }
+
+    /**
+     * Number of resumes whose file_path is exactly this path, i.e. the references to a
+     * stored file
+     */
+    public int countResumesWithFilePath(String filePath) throws SQLException {
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT_BY_FILE_PATH)) {
+
+            ps.setString(1, filePath);
 
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // Read on the writer connection, so it sees the row as the following update will
+    private static String findFilePath(Connection conn, int resumeId, String userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_FILE_PATH_BY_ID)) {
             ps.setInt(1, resumeId);
             ps.setString(2, userId);
 
-            int affected = ps.executeUpdate();
-            return affected > 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Every stored resume, oldest first. Used to build indexes over all users' resumes.
+     */
+    public List<Resume> getAllResumes() throws SQLException {
+        List<Resume> results = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, user_id, file_name, file_path, uploaded_at FROM resumes ORDER BY id")) {
+            while (rs.next()) {
+                results.add(mapRow(rs));
+            }
         }
+        return results;
     }
 
     private Resume mapRow(ResultSet rs) throws SQLException {
@@ -117,32 +284,33 @@ public class ResumeDAO {
      * Updates the file path for a resume (used when saving edited content to a new file)
      */
     public boolean updateResumeFilePath(int resumeId, String userId, String newFilePath) throws SQLException {
-        String sql = "UPDATE resumes SET file_path = ? WHERE id = ? AND user_id = ?";
-
+        String oldFilePath;
+        int affected;
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(UPDATE_FILE_PATH)) {
 
+            oldFilePath = findFilePath(conn, resumeId, userId);
             ps.setString(1, newFilePath);
             ps.setInt(2, resumeId);
             ps.setString(3, userId);
 
-            int affected = ps.executeUpdate();
-            return affected > 0;
+            affected = ps.executeUpdate();
         }
+        if (affected > 0) {
+            fire(l -> l.resumeFilePathChanged(resumeId, userId, newFilePath));
+            if (oldFilePath != null && !oldFilePath.equals(newFilePath)) {
+                fire(l -> l.resumeFileReleased(oldFilePath));
+            }
+        }
+        return affected > 0;
     }
 
     /**
      * Gets a single resume by ID
      */
     public Resume getResumeById(int resumeId, String userId) throws SQLException {
-        String sql = """
-            SELECT id, user_id, file_name, file_path, uploaded_at
-            FROM resumes
-            WHERE id = ? AND user_id = ?
-            """;
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID)) {
 
             ps.setInt(1, resumeId);
             ps.setString(2, userId);
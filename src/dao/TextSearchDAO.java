@@ -0,0 +1,139 @@
+package dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over past analyses (tailored_fts in schema.sql). Matching, ranking (bm25)
+ * and the highlighted snippets all happen inside SQLite, so nothing is loaded into memory to
+ * search. tailored_fts is kept in sync with tailored_resumes by triggers.
+ *
+ * Queries take an FTS5 MATCH expression; TextSearchService builds them from what the user typed.
+ */
+public class TextSearchDAO {
+
+    // snippet markers, MATCH expression, user, limit. Column -1 lets snippet pick the best column
+    static final String SEARCH_TAILORED = """
+            SELECT t.id, t.resume_id, t.job_title, t.job_company,
+                   snippet(tailored_fts, -1, ?, ?, '...', 16) AS snippet,
+                   bm25(tailored_fts, 2.0, 2.0, 1.0, 1.0) AS score
+            FROM tailored_fts
+            JOIN tailored_resumes t ON t.id = tailored_fts.rowid
+            WHERE tailored_fts MATCH ? AND t.user_id = ?
+            ORDER BY score
+            LIMIT ?
+            """;
+
+    // Same as SEARCH_TAILORED, but the snippet always comes from the job description
+    static final String SEARCH_JOB_DESCRIPTIONS = """
+            SELECT t.id, t.resume_id, t.job_title, t.job_company,
+                   snippet(tailored_fts, 2, ?, ?, '...', 16) AS snippet,
+                   bm25(tailored_fts) AS score
+            FROM tailored_fts
+            JOIN tailored_resumes t ON t.id = tailored_fts.rowid
+            WHERE tailored_fts MATCH ? AND t.user_id = ?
+            ORDER BY score
+            LIMIT ?
+            """;
+
+    // ---------------------------------------------------------
+    // Search Match Object
+    // ---------------------------------------------------------
+    public static class Match {
+        private final int id;            // tailored_resumes.id
+        private final int resumeId;
+        private final String title;      // "job title @ company"
+        private final String snippet;    // matched words wrapped in the caller's markers
+        private final double score;      // higher is better
+
+        Match(int id, int resumeId, String title, String snippet, double score) {
+            this.id = id;
+            this.resumeId = resumeId;
+            this.title = title;
+            this.snippet = snippet;
+            this.score = score;
+        }
+
+        public int getId() { return id; }
+        public int getResumeId() { return resumeId; }
+        public String getTitle() { return title; }
+        public String getSnippet() { return snippet; }
+        public double getScore() { return score; }
+    }
+
+    // ---------------------------------------------------------
+    // Indexing
+    // ---------------------------------------------------------
+
+    /**
+     * Rebuilds tailored_fts from tailored_resumes when the two disagree, which happens once
+     * for rows that were saved before the triggers existed. Returns true if it rebuilt.
+     */
+    public boolean rebuildTailoredIndexIfStale() throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            int indexed;
+            int stored;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM tailored_fts_docsize")) {
+                indexed = rs.next() ? rs.getInt(1) : 0;
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM tailored_resumes")) {
+                stored = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (indexed == stored) {
+                return false;
+            }
+            stmt.executeUpdate("INSERT INTO tailored_fts (tailored_fts) VALUES ('rebuild')");
+            return true;
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Searching
+    // ---------------------------------------------------------
+
+    /**
+     * The user's analyses whose job title, company, job description or tailored text matches
+     */
+    public List<Match> searchTailored(String userId, String matchQuery, String open, String close, int limit)
+            throws SQLException {
+        return queryTailored(SEARCH_TAILORED, userId, matchQuery, open, close, limit);
+    }
+
+    /**
+     * The user's analyses whose job description matches, i.e. the JDs they already analyzed against
+     */
+    public List<Match> searchJobDescriptions(String userId, String matchQuery, String open, String close, int limit)
+            throws SQLException {
+        return queryTailored(SEARCH_JOB_DESCRIPTIONS, userId, "job_description : (" + matchQuery + ")",
+                open, close, limit);
+    }
+
+    private List<Match> queryTailored(String sql, String userId, String matchQuery, String open, String close, int limit)
+            throws SQLException {
+        List<Match> matches = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, open);
+            ps.setString(2, close);
+            ps.setString(3, matchQuery);
+            ps.setString(4, userId);
+            ps.setInt(5, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String title = rs.getString("job_title");
+                    String company = rs.getString("job_company");
+                    if (company != null && !company.isBlank()) {
+                        title = (title == null ? "" : title) + " @ " + company;
+                    }
+                    matches.add(new Match(rs.getInt("id"), rs.getInt("resume_id"), title,
+                            rs.getString("snippet"), -rs.getDouble("score")));
+                }
+            }
+        }
+        return matches;
+    }
+}
@@ -6,6 +6,14 @@ import java.sql.*;
 public class UserDAO {
     private DatabaseConnection dbConnection;
 
+    static final String SELECT_USER_BY_EMAIL = "SELECT * FROM users WHERE email = ?";
+    static final String COUNT_USERS_BY_EMAIL = "SELECT COUNT(*) FROM users WHERE email = ?";
+    static final String COUNT_OAUTH_USERS_BY_EMAIL = "SELECT COUNT(*) FROM oauth_users WHERE oauth_email = ?";
+    static final String UPDATE_PASSWORD = "UPDATE users SET password_hash = ? WHERE id = ?";
+    static final String UPDATE_EMAIL_VERIFIED = "UPDATE users SET email_verified = ? WHERE email = ?";
+    static final String SELECT_OAUTH_USER = "SELECT * FROM oauth_users WHERE oauth_provider = ? AND oauth_email = ?";
+    static final String SELECT_USER_BY_ID = "SELECT * FROM users WHERE id = ?";
+
     public UserDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
     }
@@ -13,6 +21,9 @@ public class UserDAO {
     public boolean saveUser(User user) {
         // Generate the next available user ID
         String userId = getNextUserId();
+        if (userId == null) {
+            return false;
+        }
         user.setId(userId); // Set the generated ID on the user object
 
         String sql = "INSERT INTO users (id, email, password_hash, name, email_verified, text_verified) VALUES (?, ?, ?, ?, ?, ?)";
@@ -40,31 +51,17 @@ public class UserDAO {
 
 
     private String getNextUserId() {
-        String sql = "SELECT id FROM users WHERE id LIKE 'U%' ORDER BY CAST(SUBSTR(id, 2) AS INTEGER) DESC LIMIT 1";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                String lastId = rs.getString(1);
-                // Extract the number from "U123" -> 123, then add 1
-                int lastNumber = Integer.parseInt(lastId.substring(1));
-                int nextNumber = lastNumber + 1;
-                return "U" + nextNumber;
-            }
-
+        try {
+            return IdAllocator.users().nextId();
         } catch (SQLException e) {
             System.err.println("Error getting next user ID: " + e.getMessage());
         }
-        return "U1"; // Default to U1 if no users exist or error
+        return null;
     }
 
     public User findByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_USER_BY_EMAIL)) {
 
             stmt.setString(1, email);
             ResultSet rs = stmt.executeQuery();
@@ -81,13 +78,10 @@ public class UserDAO {
 
     public boolean emailExists(String email) {
         // Check both users and oauth_users tables
-        String sqlUsers = "SELECT COUNT(*) FROM users WHERE email = ?";
-        String sqlOAuthUsers = "SELECT COUNT(*) FROM oauth_users WHERE oauth_email = ?";
-
-        try (Connection conn = dbConnection.getConnection()) {
+        try (Connection conn = dbConnection.getReadConnection()) {
 
             // Check regular users table
-            try (PreparedStatement stmt = conn.prepareStatement(sqlUsers)) {
+            try (PreparedStatement stmt = conn.prepareStatement(COUNT_USERS_BY_EMAIL)) {
                 stmt.setString(1, email);
                 ResultSet rs = stmt.executeQuery();
                 if (rs.next() && rs.getInt(1) > 0) {
@@ -96,7 +90,7 @@ public class UserDAO {
             }
 
             // Check OAuth users table
-            try (PreparedStatement stmt = conn.prepareStatement(sqlOAuthUsers)) {
+            try (PreparedStatement stmt = conn.prepareStatement(COUNT_OAUTH_USERS_BY_EMAIL)) {
                 stmt.setString(1, email);
                 ResultSet rs = stmt.executeQuery();
                 if (rs.next() && rs.getInt(1) > 0) {
@@ -111,10 +105,8 @@ public class UserDAO {
     }
 
     public boolean updatePassword(int userId, String newPasswordHash) {
-        String sql = "UPDATE users SET password_hash = ? WHERE id = ?";
-
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_PASSWORD)) {
 
             stmt.setString(1, newPasswordHash);
             stmt.setInt(2, userId);
@@ -129,10 +121,8 @@ public class UserDAO {
     }
 
     public boolean updateEmailVerification(String email, boolean verified) {
-        String sql = "UPDATE users SET email_verified = ? WHERE email = ?";
-
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_EMAIL_VERIFIED)) {
 
             stmt.setBoolean(1, verified);
             stmt.setString(2, email);
@@ -147,10 +137,8 @@ public class UserDAO {
     }
 
     public User findByOAuthEmail(String provider, String email) {
-        String sql = "SELECT * FROM oauth_users WHERE oauth_provider = ? AND oauth_email = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_OAUTH_USER)) {
 
             stmt.setString(1, provider);
             stmt.setString(2, email);
@@ -175,10 +163,8 @@ public class UserDAO {
     }
 
     public User findById(String userId) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_USER_BY_ID)) {
 
             stmt.setString(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -195,7 +181,10 @@ public class UserDAO {
 
     public boolean saveOAuthUser(String provider, String oauthEmail, String name) {
         // Generate prefixed ID (O1, O2, O3...)
-        String oauthUserId = "O" + getNextOAuthUserId();
+        String oauthUserId = getNextOAuthUserId();
+        if (oauthUserId == null) {
+            return false;
+        }
 
         String sql = "INSERT INTO oauth_users (id, oauth_provider, oauth_email, name) VALUES (?, ?, ?, ?)";
 
@@ -220,21 +209,13 @@ public class UserDAO {
         return false;
     }
 
-    private int getNextOAuthUserId() {
-        String sql = "SELECT COUNT(*) FROM oauth_users WHERE id LIKE 'O%'";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) + 1; // Next available number
-            }
-
+    private String getNextOAuthUserId() {
+        try {
+            return IdAllocator.oauthUsers().nextId();
         } catch (SQLException e) {
             System.err.println("Error getting next OAuth user ID: " + e.getMessage());
         }
-        return 1; // Default to 1 if error
+        return null;
     }
 
     private User mapResultSetToUser(ResultSet rs) throws SQLException {
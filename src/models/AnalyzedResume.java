@@ -2,7 +2,7 @@ package models;
 
 public class AnalyzedResume {
     private int id;
-    private int userId;
+    private String userId;
     private int resumeId;          // FK to resumes.id
     private String jobTitle;
     private String jobCompany;
@@ -14,7 +14,7 @@ public class AnalyzedResume {
     public AnalyzedResume() {}
 
     // Constructor for loading from DB
-    public AnalyzedResume(int id, int userId, int resumeId, String jobTitle,
+    public AnalyzedResume(int id, String userId, int resumeId, String jobTitle,
                           String jobCompany, String jobDescription,
                           String tailoredText, String filePath, String createdAt) {
         this.id = id;
@@ -29,7 +29,7 @@ public class AnalyzedResume {
     }
 
     // Constructor for inserting a new tailored resume
-    public AnalyzedResume(int userId, int resumeId, String jobTitle,
+    public AnalyzedResume(String userId, int resumeId, String jobTitle,
                           String jobCompany, String jobDescription,
                           String tailoredText, String filePath) {
         this.userId = userId;
@@ -49,8 +49,8 @@ public class AnalyzedResume {
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
 
-    public int getUserId() { return userId; }
-    public void setUserId(int userId) { this.userId = userId; }
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
 
     public int getResumeId() { return resumeId; }
     public void setResumeId(int resumeId) { this.resumeId = resumeId; }
@@ -14,7 +14,7 @@ import java.util.Objects;
 public class JobDescription {
 
     private int id;
-    private int userId;
+    private String userId;
     private String title;
     private String company;
     private String description;
@@ -23,7 +23,7 @@ public class JobDescription {
     // Constructors
     public JobDescription() {}
 
-    public JobDescription(int id, int userId, String title, String company, String description, List<String> keywords) {
+    public JobDescription(int id, String userId, String title, String company, String description, List<String> keywords) {
         this.id = id;
         this.userId = userId;
         this.title = title;
@@ -41,11 +41,11 @@ public class JobDescription {
         this.id = id;
     }
 
-    public int getUserId() {
+    public String getUserId() {
         return userId;
     }
 
-    public void setUserId(int userId) {
+    public void setUserId(String userId) {
         this.userId = userId;
     }
 
@@ -99,7 +99,7 @@ public class JobDescription {
         if (this == o) return true;
         if (!(o instanceof JobDescription)) return false;
         JobDescription that = (JobDescription) o;
-        return id == that.id && userId == that.userId &&
+        return id == that.id && Objects.equals(userId, that.userId) &&
                 Objects.equals(title, that.title) &&
                 Objects.equals(company, that.company) &&
                 Objects.equals(description, that.description) &&
@@ -0,0 +1,83 @@
+package services;
+
+import services.ResumeParserService.ParsedResume;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Everything one tailorResume request derives from the resume and the job description,
+ * computed once by ResumeAnalyzeService.analyze and then only read: the job keyword model,
+ * which keywords the resume has and lacks, and the match score. The feedback section and
+ * every formatter take their keywords from here instead of re-deriving them.
+ *
+ * Instances are immutable; the lists are unmodifiable.
+ */
+public final class AnalysisContext {
+
+    private final ParsedResume parsedResume;
+    private final String jobDescription;
+    private final List<String> jobKeywords;        // ranked, as analyzeJobDescription returns them
+    private final List<String> scoringKeywords;    // lowercased, blacklist removed
+    private final KeywordMatcher matcher;          // compiled from scoringKeywords
+    private final List<String> matchedKeywords;    // capitalized, in keyword order
+    private final Set<String> matchedSet;          // lowercased, for lookups
+    private final List<String> missingKeywords;    // lowercased, in keyword order
+    private final double score;
+
+    AnalysisContext(ParsedResume parsedResume, String jobDescription, List<String> jobKeywords,
+                    List<String> scoringKeywords, KeywordMatcher matcher, boolean[] found, double score) {
+        this.parsedResume = parsedResume;
+        this.jobDescription = jobDescription;
+        this.jobKeywords = Collections.unmodifiableList(jobKeywords);
+        this.scoringKeywords = Collections.unmodifiableList(scoringKeywords);
+        this.matcher = matcher;
+        this.score = score;
+
+        // found[] is indexed like matcher.getKeywords(), the distinct scoring keywords
+        List<String> keywords = matcher.getKeywords();
+        List<String> matched = new ArrayList<>();
+        Set<String> matchedLower = new HashSet<>();
+        for (int i = 0; i < found.length; i++) {
+            if (found[i]) {
+                matched.add(capitalize(keywords.get(i)));
+                matchedLower.add(keywords.get(i));
+            }
+        }
+        List<String> missing = new ArrayList<>();
+        for (String keyword : scoringKeywords) {
+            if (!matchedLower.contains(keyword)) missing.add(keyword);
+        }
+        this.matchedKeywords = Collections.unmodifiableList(matched);
+        this.matchedSet = Collections.unmodifiableSet(matchedLower);
+        this.missingKeywords = Collections.unmodifiableList(missing);
+    }
+
+    public ParsedResume getParsedResume() { return parsedResume; }
+    public String getJobDescription() { return jobDescription; }
+    public List<String> getJobKeywords() { return jobKeywords; }
+    public List<String> getScoringKeywords() { return scoringKeywords; }
+    public KeywordMatcher getMatcher() { return matcher; }
+    public List<String> getMatchedKeywords() { return matchedKeywords; }
+    public List<String> getMissingKeywords() { return missingKeywords; }
+    public double getScore() { return score; }
+
+    /**
+     * Whether the resume contains the keyword (case-insensitive)
+     */
+    public boolean isMatched(String keyword) {
+        return keyword != null && matchedSet.contains(keyword.toLowerCase());
+    }
+
+    public boolean hasJobDescription() {
+        return jobDescription != null && !jobDescription.trim().isEmpty();
+    }
+
+    private static String capitalize(String word) {
+        if (word == null || word.isEmpty()) return word;
+        return word.substring(0, 1).toUpperCase() + word.substring(1);
+    }
+}
@@ -0,0 +1,558 @@
+package services;
+
+import dao.AnalyzedResumeDAO;
+import dao.ResumeDAO;
+import dao.TextSearchDAO;
+import models.AnalyzedResume;
+import models.JobDescription;
+import models.Resume;
+import services.ResumeParserService.ParsedResume;
+import utils.FileHashUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Runs the upload flow in the background:
+ *
+ *   parse -> analyze against the job description -> render the analyzed file -> save
+ *
+ * Analyses run on a bounded executor (virtual threads where the JVM has them, otherwise a
+ * small pool of daemon threads) and at most MAX_QUEUED more wait for a turn; beyond that
+ * submit() fails fast instead of stacking work up. Each run reports its stages to a
+ * ProgressListener as it reaches them.
+ *
+ * The future submit() returns can be cancelled. Nothing is written to the database until
+ * the SAVING stage, so a run cancelled before that leaves no trace (a rendered file is
+ * deleted again); once SAVING has started the run finishes regardless.
+ *
+ * A saved analysis also stores its job description (once per user and text) through
+ * JobMatchIndex, and ranks the user's other saved job descriptions against the resume.
+ *
+ * Identical requests (same file content, same job description, same user) that arrive
+ * while one is in flight share it instead of parsing and saving twice. The shared run is
+ * only cancelled when every caller waiting on it has cancelled.
+ */
+public class AnalysisService {
+
+    private static final int MAX_CONCURRENT = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int MAX_QUEUED = 16;
+    private static final Path UPLOADS_DIR = Paths.get("uploads");
+    private static final int JOB_MATCHES = 3;
+    private static final int PAST_ANALYSES = 3;
+    private static final int JOB_TITLE_LENGTH = 80;
+
+    // ---------------------------------------------------------
+    // Stages / Result
+    // ---------------------------------------------------------
+    public enum Stage {
+        QUEUED(10, "Queued…"),
+        PARSING(25, "Parsing sections…"),
+        ANALYZING(50, "Analysis of resume to job…"),
+        RENDERING(70, "Creating analyzed resume…"),
+        SAVING(85, "Saving…"),
+        DONE(100, "Done");
+
+        private final int percent;
+        private final String label;
+
+        Stage(int percent, String label) {
+            this.percent = percent;
+            this.label = label;
+        }
+
+        public int getPercent() { return percent; }
+        public String getLabel() { return label; }
+    }
+
+    /**
+     * Called on a background thread, in stage order, starting with the stage the run is in
+     * when the listener is attached
+     */
+    public interface ProgressListener {
+        void onStage(Stage stage);
+    }
+
+    public static class AnalysisResult {
+        private final ParsedResume parsedResume;
+        private final AnalysisContext context;     // null without a job description
+        private final String tailoredText;         // null without a job description
+        private final int resumeId;                // -1 when not saved (no user logged in)
+        private final int analyzedResumeId;        // -1 when no analyzed file was saved
+        private final List<JobMatchIndex.Match> jobMatches;   // the user's other saved JDs, best first
+        private final List<TextSearchDAO.Match> pastAnalyses; // earlier analyses against a similar JD
+
+        AnalysisResult(ParsedResume parsedResume, AnalysisContext context, String tailoredText,
+                       int resumeId, int analyzedResumeId, List<JobMatchIndex.Match> jobMatches,
+                       List<TextSearchDAO.Match> pastAnalyses) {
+            this.parsedResume = parsedResume;
+            this.context = context;
+            this.tailoredText = tailoredText;
+            this.resumeId = resumeId;
+            this.analyzedResumeId = analyzedResumeId;
+            this.jobMatches = jobMatches;
+            this.pastAnalyses = pastAnalyses;
+        }
+
+        public ParsedResume getParsedResume() { return parsedResume; }
+        public AnalysisContext getContext() { return context; }
+        public String getTailoredText() { return tailoredText; }
+        public int getResumeId() { return resumeId; }
+        public int getAnalyzedResumeId() { return analyzedResumeId; }
+        public List<JobMatchIndex.Match> getJobMatches() { return jobMatches; }
+        public List<TextSearchDAO.Match> getPastAnalyses() { return pastAnalyses; }
+
+        public boolean hasTailoredText() {
+            return tailoredText != null && !tailoredText.isBlank();
+        }
+    }
+
+    // One in-flight analysis, shared by every identical request
+    private static final class Task {
+        final String key;
+        final File file;
+        final String jobDescription;
+        final String userId;
+        final CompletableFuture<AnalysisResult> result = new CompletableFuture<>();
+
+        // Guarded by the inFlight map
+        int subscribers;
+
+        // Guarded by this
+        private final List<ProgressListener> listeners = new ArrayList<>();
+        private Stage stage = Stage.QUEUED;
+        private Thread runner;
+        private boolean cancelled;
+        private boolean committing;
+
+        Task(String key, File file, String jobDescription, String userId) {
+            this.key = key;
+            this.file = file;
+            this.jobDescription = jobDescription;
+            this.userId = userId;
+        }
+
+        synchronized void subscribe(ProgressListener listener) {
+            listeners.add(listener);
+            listener.onStage(stage);
+        }
+
+        synchronized void unsubscribe(ProgressListener listener) {
+            listeners.remove(listener);
+        }
+
+        synchronized void advance(Stage next) {
+            checkCancelled();
+            stage = next;
+            for (ProgressListener listener : listeners) {
+                listener.onStage(next);
+            }
+        }
+
+        synchronized boolean start() {
+            if (cancelled) return false;
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void finish() {
+            runner = null;
+        }
+
+        synchronized void checkCancelled() {
+            if (cancelled) throw new CancellationException("Analysis cancelled");
+        }
+
+        // Past this point the run no longer reacts to cancel()
+        synchronized void commit() {
+            checkCancelled();
+            committing = true;
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized void cancel() {
+            if (committing || result.isDone()) return;
+            cancelled = true;
+            if (runner != null) runner.interrupt();
+            result.completeExceptionally(new CancellationException("Analysis cancelled"));
+        }
+    }
+
+    private final ResumeParserService parser;
+    private final ResumeAnalyzeService analyzer;
+    private final ResumeDAO resumeDAO;
+    private final AnalyzedResumeDAO analyzedResumeDAO;
+    private final BlobStore blobStore = BlobStore.getInstance();
+
+    private final ExecutorService executor = VirtualThreadTaskExecutor.newExecutor("analysis", MAX_CONCURRENT);
+    // Hashes uploads for the in-flight lookup, apart from the analyses so it never waits on them
+    private final ExecutorService hashing = VirtualThreadTaskExecutor.newExecutor("analysis-hash", 2);
+    private final Semaphore running = new Semaphore(MAX_CONCURRENT);
+    private final Semaphore admitted = new Semaphore(MAX_CONCURRENT + MAX_QUEUED);
+    private final Map<String, Task> inFlight = new HashMap<>();
+
+    public AnalysisService(ResumeParserService parser, ResumeAnalyzeService analyzer,
+                           ResumeDAO resumeDAO, AnalyzedResumeDAO analyzedResumeDAO) {
+        this.parser = parser;
+        this.analyzer = analyzer;
+        this.resumeDAO = resumeDAO;
+        this.analyzedResumeDAO = analyzedResumeDAO;
+    }
+
+    // ---------------------------------------------------------
+    // Submitting
+    // ---------------------------------------------------------
+
+    /**
+     * Starts analyzing the file against the job description (which may be empty) and saving
+     * both versions for the user (when userId is null nothing is saved). Returns at once: the
+     * file is hashed on a background thread to find an identical run already in flight, and
+     * a file that cannot be read fails the future.
+     *
+     * Cancelling the returned future detaches this caller; the listener gets no more stages.
+     * The future fails with RejectedExecutionException when too many analyses are waiting.
+     */
+    public CompletableFuture<AnalysisResult> submit(File file, String jobDescription, String userId,
+                                                    ProgressListener listener) {
+        String jd = jobDescription == null ? "" : jobDescription.trim();
+
+        // Each caller gets its own future, so cancelling one leaves the others waiting
+        CompletableFuture<AnalysisResult> future = new CompletableFuture<>();
+        try {
+            hashing.execute(() -> {
+                String key;
+                try {
+                    key = FileHashUtil.sha256(file.toPath()) + ":" + FileHashUtil.sha256(jd) + ":"
+                            + (userId == null ? "" : userId);
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                if (!future.isDone()) {
+                    join(key, file, jd, userId, listener, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    // Attaches the caller to the run for this key, starting one if none is in flight
+    private void join(String key, File file, String jd, String userId, ProgressListener listener,
+                      CompletableFuture<AnalysisResult> future) {
+        Task task;
+        boolean started = false;
+        synchronized (inFlight) {
+            task = inFlight.get(key);
+            if (task == null) {
+                if (!admitted.tryAcquire()) {
+                    future.completeExceptionally(
+                            new RejectedExecutionException("Too many analyses are waiting, try again shortly"));
+                    return;
+                }
+                task = new Task(key, file, jd, userId);
+                inFlight.put(key, task);
+                started = true;
+            }
+            task.subscribers++;
+        }
+        if (listener != null) task.subscribe(listener);
+
+        // Registered after subscribing, so a cancel that came in meanwhile detaches right here
+        Task shared = task;
+        shared.result.whenComplete((result, error) -> {
+            if (error == null) future.complete(result);
+            else future.completeExceptionally(error);
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) detach(shared, listener);
+        });
+
+        if (started) {
+            try {
+                executor.execute(() -> run(shared));
+            } catch (RejectedExecutionException e) {
+                synchronized (inFlight) {
+                    inFlight.remove(key, shared);
+                }
+                admitted.release();
+                shared.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void detach(Task task, ProgressListener listener) {
+        if (listener != null) task.unsubscribe(listener);
+        synchronized (inFlight) {
+            if (--task.subscribers > 0) return;
+            inFlight.remove(task.key, task);
+        }
+        task.cancel();
+    }
+
+    private void run(Task task) {
+        AnalysisResult result = null;
+        Throwable error = null;
+        boolean acquired = false;
+        try {
+            running.acquire();
+            acquired = true;
+            if (task.start()) {
+                result = analyze(task);
+            }
+        } catch (Throwable e) {
+            error = task.isCancelled() ? new CancellationException("Analysis cancelled") : e;
+        } finally {
+            task.finish();
+            Thread.interrupted();   // a cancel may have interrupted this (pooled) thread
+            if (acquired) running.release();
+            admitted.release();
+        }
+
+        // Leave the in-flight map first, so an identical request arriving now starts fresh
+        synchronized (inFlight) {
+            inFlight.remove(task.key, task);
+        }
+        if (error != null) task.result.completeExceptionally(error);
+        else if (result != null) task.result.complete(result);
+        else task.result.completeExceptionally(new CancellationException("Analysis cancelled"));
+    }
+
+    // ---------------------------------------------------------
+    // Pipeline
+    // ---------------------------------------------------------
+    private AnalysisResult analyze(Task task) throws IOException, SQLException {
+        boolean persist = task.userId != null && !task.userId.isBlank();
+
+        task.advance(Stage.PARSING);
+        ParsedResume parsed = parser.parseResumeComplete(task.file);
+
+        AnalysisContext context = null;
+        String tailoredText = null;
+        if (!task.jobDescription.isEmpty()) {
+            task.advance(Stage.ANALYZING);
+            context = analyzer.analyze(parsed, task.jobDescription);
+            tailoredText = analyzer.tailorResume(context);
+        }
+        boolean hasTailoredText = tailoredText != null && !tailoredText.isBlank();
+
+        // Create analyzed resume file in same format as original (pdf/docx)
+        Path rendered = null;
+        String renderedName = null;
+        if (persist && hasTailoredText) {
+            task.advance(Stage.RENDERING);
+            String originalName = task.file.getName();
+            String extension = getFileExtension(originalName);
+            renderedName = "analyzed_" + getFileBaseName(originalName) + "." + extension;
+            rendered = scratchFile(extension);
+            if (!renderFormattedResume(rendered, extension, extractResumeContent(tailoredText))) {
+                Files.deleteIfExists(rendered);
+                rendered = null;
+            }
+        }
+
+        try {
+            task.commit();
+        } catch (CancellationException e) {
+            if (rendered != null) Files.deleteIfExists(rendered);
+            throw e;
+        }
+
+        int resumeId = -1;
+        int analyzedResumeId = -1;
+        List<JobMatchIndex.Match> jobMatches = new ArrayList<>();
+        List<TextSearchDAO.Match> pastAnalyses = new ArrayList<>();
+        if (persist) {
+            task.advance(Stage.SAVING);
+            // Looked up before this analysis is saved, so it doesn't find itself
+            if (hasTailoredText) {
+                pastAnalyses = findPastAnalyses(task);
+            }
+            resumeId = saveOriginal(task.file, task.userId);
+
+            // Only persist analyzed version if original save succeeded
+            if (resumeId > 0 && rendered != null) {
+                BlobStore.Blob blob = blobStore.adopt(rendered, renderedName);
+                try {
+                    analyzedResumeId = resumeDAO.saveResume(new Resume(task.userId, renderedName, blob.getPath().toString()));
+                } finally {
+                    blobStore.release(blob);
+                }
+            } else if (rendered != null) {
+                Files.deleteIfExists(rendered);
+            }
+            if (resumeId > 0 && hasTailoredText) {
+                analyzedResumeDAO.saveTailoredResume(new AnalyzedResume(
+                        task.userId,
+                        resumeId,
+                        titleOf(task.jobDescription),
+                        null,          // jobCompany
+                        task.jobDescription,
+                        tailoredText,
+                        null           // filePath if you later export to PDF/DOCX
+                ));
+            }
+            if (resumeId > 0) {
+                jobMatches = matchSavedJobs(parsed, task);
+            }
+        }
+
+        task.advance(Stage.DONE);
+        return new AnalysisResult(parsed, context, tailoredText, resumeId, analyzedResumeId, jobMatches, pastAnalyses);
+    }
+
+    // The user's earlier analyses whose job description shares key terms with this one.
+    // Best effort, like matchSavedJobs.
+    private List<TextSearchDAO.Match> findPastAnalyses(Task task) {
+        try {
+            return TextSearchService.getInstance().findAnalyzedJobs(task.userId, task.jobDescription, PAST_ANALYSES);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not look up past analyses: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Remembers the job description and ranks the user's other saved ones for this resume.
+    // Best effort: the analysis itself is already saved.
+    private List<JobMatchIndex.Match> matchSavedJobs(ParsedResume parsed, Task task) {
+        List<JobMatchIndex.Match> matches = new ArrayList<>();
+        try {
+            JobMatchIndex index = JobMatchIndex.getInstance();
+            int currentId = -1;
+            if (!task.jobDescription.isEmpty()) {
+                JobDescription jd = new JobDescription();
+                jd.setUserId(task.userId);
+                jd.setTitle(titleOf(task.jobDescription));
+                jd.setDescription(task.jobDescription);
+                currentId = index.remember(jd).getId();
+            }
+            for (JobMatchIndex.Match match : index.topMatches(parsed, task.userId, JOB_MATCHES + 1)) {
+                if (match.getJobDescription().getId() != currentId && matches.size() < JOB_MATCHES) {
+                    matches.add(match);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not save or match job descriptions: " + e.getMessage());
+        }
+        return matches;
+    }
+
+    // The pasted text has no title field; its first line usually names the position
+    private static String titleOf(String jobDescription) {
+        String first = jobDescription.strip().lines().findFirst().orElse("").strip();
+        return first.length() > JOB_TITLE_LENGTH ? first.substring(0, JOB_TITLE_LENGTH) + "…" : first;
+    }
+
+    // Stores the original file (once per content) and inserts a row in `resumes`
+    private int saveOriginal(File originalFile, String userId) throws IOException, SQLException {
+        BlobStore.Blob blob = blobStore.put(originalFile.toPath(), originalFile.getName());
+        try {
+            return resumeDAO.saveResume(new Resume(userId, originalFile.getName(), blob.getPath().toString()));
+        } finally {
+            blobStore.release(blob);
+        }
+    }
+
+    // The analyzed file is rendered here first and moved into the blob store when saved
+    private static Path scratchFile(String extension) throws IOException {
+        if (Files.notExists(UPLOADS_DIR)) {
+            Files.createDirectories(UPLOADS_DIR);
+        }
+        return Files.createTempFile(UPLOADS_DIR, "analyzed_", "." + extension);
+    }
+
+    // ---------------------------------------------------------
+    // Rendering
+    // ---------------------------------------------------------
+
+    // Removes the marker tags but keeps all content (both feedback and resume)
+    private static String extractResumeContent(String content) {
+        if (content == null || content.isBlank()) {
+            return "";
+        }
+        return content
+                .replace("===FEEDBACK_START===", "")
+                .replace("===FEEDBACK_END===", "")
+                .replace("===RESUME_START===", "")
+                .replace("===RESUME_END===", "")
+                .trim();
+    }
+
+    private static boolean renderFormattedResume(Path dest, String extension, String content) {
+        if ("pdf".equalsIgnoreCase(extension)) {
+            return createFormattedPdf(dest.toString(), content);
+        }
+        // Default to DOCX for docx, doc, or any other format
+        return createFormattedDocx(dest.toString(), content);
+    }
+
+    // Creates a PDF file with the formatted content
+    private static boolean createFormattedPdf(String filePath, String content) {
+        try {
+            PdfTextRenderer.DOCUMENT.render(content, Paths.get(filePath));
+            System.out.println("✓ Analyzed PDF created: " + filePath);
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Creates a DOCX file with the formatted content using Apache POI.
+    private static boolean createFormattedDocx(String filePath, String content) {
+        try {
+            org.apache.poi.xwpf.usermodel.XWPFDocument document = new org.apache.poi.xwpf.usermodel.XWPFDocument();
+
+            String[] lines = content.split("\n");
+            for (String line : lines) {
+                org.apache.poi.xwpf.usermodel.XWPFParagraph paragraph = document.createParagraph();
+                org.apache.poi.xwpf.usermodel.XWPFRun run = paragraph.createRun();
+                run.setText(line);
+                run.setFontSize(11);
+            }
+
+            try (java.io.FileOutputStream out = new java.io.FileOutputStream(filePath)) {
+                document.write(out);
+            }
+            document.close();
+
+            System.out.println("✓ Analyzed DOCX created: " + filePath);
+            return true;
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Gets the file extension from a filename; "docx" if there is none
+    private static String getFileExtension(String fileName) {
+        if (fileName == null) return "docx";
+        int lastDot = fileName.lastIndexOf('.');
+        if (lastDot > 0) {
+            return fileName.substring(lastDot + 1).toLowerCase();
+        }
+        return "docx";
+    }
+
+    // Gets the base name (without extension) from a filename.
+    private static String getFileBaseName(String fileName) {
+        if (fileName == null) return "resume";
+        int lastDot = fileName.lastIndexOf('.');
+        if (lastDot > 0) {
+            return fileName.substring(0, lastDot);
+        }
+        return fileName;
+    }
+}
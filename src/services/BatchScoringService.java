@@ -0,0 +1,155 @@
+package services;
+
+import models.Resume;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores many resumes against a single job description.
+ * The job description is tokenized and compiled into a KeywordMatcher once, then every
+ * resume is scored in parallel on a fork-join pool sized to the number of cores.
+ * Results come back ranked best first. The Saved Resumes "Rank for a job" action ranks a
+ * user's library through rankResumes.
+ */
+public class BatchScoringService {
+
+    // Resumes per leaf task; below this, splitting costs more than it saves
+    private static final int SPLIT_THRESHOLD = 16;
+
+    private static final ForkJoinPool POOL =
+            new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // ---------------------------------------------------------
+    // Scored Resume Object
+    // ---------------------------------------------------------
+    public static class ScoredResume {
+        private final int index;              // position in the input list
+        private final Resume resume;          // null when scoring raw text
+        private final double score;
+        private final List<String> matchedKeywords;
+
+        public ScoredResume(int index, Resume resume, double score, List<String> matchedKeywords) {
+            this.index = index;
+            this.resume = resume;
+            this.score = score;
+            this.matchedKeywords = matchedKeywords;
+        }
+
+        public int getIndex() { return index; }
+        public Resume getResume() { return resume; }
+        public double getScore() { return score; }
+        public List<String> getMatchedKeywords() { return matchedKeywords; }
+    }
+
+    private final ResumeAnalyzeService analyzer;
+    private final ResumeParserService parser;
+
+    public BatchScoringService() {
+        this(new ResumeAnalyzeService(), new ResumeParserService());
+    }
+
+    public BatchScoringService(ResumeAnalyzeService analyzer, ResumeParserService parser) {
+        this.analyzer = analyzer;
+        this.parser = parser;
+    }
+
+    /**
+     * Scores raw resume texts against one job description, highest score first
+     */
+    public List<ScoredResume> rankTexts(String jobDescription, List<String> resumeTexts) {
+        if (resumeTexts == null || resumeTexts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        KeywordMatcher matcher = KeywordMatcher.compile(analyzer.scoringKeywords(jobDescription));
+        ScoredResume[] results = new ScoredResume[resumeTexts.size()];
+
+        POOL.invoke(new ScoreTask(0, results.length, i -> score(i, null, resumeTexts.get(i), matcher), results));
+        return rank(results);
+    }
+
+    /**
+     * Scores stored resumes against one job description, highest score first.
+     * Text extraction runs on the pool as well; files that cannot be read are skipped.
+     */
+    public List<ScoredResume> rankResumes(String jobDescription, List<Resume> resumes) {
+        if (resumes == null || resumes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        KeywordMatcher matcher = KeywordMatcher.compile(analyzer.scoringKeywords(jobDescription));
+        ScoredResume[] results = new ScoredResume[resumes.size()];
+
+        POOL.invoke(new ScoreTask(0, results.length, i -> {
+            Resume resume = resumes.get(i);
+            try {
+                String text = parser.readFullText(new File(resume.getFilePath()));
+                return score(i, resume, text, matcher);
+            } catch (Exception e) {
+                System.err.println("Skipping unreadable resume " + resume.getFilePath() + ": " + e.getMessage());
+                return null;
+            }
+        }, results));
+        return rank(results);
+    }
+
+    private ScoredResume score(int index, Resume resume, String text, KeywordMatcher matcher) {
+        int total = matcher.getKeywords().size();
+        if (text == null || total == 0) {
+            return new ScoredResume(index, resume, 0.0, Collections.emptyList());
+        }
+        // The analyzer's MatchScorer decides the score, so a ranking agrees with the analysis;
+        // the matched keywords are only for display
+        double score = analyzer.matchScore(text, matcher);
+        List<String> matched = analyzer.mapKeywords(text, matcher);
+        return new ScoredResume(index, resume, score, matched);
+    }
+
+    private List<ScoredResume> rank(ScoredResume[] results) {
+        List<ScoredResume> ranked = new ArrayList<>(results.length);
+        for (ScoredResume r : results) {
+            if (r != null) ranked.add(r);
+        }
+        ranked.sort(Comparator.comparingDouble(ScoredResume::getScore).reversed()
+                .thenComparingInt(ScoredResume::getIndex));
+        return ranked;
+    }
+
+    // Scores one input position; may return null to drop the entry
+    private interface Scorer {
+        ScoredResume score(int index);
+    }
+
+    // Splits the index range in half until it is small enough to score directly
+    private static class ScoreTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final Scorer scorer;
+        private final ScoredResume[] out;
+
+        ScoreTask(int from, int to, Scorer scorer, ScoredResume[] out) {
+            this.from = from;
+            this.to = to;
+            this.scorer = scorer;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    out[i] = scorer.score(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(from, mid, scorer, out), new ScoreTask(mid, to, scorer, out));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package services;
+
+import dao.ResumeDAO;
+import utils.FileCopier;
+import utils.FileHashUtil;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed store for the resume files under uploads/. Every file is kept once,
+ * named by the SHA-256 of its bytes, in two levels of shard directories:
+ *
+ *   uploads/blobs/3f/a2/3fa2...c1.pdf
+ *
+ * The extension is part of the name because readers pick the format from the path.
+ * Uploading a file that is already stored copies nothing; the new resume row simply
+ * points at the existing file.
+ *
+ * A stored file is referenced by every resumes row whose file_path names it, and by puts
+ * whose row is not inserted yet (until release). When ResumeDAO reports that a row let
+ * go of a file, and nothing references it any more, the file is deleted. Stored files
+ * are read-only because they are shared: a changed resume is stored as a new file.
+ *
+ * Use it as:
+ *   Blob blob = blobStore.put(file, name);
+ *   try { ... insert the row with blob.getPath() ... } finally { blobStore.release(blob); }
+ */
+public final class BlobStore {
+
+    private static final Path ROOT = Paths.get("uploads", "blobs");
+    private static final int LOCK_STRIPES = 64;
+
+    private static BlobStore instance;
+
+    // ---------------------------------------------------------
+    // Blob
+    // ---------------------------------------------------------
+    public static final class Blob {
+        private final Path path;
+        private final boolean added;
+
+        Blob(Path path, boolean added) {
+            this.path = path;
+            this.added = added;
+        }
+
+        public Path getPath() { return path; }
+        // False when the content was already stored and nothing was written
+        public boolean isAdded() { return added; }
+    }
+
+    private final Path root;
+    private final ResumeDAO resumeDAO;
+    private final Map<Path, Integer> pending = new ConcurrentHashMap<>();   // puts not yet released
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    BlobStore(Path root, ResumeDAO resumeDAO) {
+        this.root = root;
+        this.resumeDAO = resumeDAO;
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+    }
+
+    public static synchronized BlobStore getInstance() {
+        if (instance == null) {
+            BlobStore store = new BlobStore(ROOT, new ResumeDAO());
+            ResumeDAO.addChangeListener(new ResumeDAO.ChangeListener() {
+                @Override
+                public void resumeFileReleased(String filePath) {
+                    // Counting references is a query, so not on the thread that made the change
+                    BlockingTaskExecutor.shared().submit(() -> {
+                        store.collect(Paths.get(filePath));
+                        return null;
+                    }, utils.Constants.Timeouts.DATABASE);
+                }
+            });
+            instance = store;
+        }
+        return instance;
+    }
+
+    // ---------------------------------------------------------
+    // Storing
+    // ---------------------------------------------------------
+
+    /**
+     * Stores a copy of the file, or finds the stored copy of the same content. fileName
+     * only provides the extension.
+     */
+    public Blob put(Path source, String fileName) throws IOException {
+        Path blob = pathFor(FileHashUtil.sha256(source), fileName);
+        synchronized (lockFor(blob)) {
+            pending.merge(blob, 1, Integer::sum);
+            try {
+                if (Files.isRegularFile(blob)) {
+                    return new Blob(blob, false);
+                }
+                Files.createDirectories(blob.getParent());
+                FileCopier.copy(source, blob, false);
+                blob.toFile().setReadOnly();
+                return new Blob(blob, true);
+            } catch (IOException | RuntimeException e) {
+                unpin(blob);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Like put, but takes over a file written for the store (a rendered or edited resume):
+     * it is moved into place, or deleted when the content is already stored.
+     */
+    public Blob adopt(Path file, String fileName) throws IOException {
+        Path blob = pathFor(FileHashUtil.sha256(file), fileName);
+        synchronized (lockFor(blob)) {
+            pending.merge(blob, 1, Integer::sum);
+            try {
+                if (Files.isRegularFile(blob)) {
+                    Files.delete(file);
+                    return new Blob(blob, false);
+                }
+                Files.createDirectories(blob.getParent());
+                try {
+                    Files.move(file, blob, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(file, blob);
+                }
+                blob.toFile().setReadOnly();
+                return new Blob(blob, true);
+            } catch (IOException | RuntimeException e) {
+                unpin(blob);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Ends a put or adopt: from here on only resumes rows keep the file. Deletes it if the
+     * row was never inserted.
+     */
+    public void release(Blob blob) {
+        synchronized (lockFor(blob.path)) {
+            unpin(blob.path);
+        }
+        collect(blob.path);
+    }
+
+    // ---------------------------------------------------------
+    // Garbage collection
+    // ---------------------------------------------------------
+
+    /**
+     * Deletes the stored file when no put holds it and no resume refers to it. Paths
+     * outside the store (files from before it, or anywhere else) are left alone.
+     */
+    void collect(Path path) {
+        Path blob = path.normalize();
+        if (!blob.startsWith(root) || blob.getNameCount() != root.getNameCount() + 3) {
+            return;
+        }
+        synchronized (lockFor(blob)) {
+            if (pending.containsKey(blob)) return;
+            try {
+                if (resumeDAO.countResumesWithFilePath(blob.toString()) > 0) return;
+                blob.toFile().setWritable(true);
+                // Shard directories stay: a put in another stripe may be about to use them
+                Files.deleteIfExists(blob);
+            } catch (SQLException | IOException e) {
+                // Kept on doubt; an unreferenced file only costs disk space
+                System.err.println("Could not collect stored file " + blob + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void unpin(Path blob) {
+        pending.computeIfPresent(blob, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // root/ab/cd/abcd...<hash>.<ext>
+    private Path pathFor(String hash, String fileName) {
+        int lastDot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        String extension = lastDot > 0 ? fileName.substring(lastDot).toLowerCase() : "";
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + extension).normalize();
+    }
+
+    private Object lockFor(Path blob) {
+        return locks[Math.floorMod(blob.getFileName().toString().hashCode(), LOCK_STRIPES)];
+    }
+}
@@ -0,0 +1,26 @@
+package services;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs blocking work - SMTP sends, OAuth round trips, database calls - off the Swing event
+ * thread. Every task has a timeout: when it runs out the future fails with a
+ * TimeoutException and the task's thread is interrupted, so a server that hangs holds up
+ * only its own task, never the others.
+ *
+ * Cancelling the returned future interrupts the task as well. Callbacks on the future run
+ * on the worker thread; hop to the event thread before touching Swing.
+ */
+public interface BlockingTaskExecutor {
+
+    <T> CompletableFuture<T> submit(Callable<T> task, Duration timeout);
+
+    /**
+     * The executor the controllers share
+     */
+    static BlockingTaskExecutor shared() {
+        return VirtualThreadTaskExecutor.shared();
+    }
+}
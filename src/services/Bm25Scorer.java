@@ -0,0 +1,45 @@
+package services;
+
+import java.util.List;
+
+/**
+ * BM25 match score over the job's keywords, as a percentage of the best possible score:
+ * sum of idf * tf * (k1 + 1) / (tf + k1 * (1 - b + b * len / avgLen)) divided by
+ * sum of idf * (k1 + 1), what a resume repeating every keyword endlessly would approach.
+ * len is the resume's length in words and avgLen the corpus average, so keywords in a
+ * short resume count slightly more than the same keywords in a long one.
+ */
+public class Bm25Scorer implements MatchScorer {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final DocumentFrequencies corpus;
+
+    public Bm25Scorer(DocumentFrequencies corpus) {
+        this.corpus = corpus;
+    }
+
+    @Override
+    public double score(CharSequence resumeText, KeywordMatcher keywords) {
+        List<String> terms = keywords.getKeywords();
+        if (resumeText == null || terms.isEmpty()) return 0.0;
+
+        int[] counts = keywords.count(resumeText);
+        int documents = corpus.documentCount();
+        int length = KeywordMatcher.wordCount(resumeText);
+        double averageLength = corpus.averageLength();
+        double norm = averageLength > 0 ? 1 - B + B * length / averageLength : 1.0;
+
+        double score = 0;
+        double best = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int df = corpus.documentFrequency(terms.get(i));
+            double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+            best += idf * (K1 + 1);
+            int tf = counts[i];
+            if (tf > 0) score += idf * tf * (K1 + 1) / (tf + K1 * norm);
+        }
+        return best == 0 ? 0.0 : score / best * 100.0;
+    }
+}
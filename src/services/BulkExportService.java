@@ -0,0 +1,291 @@
+package services;
+
+import dao.ResumeDAO;
+import models.Resume;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.*;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exports many resumes at once into a single ZIP, as PDF or DOCX.
+ *
+ * Conversions run on a pool of workers while the calling thread writes the archive, so
+ * one slow document does not hold up the rest. Entries are still written in the order
+ * the resumes were given: a finished conversion waits until everything before it is in
+ * the archive. At most WINDOW_PER_WORKER conversions per worker are held in memory at
+ * a time, and resumes that are already in the target format are copied into the archive
+ * straight from their file. The archive is written to a .part file next to the target
+ * and only moved into place once it is complete, so it is never held in memory and a
+ * failed or cancelled export leaves nothing half-written behind.
+ */
+public class BulkExportService {
+
+    private static final int WINDOW_PER_WORKER = 2;
+
+    public enum Format {
+        PDF("pdf"), DOCX("docx");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+    }
+
+    // ---------------------------------------------------------
+    // Progress / Result
+    // ---------------------------------------------------------
+    public static class Progress {
+        private final int total;
+        private final int converted;
+        private final int written;
+        private final int failed;
+        private final String currentFile;
+
+        Progress(int total, int converted, int written, int failed, String currentFile) {
+            this.total = total;
+            this.converted = converted;
+            this.written = written;
+            this.failed = failed;
+            this.currentFile = currentFile;
+        }
+
+        public int getTotal() { return total; }
+        public int getConverted() { return converted; }
+        public int getWritten() { return written; }
+        public int getFailed() { return failed; }
+        public String getCurrentFile() { return currentFile; }
+
+        // Share of resumes that are finished (in the archive or failed)
+        public int getPercent() {
+            if (total <= 0) return 100;
+            return (int) ((written + failed) * 100L / total);
+        }
+    }
+
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    public static class Result {
+        private final File archive;
+        private final int written;
+        private final List<String> failures;
+
+        Result(File archive, int written, List<String> failures) {
+            this.archive = archive;
+            this.written = written;
+            this.failures = failures;
+        }
+
+        public File getArchive() { return archive; }
+        public int getWritten() { return written; }
+        public List<String> getFailures() { return failures; }
+    }
+
+    // One resume on its way into the archive: either converted bytes or the original file
+    private static class Converted {
+        final byte[] data;
+        final Path original;
+        final String error;
+
+        Converted(byte[] data, Path original, String error) {
+            this.data = data;
+            this.original = original;
+            this.error = error;
+        }
+    }
+
+    private final ResumeDAO resumeDAO;
+    private final ExportService exportService;
+    private final int workers;
+
+    public BulkExportService(ResumeDAO resumeDAO, ExportService exportService) {
+        this(resumeDAO, exportService, Math.max(1, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public BulkExportService(ResumeDAO resumeDAO, ExportService exportService, int workers) {
+        this.resumeDAO = resumeDAO;
+        this.exportService = exportService;
+        this.workers = workers;
+    }
+
+    /**
+     * Exports every resume the user has, newest first
+     */
+    public Result exportLibrary(String userId, Format format, File archive, ProgressListener listener)
+            throws IOException, SQLException, InterruptedException {
+        return exportAll(resumeDAO.getResumesByUserOrderByDate(userId), format, archive, listener);
+    }
+
+    /**
+     * Runs the export and blocks until the archive is complete. Call from a background
+     * thread; interrupting that thread cancels the export. An existing archive is replaced.
+     * Resumes that cannot be converted are left out and listed in the result.
+     */
+    public Result exportAll(List<Resume> resumes, Format format, File archive, ProgressListener listener)
+            throws IOException, InterruptedException {
+        if (resumes == null || resumes.isEmpty()) {
+            throw new IllegalArgumentException("No resumes to export");
+        }
+        Path target = archive.toPath().toAbsolutePath();
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        return new Run(resumes, format, target, listener).execute();
+    }
+
+    // State for one export run
+    private class Run {
+        private final List<Resume> resumes;
+        private final Format format;
+        private final Path target;
+        private final Path partial;
+        private final ProgressListener listener;
+
+        private final List<String> failures = new ArrayList<>();
+        private final AtomicInteger converted = new AtomicInteger();
+        private int written;
+
+        Run(List<Resume> resumes, Format format, Path target, ProgressListener listener) {
+            this.resumes = resumes;
+            this.format = format;
+            this.target = target;
+            this.partial = target.resolveSibling(target.getFileName() + ".part");
+            this.listener = listener;
+        }
+
+        Result execute() throws IOException, InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "bulk-export");
+                t.setDaemon(true);
+                return t;
+            });
+            boolean complete = false;
+            try {
+                try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(partial.toFile())) {
+                    writeEntries(zip, executor);
+                }
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+                complete = true;
+            } catch (ClosedByInterruptException e) {
+                // Interrupted while writing to the archive file rather than while waiting
+                InterruptedException cancelled = new InterruptedException("Export cancelled");
+                cancelled.initCause(e);
+                throw cancelled;
+            } finally {
+                executor.shutdownNow();
+                if (!complete) {
+                    try {
+                        Files.deleteIfExists(partial);
+                    } catch (IOException ignored) {}
+                }
+            }
+            return new Result(target.toFile(), written, new ArrayList<>(failures));
+        }
+
+        // Keeps up to a window of conversions running and writes them out in order
+        private void writeEntries(ZipArchiveOutputStream zip, ExecutorService executor)
+                throws IOException, InterruptedException {
+            Set<String> usedNames = new HashSet<>();
+            Deque<Future<Converted>> pending = new ArrayDeque<>();
+            int window = workers * WINDOW_PER_WORKER;
+            int next = 0;
+
+            for (int i = 0; i < resumes.size(); i++) {
+                while (next < resumes.size() && pending.size() < window) {
+                    Resume resume = resumes.get(next++);
+                    pending.add(executor.submit(() -> convert(resume)));
+                }
+
+                Resume resume = resumes.get(i);
+                Converted result;
+                try {
+                    result = pending.remove().get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    result = new Converted(null, null, String.valueOf(cause.getMessage()));
+                }
+
+                if (result.error != null) {
+                    synchronized (this) { failures.add(displayName(resume) + ": " + result.error); }
+                } else {
+                    ZipArchiveEntry entry = new ZipArchiveEntry(entryName(resume, usedNames));
+                    zip.putArchiveEntry(entry);
+                    if (result.original != null) {
+                        Files.copy(result.original, zip);
+                    } else {
+                        zip.write(result.data);
+                    }
+                    zip.closeArchiveEntry();
+                    synchronized (this) { written++; }
+                }
+                report(displayName(resume));
+            }
+        }
+
+        // Runs on a worker; failures are returned, not thrown, so one bad file only skips itself
+        private Converted convert(Resume resume) {
+            try {
+                String filePath = resume.getFilePath();
+                if (filePath == null || !new File(filePath).isFile()) {
+                    return new Converted(null, null, "file not found");
+                }
+                if (exportService.exportsAsCopy(resume, format.getExtension())) {
+                    return new Converted(null, Paths.get(filePath), null);
+                }
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                if (format == Format.PDF) {
+                    exportService.convertToPDF(resume, out);
+                } else {
+                    exportService.convertToDOCX(resume, out);
+                }
+                return new Converted(out.toByteArray(), null, null);
+            } catch (IOException | RuntimeException e) {
+                return new Converted(null, null, "could not convert (" + e.getMessage() + ")");
+            } finally {
+                converted.incrementAndGet();
+                report(displayName(resume));
+            }
+        }
+
+        // getSuggestedFileName, with " (2)", " (3)", ... added when two resumes share a name
+        private String entryName(Resume resume, Set<String> usedNames) {
+            String name = exportService.getSuggestedFileName(resume, format.getExtension())
+                    .replace('/', '_').replace('\\', '_');
+            int lastDot = name.lastIndexOf('.');
+            String base = name.substring(0, lastDot);
+            String extension = name.substring(lastDot);
+            for (int n = 2; !usedNames.add(name.toLowerCase()); n++) {
+                name = base + " (" + n + ")" + extension;
+            }
+            return name;
+        }
+
+        private String displayName(Resume resume) {
+            return resume.getFileName() != null ? resume.getFileName() : "resume " + resume.getId();
+        }
+
+        // Called from the workers and the writing thread
+        private void report(String current) {
+            if (listener == null) return;
+            Progress p;
+            synchronized (this) {
+                p = new Progress(resumes.size(), converted.get(), written, failures.size(), current);
+            }
+            listener.onProgress(p);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package services;
+
+import dao.ResumeDAO;
+import models.Resume;
+import utils.FileHashUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Imports a whole folder of resumes for one user as a four-stage pipeline:
+ *
+ *   discovery -> store in BlobStore -> text extraction -> batched insert through ResumeDAO
+ *
+ * Stages are joined by bounded queues, so a slow stage makes the ones before it wait
+ * instead of piling files up in memory. Copy and extraction run on several workers each.
+ * Finished files are appended to a checkpoint file after every batch, so re-running the
+ * import after a crash skips them instead of copying and parsing them again.
+ */
+public class BulkImportService {
+
+    private static final Set<String> EXTENSIONS = Set.of("pdf", "docx", "doc");
+    private static final long MAX_FILE_BYTES = 50L * 1024 * 1024;
+    private static final Path UPLOADS_DIR = Paths.get("uploads");
+    private static final Path CHECKPOINT_DIR = UPLOADS_DIR.resolve(".import");
+    private static final long MAX_BATCH_WAIT_MS = 2000;    // longest a parsed file waits for its batch
+
+    // ---------------------------------------------------------
+    // Progress / Result
+    // ---------------------------------------------------------
+    public static class Progress {
+        private final int discovered;
+        private final int skipped;
+        private final int copied;
+        private final int extracted;
+        private final int saved;
+        private final int failed;
+        private final boolean discoveryDone;
+        private final String currentFile;
+
+        Progress(int discovered, int skipped, int copied, int extracted, int saved, int failed,
+                 boolean discoveryDone, String currentFile) {
+            this.discovered = discovered;
+            this.skipped = skipped;
+            this.copied = copied;
+            this.extracted = extracted;
+            this.saved = saved;
+            this.failed = failed;
+            this.discoveryDone = discoveryDone;
+            this.currentFile = currentFile;
+        }
+
+        public int getDiscovered() { return discovered; }
+        public int getSkipped() { return skipped; }
+        public int getCopied() { return copied; }
+        public int getExtracted() { return extracted; }
+        public int getSaved() { return saved; }
+        public int getFailed() { return failed; }
+        public boolean isDiscoveryDone() { return discoveryDone; }
+        public String getCurrentFile() { return currentFile; }
+
+        // Share of discovered files that are finished (saved or failed); 0 until discovery ends
+        public int getPercent() {
+            int total = discovered - skipped;
+            if (!discoveryDone || total <= 0) return discoveryDone ? 100 : 0;
+            return (int) ((saved + failed) * 100L / total);
+        }
+    }
+
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    public static class Result {
+        private final int saved;
+        private final int skipped;
+        private final List<String> failures;
+
+        Result(int saved, int skipped, List<String> failures) {
+            this.saved = saved;
+            this.skipped = skipped;
+            this.failures = failures;
+        }
+
+        public int getSaved() { return saved; }
+        public int getSkipped() { return skipped; }
+        public List<String> getFailures() { return failures; }
+    }
+
+    // One file moving through the pipeline
+    private static class ImportItem {
+        final Path source;
+        final String key;     // checkpoint key
+        BlobStore.Blob stored;
+
+        ImportItem(Path source, String key) {
+            this.source = source;
+            this.key = key;
+        }
+    }
+
+    private static final ImportItem END = new ImportItem(null, null);
+
+    private final ResumeDAO resumeDAO;
+    private final ResumeParserService parser;
+    private final BlobStore blobStore;
+    private final int copyWorkers;
+    private final int extractWorkers;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public BulkImportService(ResumeDAO resumeDAO, ResumeParserService parser) {
+        this(resumeDAO, parser, 2, Math.max(1, Runtime.getRuntime().availableProcessors()), 50, 64);
+    }
+
+    public BulkImportService(ResumeDAO resumeDAO, ResumeParserService parser,
+                             int copyWorkers, int extractWorkers, int batchSize, int queueCapacity) {
+        this.resumeDAO = resumeDAO;
+        this.parser = parser;
+        this.blobStore = BlobStore.getInstance();
+        this.copyWorkers = copyWorkers;
+        this.extractWorkers = extractWorkers;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Runs the import and blocks until it finishes. Call from a background thread;
+     * interrupting that thread cancels the import (finished batches stay checkpointed).
+     */
+    public Result importFolder(File folder, String userId, ProgressListener listener)
+            throws IOException, SQLException, InterruptedException {
+        if (folder == null || !folder.isDirectory()) {
+            throw new IllegalArgumentException("Not a folder: " + folder);
+        }
+        Files.createDirectories(UPLOADS_DIR);
+
+        return new Run(folder.toPath(), userId, listener).execute();
+    }
+
+    // State for one import run
+    private class Run {
+        private final Path folder;
+        private final String userId;
+        private final ProgressListener listener;
+        private final Checkpoint checkpoint;
+
+        private final BlockingQueue<ImportItem> toCopy = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<ImportItem> toExtract = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<ImportItem> toInsert = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final AtomicInteger copyRunning = new AtomicInteger(copyWorkers);
+        private final AtomicInteger extractRunning = new AtomicInteger(extractWorkers);
+        private final Set<BlobStore.Blob> unsaved = ConcurrentHashMap.newKeySet();  // stored but not yet inserted
+
+        private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        private int discovered, skipped, copied, extracted, saved;
+        private boolean discoveryDone;
+
+        private volatile Throwable fatal;
+        private volatile boolean stopped;   // set on abort or cancel; stages then exit without handing on END
+        private ExecutorService executor;
+
+        Run(Path folder, String userId, ProgressListener listener) throws IOException {
+            this.folder = folder;
+            this.userId = userId;
+            this.listener = listener;
+            this.checkpoint = Checkpoint.open(userId, folder);
+        }
+
+        Result execute() throws IOException, SQLException, InterruptedException {
+            executor = Executors.newFixedThreadPool(copyWorkers + extractWorkers + 2, r -> {
+                Thread t = new Thread(r, "bulk-import");
+                t.setDaemon(true);
+                return t;
+            });
+            List<Future<Void>> stages = new ArrayList<>();
+            try {
+                stages.add(executor.submit(this::discover));
+                for (int i = 0; i < copyWorkers; i++) stages.add(executor.submit(this::copyStage));
+                for (int i = 0; i < extractWorkers; i++) stages.add(executor.submit(this::extractStage));
+                stages.add(executor.submit(this::insertStage));
+                executor.shutdown();
+
+                while (!executor.awaitTermination(200, TimeUnit.MILLISECONDS)) {
+                    // keep waiting; interruption of this thread cancels the run
+                }
+            } catch (InterruptedException e) {
+                stopped = true;
+                executor.shutdownNow();
+                try {
+                    executor.awaitTermination(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {}
+                unsaved.forEach(blobStore::release);
+                throw e;
+            }
+
+            // A stage that died without going through abort() would otherwise pass unnoticed
+            for (Future<Void> stage : stages) {
+                try {
+                    stage.get();
+                } catch (ExecutionException e) {
+                    if (!stopped || !(e.getCause() instanceof InterruptedException)) abort(e.getCause());
+                }
+            }
+
+            // Stored files that never made it into the database would be orphans
+            if (stopped) {
+                unsaved.forEach(blobStore::release);
+            }
+
+            if (fatal instanceof SQLException sql) throw sql;
+            if (fatal instanceof IOException io) throw io;
+            if (fatal instanceof Error error) throw error;
+            if (fatal != null) throw new IOException("Import failed: " + fatal.getMessage(), fatal);
+
+            if (failures.isEmpty()) {
+                checkpoint.delete(); // clean finish, nothing left to resume
+            }
+            synchronized (this) {
+                return new Result(saved, skipped, new ArrayList<>(failures));
+            }
+        }
+
+        // Stage 1: walk the folder and queue every supported file not already checkpointed
+        private Void discover() throws InterruptedException {
+            try (Stream<Path> files = Files.walk(folder)) {
+                Iterator<Path> it = files.filter(Files::isRegularFile).iterator();
+                while (it.hasNext()) {
+                    Path path = it.next();
+                    if (!EXTENSIONS.contains(extension(path))) continue;
+
+                    long size = Files.size(path);
+                    String key = path.toAbsolutePath() + "|" + size + "|" + Files.getLastModifiedTime(path).toMillis();
+                    synchronized (this) { discovered++; }
+
+                    if (size > MAX_FILE_BYTES) {
+                        fail(path, "file too large");
+                    } else if (checkpoint.contains(key)) {
+                        synchronized (this) { skipped++; }
+                        report(path);
+                    } else {
+                        toCopy.put(new ImportItem(path, key));
+                    }
+                }
+            } catch (IOException | RuntimeException | Error e) {
+                // Files.walk reports unreadable directories as UncheckedIOException while iterating
+                abort(e);
+            } finally {
+                synchronized (this) { discoveryDone = true; }
+                report(null);
+                if (!stopped) {
+                    for (int i = 0; i < copyWorkers; i++) toCopy.put(END);
+                }
+            }
+            return null;
+        }
+
+        // Stage 2: store in the blob store; content stored before is not copied again
+        private Void copyStage() throws InterruptedException {
+            try {
+                ImportItem item;
+                while ((item = toCopy.take()) != END) {
+                    try {
+                        item.stored = blobStore.put(item.source, item.source.getFileName().toString());
+                        unsaved.add(item.stored);
+                        synchronized (this) { copied++; }
+                        report(item.source);
+                        toExtract.put(item);
+                    } catch (IOException e) {
+                        fail(item.source, e.getMessage());
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                abort(e);
+            } finally {
+                if (copyRunning.decrementAndGet() == 0 && !stopped) {
+                    for (int i = 0; i < extractWorkers; i++) toExtract.put(END);
+                }
+            }
+            return null;
+        }
+
+        // Stage 3: parse the stored copy (this also fills the parsed-resume cache)
+        private Void extractStage() throws InterruptedException {
+            try {
+                ImportItem item;
+                while ((item = toExtract.take()) != END) {
+                    try {
+                        parser.parseResumeForImport(item.stored.getPath().toFile());
+                        synchronized (this) { extracted++; }
+                        report(item.source);
+                        toInsert.put(item);
+                    } catch (IOException | RuntimeException e) {
+                        unsaved.remove(item.stored);
+                        blobStore.release(item.stored);
+                        fail(item.source, "could not read file (" + e.getMessage() + ")");
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                abort(e);
+            } finally {
+                if (extractRunning.decrementAndGet() == 0 && !stopped) {
+                    toInsert.put(END);
+                }
+            }
+            return null;
+        }
+
+        // Stage 4: insert in batches, checkpointing after each one
+        private Void insertStage() throws InterruptedException {
+            List<ImportItem> batch = new ArrayList<>(batchSize);
+            long batchStarted = 0;
+            boolean finished = false;
+            try {
+                while (!finished) {
+                    ImportItem item;
+                    if (batch.isEmpty()) {
+                        item = toInsert.take();
+                    } else {
+                        long waited = System.currentTimeMillis() - batchStarted;
+                        item = toInsert.poll(Math.max(0, MAX_BATCH_WAIT_MS - waited), TimeUnit.MILLISECONDS);
+                    }
+                    if (item == END) {
+                        finished = true;
+                    } else if (item != null) {
+                        if (batch.isEmpty()) batchStarted = System.currentTimeMillis();
+                        batch.add(item);
+                    }
+                    // flush when full, at the end, or once the oldest item has waited MAX_BATCH_WAIT_MS
+                    boolean expired = System.currentTimeMillis() - batchStarted >= MAX_BATCH_WAIT_MS;
+                    if (!batch.isEmpty() && (batch.size() >= batchSize || finished || expired)) {
+                        saveBatch(batch);
+                        batch.clear();
+                    }
+                }
+            } catch (SQLException | IOException | RuntimeException | Error e) {
+                abort(e);
+            }
+            return null;
+        }
+
+        private void saveBatch(List<ImportItem> batch) throws SQLException, IOException {
+            List<Resume> resumes = new ArrayList<>(batch.size());
+            List<String> keys = new ArrayList<>(batch.size());
+            for (ImportItem item : batch) {
+                resumes.add(new Resume(userId, item.source.getFileName().toString(), item.stored.getPath().toString()));
+                keys.add(item.key);
+            }
+            resumeDAO.saveAll(resumes);   // one transaction, so the batch lands whole or not at all
+            for (ImportItem item : batch) {
+                unsaved.remove(item.stored);
+                blobStore.release(item.stored);
+            }
+            checkpoint.markDone(keys);
+            synchronized (this) { saved += batch.size(); }
+            report(batch.get(batch.size() - 1).source);
+        }
+
+        private void fail(Path path, String reason) {
+            failures.add(path.getFileName() + ": " + reason);
+            report(path);
+        }
+
+        private void abort(Throwable e) {
+            if (fatal == null) fatal = e;
+            stopped = true;
+            executor.shutdownNow();
+        }
+
+        private void report(Path current) {
+            if (listener == null) return;
+            Progress p;
+            synchronized (this) {
+                p = new Progress(discovered, skipped, copied, extracted, saved, failures.size(),
+                        discoveryDone, current == null ? null : current.getFileName().toString());
+            }
+            listener.onProgress(p);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Checkpoint: one line per finished file, per (user, folder)
+    // ---------------------------------------------------------
+    private static class Checkpoint {
+        private final Path file;
+        private final Set<String> done;
+
+        private Checkpoint(Path file, Set<String> done) {
+            this.file = file;
+            this.done = done;
+        }
+
+        static Checkpoint open(String userId, Path folder) throws IOException {
+            Files.createDirectories(CHECKPOINT_DIR);
+            String folderHash = FileHashUtil.sha256(folder.toAbsolutePath().toString()).substring(0, 16);
+            Path file = CHECKPOINT_DIR.resolve(userId + "_" + folderHash + ".checkpoint");
+
+            Set<String> done = ConcurrentHashMap.newKeySet();
+            if (Files.exists(file)) {
+                done.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+            }
+            return new Checkpoint(file, done);
+        }
+
+        boolean contains(String key) {
+            return done.contains(key);
+        }
+
+        synchronized void markDone(List<String> keys) throws IOException {
+            Files.write(file, keys, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            done.addAll(keys);
+        }
+
+        void delete() {
+            deleteQuietly(file);
+        }
+    }
+
+    private static String extension(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        int lastDot = name.lastIndexOf('.');
+        return lastDot > 0 ? name.substring(lastDot + 1) : "";
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            if (path != null) Files.deleteIfExists(path);
+        } catch (IOException ignored) {}
+    }
+}
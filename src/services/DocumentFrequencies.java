@@ -0,0 +1,322 @@
+package services;
+
+import dao.ResumeDAO;
+import models.Resume;
+import services.ResumeParserService.ParsedResume;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Corpus-wide document frequencies for the TF-IDF and BM25 scorers: how many documents
+ * contain each word, how many documents there are and their average length in words.
+ * Words are the ones KeywordMatcher matches on (runs of [a-zA-Z0-9+], lowercased),
+ * so a job keyword looks up exactly the resumes it would match.
+ *
+ * The term dictionary is compact: every term's characters live in one shared char array,
+ * terms are found through an open-addressing table of ints, and frequencies are a plain
+ * int array, so there is no String or boxed Integer per term. Lookups don't allocate.
+ * Each document keeps only the ids of its distinct terms, which is what removing or
+ * replacing it needs. Terms whose frequency drops to zero stay in the dictionary.
+ *
+ * getInstance() covers the resumes table. It loads on first use and stays current through
+ * ResumeContentFeed, which parses each change once for every index; updates are applied
+ * on a background thread. new DocumentFrequencies()
+ * gives a standalone corpus filled with add().
+ */
+public class DocumentFrequencies {
+
+    // How long a score waits for the initial load before using whatever is counted so far
+    private static final long LOAD_WAIT_SECONDS = 5;
+
+    private static DocumentFrequencies instance;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Term dictionary: term t is chars[starts[t] .. starts[t] + lengths[t])
+    private char[] chars = new char[4096];
+    private int charCount;
+    private int[] starts = new int[256];
+    private int[] lengths = new int[256];
+    private int[] hashes = new int[256];
+    private int[] frequencies = new int[256];
+    private int[] stamps = new int[256];   // last add() that saw the term, for de-duplication
+    private int termCount;
+    private int[] slots = new int[512];    // term id + 1, 0 = empty; length is a power of two
+
+    private final Map<Integer, int[]> docTerms = new HashMap<>();
+    private final Map<Integer, Integer> docLengths = new HashMap<>();
+    private long totalLength;
+    private int stamp;
+
+    private char[] word = new char[64];    // scratch for add(), guarded by the write lock
+
+    // Only set on the shared instance
+    private ResumeParserService parser;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    public DocumentFrequencies() {
+        loaded.countDown();
+    }
+
+    public static synchronized DocumentFrequencies getInstance() {
+        if (instance == null) {
+            instance = new DocumentFrequencies(new ResumeParserService(), new ResumeDAO());
+        }
+        return instance;
+    }
+
+    // Listens before loading; an event the load already covered just replaces the same document
+    private DocumentFrequencies(ResumeParserService parser, ResumeDAO resumeDAO) {
+        this.parser = parser;
+        ExecutorService updates = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "document-frequencies");
+            t.setDaemon(true);
+            return t;
+        });
+
+        ResumeContentFeed.getInstance().subscribe(new ResumeContentFeed.Subscriber() {
+            @Override
+            public void resumeParsed(Resume resume, ParsedResume parsed) {
+                int id = resume.getId();
+                updates.submit(() -> add(id, parsed.getFullText()));
+            }
+
+            @Override
+            public void resumeDeleted(int resumeId, String userId) {
+                updates.submit(() -> remove(resumeId));
+            }
+        });
+
+        updates.submit(() -> {
+            try {
+                for (Resume resume : resumeDAO.getAllResumes()) {
+                    addFile(resume.getId(), resume.getFilePath());
+                }
+            } catch (Exception e) {
+                System.err.println("Document frequencies: initial load failed: " + e.getMessage());
+            } finally {
+                loaded.countDown();
+            }
+        });
+    }
+
+    private void addFile(int docId, String path) {
+        try {
+            add(docId, parser.readFullText(new File(path)));
+        } catch (Exception e) {
+            System.err.println("Document frequencies: skipping unreadable resume " + path + ": " + e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Updates
+    // ---------------------------------------------------------
+
+    /**
+     * Counts a document, replacing whatever was counted for the same id before
+     */
+    public void add(int docId, CharSequence text) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            stamp++;
+
+            int[] ids = new int[32];
+            int distinct = 0;
+            int length = 0;
+            int n = text == null ? 0 : text.length();
+            int i = 0;
+            while (i < n) {
+                while (i < n && !KeywordMatcher.isWordChar(text.charAt(i))) i++;
+                int wordLength = 0;
+                int hash = 0;
+                while (i < n && KeywordMatcher.isWordChar(text.charAt(i))) {
+                    char c = lower(text.charAt(i++));
+                    if (wordLength == word.length) word = Arrays.copyOf(word, wordLength * 2);
+                    word[wordLength++] = c;
+                    hash = 31 * hash + c;
+                }
+                if (wordLength == 0) break;
+                length++;
+
+                int id = findOrInsert(word, wordLength, hash);
+                if (stamps[id] != stamp) {
+                    stamps[id] = stamp;
+                    frequencies[id]++;
+                    if (distinct == ids.length) ids = Arrays.copyOf(ids, distinct * 2);
+                    ids[distinct++] = id;
+                }
+            }
+
+            docTerms.put(docId, Arrays.copyOf(ids, distinct));
+            docLengths.put(docId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int docId) {
+        int[] ids = docTerms.remove(docId);
+        if (ids == null) return;
+        for (int id : ids) frequencies[id]--;
+        totalLength -= docLengths.remove(docId);
+    }
+
+    // ---------------------------------------------------------
+    // Reading
+    // ---------------------------------------------------------
+
+    /**
+     * Number of documents containing the word (case-insensitive), 0 for an unknown word
+     */
+    public int documentFrequency(CharSequence term) {
+        awaitLoaded();
+        int hash = 0;
+        for (int i = 0; i < term.length(); i++) hash = 31 * hash + lower(term.charAt(i));
+
+        lock.readLock().lock();
+        try {
+            int id = find(term, hash);
+            return id < 0 ? 0 : frequencies[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        awaitLoaded();
+        lock.readLock().lock();
+        try {
+            return docTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average document length in words, 0 when the corpus is empty
+     */
+    public double averageLength() {
+        awaitLoaded();
+        lock.readLock().lock();
+        try {
+            return docTerms.isEmpty() ? 0 : totalLength / (double) docTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distinct words ever seen, including ones no current document contains any more
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return termCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Dictionary
+    // ---------------------------------------------------------
+    private int find(CharSequence term, int hash) {
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) return -1;
+            if (hashes[id] == hash && lengths[id] == term.length() && sameChars(id, term)) return id;
+        }
+    }
+
+    private boolean sameChars(int id, CharSequence term) {
+        int start = starts[id];
+        for (int i = 0; i < lengths[id]; i++) {
+            if (chars[start + i] != lower(term.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private int findOrInsert(char[] w, int length, int hash) {
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && lengths[id] == length
+                    && Arrays.equals(chars, starts[id], starts[id] + length, w, 0, length)) {
+                return id;
+            }
+        }
+
+        int id = termCount++;
+        if (id == starts.length) {
+            int grown = id * 2;
+            starts = Arrays.copyOf(starts, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+            hashes = Arrays.copyOf(hashes, grown);
+            frequencies = Arrays.copyOf(frequencies, grown);
+            stamps = Arrays.copyOf(stamps, grown);
+        }
+        if (charCount + length > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + length));
+        }
+        System.arraycopy(w, 0, chars, charCount, length);
+        starts[id] = charCount;
+        lengths[id] = length;
+        hashes[id] = hash;
+        charCount += length;
+        slots[slot] = id + 1;
+
+        // Keep the table at most half full
+        if (termCount * 2 > slots.length) rehash();
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < termCount; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+            slots[slot] = id + 1;
+        }
+    }
+
+    // Spreads String-style hashes, whose low bits cluster for short words
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16) ^ (hash >>> 7);
+    }
+
+    // Same folding as KeywordMatcher
+    private static char lower(char c) {
+        if (c < 128) return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        return Character.toLowerCase(c);
+    }
+
+    private void awaitLoaded() {
+        try {
+            loaded.await(LOAD_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,10 +2,7 @@
 package services;
 
 import models.Resume;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import utils.FileCopier;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
@@ -13,6 +10,7 @@ import org.apache.poi.xwpf.usermodel.XWPFRun;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -28,10 +26,21 @@ public class ExportService {
      * @return true if export successful, false otherwise
      */
     public boolean exportToPDF(Resume resume, String outputPath) {
+        return exportToPDF(resume, outputPath, false);
+    }
+
+    /**
+     * Exports a resume to PDF format
+     * @param resume The resume to export
+     * @param outputPath The path where the PDF should be saved
+     * @param overwrite Whether an existing file at outputPath may be replaced
+     * @return true if export successful, false otherwise
+     */
+    public boolean exportToPDF(Resume resume, String outputPath, boolean overwrite) {
         try {
             // Check if file already exists and prompt for overwrite
             File outputFile = new File(outputPath);
-            if (outputFile.exists()) {
+            if (outputFile.exists() && !overwrite) {
                 System.err.println("File already exists: " + outputPath);
                 return false; // Let controller handle the confirmation
             }
@@ -42,65 +51,14 @@ public class ExportService {
 
             if (sourceName.endsWith(".pdf")) {
                 // Direct copy for PDF files - preserves exact formatting
-                Files.copy(sourceFile.toPath(), Paths.get(outputPath),
-                        java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                System.out.println("✓ PDF exported successfully (copied): " + outputPath);
+                FileCopier.Outcome outcome = copyOriginal(sourceFile, outputPath);
+                System.out.println("✓ PDF exported successfully (" + describe(outcome) + "): " + outputPath);
                 return true;
             }
 
             // For DOCX/DOC files, create a new PDF with extracted text
             String content = readFileContent(resume.getFilePath());
-
-            PDDocument document = new PDDocument();
-            PDPage page = new PDPage();
-            document.addPage(page);
-
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-
-            // Set up font and starting position
-            contentStream.setFont(PDType1Font.HELVETICA, 12);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, 750);
-
-            // Split content into lines and write to PDF
-            if (content != null && !content.isEmpty()) {
-                // Remove carriage returns and other control characters
-                content = content.replace("\r", "").replace("\t", "    ");
-                
-                // Sanitize content - replace special Unicode characters not supported by Helvetica
-                content = sanitizeForPdf(content);
-
-                String[] lines = content.split("\n");
-                for (String line : lines) {
-                    // Skip empty lines
-                    if (line.trim().isEmpty()) {
-                        contentStream.newLineAtOffset(0, -15);
-                        continue;
-                    }
-
-                    // Remove any remaining control characters
-                    line = line.replaceAll("[\\p{Cntrl}&&[^\n]]", "");
-
-                    // Handle long lines by wrapping
-                    if (line.length() > 80) {
-                        String[] wrappedLines = wrapText(line, 80);
-                        for (String wrappedLine : wrappedLines) {
-                            contentStream.showText(wrappedLine);
-                            contentStream.newLineAtOffset(0, -15);
-                        }
-                    } else {
-                        contentStream.showText(line);
-                        contentStream.newLineAtOffset(0, -15);
-                    }
-                }
-            }
-
-            contentStream.endText();
-            contentStream.close();
-
-            // Save the document
-            document.save(outputPath);
-            document.close();
+            PdfTextRenderer.EXPORT.render(content, Paths.get(outputPath));
 
             System.out.println("✓ PDF exported successfully: " + outputPath);
             return true;
@@ -119,10 +77,21 @@ public class ExportService {
      * @return true if export successful, false otherwise
      */
     public boolean exportToDOCX(Resume resume, String outputPath) {
+        return exportToDOCX(resume, outputPath, false);
+    }
+
+    /**
+     * Exports a resume to DOCX format
+     * @param resume The resume to export
+     * @param outputPath The path where the DOCX should be saved
+     * @param overwrite Whether an existing file at outputPath may be replaced
+     * @return true if export successful, false otherwise
+     */
+    public boolean exportToDOCX(Resume resume, String outputPath, boolean overwrite) {
         try {
             // Check if file already exists
             File outputFile = new File(outputPath);
-            if (outputFile.exists()) {
+            if (outputFile.exists() && !overwrite) {
                 System.err.println("File already exists: " + outputPath);
                 return false; // Let controller handle the confirmation
             }
@@ -133,32 +102,15 @@ public class ExportService {
 
             if (sourceName.endsWith(".docx") || sourceName.endsWith(".doc")) {
                 // Direct copy for DOCX/DOC files - preserves exact formatting
-                Files.copy(sourceFile.toPath(), Paths.get(outputPath),
-                        java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                System.out.println("✓ DOCX exported successfully (copied): " + outputPath);
+                FileCopier.Outcome outcome = copyOriginal(sourceFile, outputPath);
+                System.out.println("✓ DOCX exported successfully (" + describe(outcome) + "): " + outputPath);
                 return true;
             }
 
             // For PDF files, create a new DOCX with extracted text
-            String content = readFileContent(resume.getFilePath());
-
-            // Remove control characters
-            content = content.replace("\r", "");
-
-            XWPFDocument document = new XWPFDocument();
+            XWPFDocument document = createDocx(readFileContent(resume.getFilePath()));
             FileOutputStream out = new FileOutputStream(outputPath);
 
-            // Add content directly (no title)
-            if (content != null && !content.isEmpty()) {
-                String[] lines = content.split("\n");
-                for (String line : lines) {
-                    XWPFParagraph paragraph = document.createParagraph();
-                    XWPFRun run = paragraph.createRun();
-                    run.setText(line);
-                    run.setFontSize(11);
-                }
-            }
-
             // Write to file
             document.write(out);
             out.close();
@@ -178,6 +130,85 @@ public class ExportService {
         }
     }
 
+    /*
+         Copies an original file to the export path through FileCopier: skipped when the
+         target already holds the same bytes, otherwise linked (EXPORT_HARD_LINKS) or
+         transferred by the OS without passing through the heap.
+    */
+    private FileCopier.Outcome copyOriginal(File sourceFile, String outputPath) throws IOException {
+        return FileCopier.copy(sourceFile.toPath(), Paths.get(outputPath), utils.Constants.Export.HARD_LINKS);
+    }
+
+    private String describe(FileCopier.Outcome outcome) {
+        return switch (outcome) {
+            case UNCHANGED -> "already up to date";
+            case LINKED -> "linked";
+            case COPIED -> "copied";
+        };
+    }
+
+    // One paragraph per line of the content, no title
+    private XWPFDocument createDocx(String content) {
+        // Remove control characters
+        content = content.replace("\r", "");
+
+        XWPFDocument document = new XWPFDocument();
+        if (!content.isEmpty()) {
+            String[] lines = content.split("\n");
+            for (String line : lines) {
+                XWPFParagraph paragraph = document.createParagraph();
+                XWPFRun run = paragraph.createRun();
+                run.setText(line);
+                run.setFontSize(11);
+            }
+        }
+        return document;
+    }
+
+    // ---------------------------------------------------------
+    // Stream exports (used by BulkExportService)
+    // ---------------------------------------------------------
+
+    /**
+     * Whether exporting the resume as format ("pdf" or "docx") is a copy of its original
+     * file, as exportToPDF and exportToDOCX do for resumes already in that format
+     */
+    public boolean exportsAsCopy(Resume resume, String format) {
+        String sourceName = new File(resume.getFilePath()).getName().toLowerCase();
+        if ("pdf".equals(format)) {
+            return sourceName.endsWith(".pdf");
+        }
+        return sourceName.endsWith(".docx") || sourceName.endsWith(".doc");
+    }
+
+    /**
+     * Writes a PDF created from the resume's text to the stream, which is left open
+     */
+    public void convertToPDF(Resume resume, OutputStream out) throws IOException {
+        PdfTextRenderer.EXPORT.render(readFileContent(resume.getFilePath()), out);
+    }
+
+    /**
+     * Writes a DOCX created from the resume's text to the stream, which is left open.
+     * Falls back to plain text like exportToDOCX when the DOCX libraries are missing.
+     */
+    public void convertToDOCX(Resume resume, OutputStream out) throws IOException {
+        String content = readFileContent(resume.getFilePath());
+        XWPFDocument document;
+        try {
+            document = createDocx(content);
+        } catch (NoClassDefFoundError e) {
+            System.err.println("Missing Log4j dependency for DOCX creation. Falling back to simple text export.");
+            out.write(content.replace("\r", "").getBytes());
+            return;
+        }
+        try {
+            document.write(out);
+        } finally {
+            document.close();
+        }
+    }
+
     /**
      * Fallback method to export as plain text when DOCX libraries fail
      */
@@ -236,118 +267,16 @@ public class ExportService {
             throw new IOException("File not found: " + filePath);
         }
 
-        // Use ResumeParserService to extract text from PDF/DOCX
+        // Use ResumeParserService to extract text from PDF/DOCX (cached by content hash)
         ResumeParserService parser = new ResumeParserService();
         try {
-            return parser.extractText(file);
+            return parser.readRawText(file);
         } catch (Exception e) {
             // Fallback: try to read as plain text
             return new String(Files.readAllBytes(Paths.get(filePath)));
         }
     }
 
-    /**
-     * Sanitizes text content for PDF export by replacing/removing characters
-     * not supported by the Helvetica font
-     */
-    private String sanitizeForPdf(String content) {
-        if (content == null) return "";
-        
-        // Replace box-drawing characters
-        content = content.replace("\u2550", "=");  // ═ double horizontal
-        content = content.replace("\u2551", "|");  // ║ double vertical
-        content = content.replace("\u2554", "+");  // ╔ double down and right
-        content = content.replace("\u2557", "+");  // ╗ double down and left
-        content = content.replace("\u255A", "+");  // ╚ double up and right
-        content = content.replace("\u255D", "+");  // ╝ double up and left
-        content = content.replace("\u2560", "+");  // ╠ double vertical and right
-        content = content.replace("\u2563", "+");  // ╣ double vertical and left
-        content = content.replace("\u2566", "+");  // ╦ double down and horizontal
-        content = content.replace("\u2569", "+");  // ╩ double up and horizontal
-        content = content.replace("\u256C", "+");  // ╬ double vertical and horizontal
-        content = content.replace("\u2500", "-");  // ─ light horizontal
-        content = content.replace("\u2502", "|");  // │ light vertical
-        
-        // Replace bullet points and squares
-        content = content.replace("\u25A0", "*");  // ■ black square
-        content = content.replace("\u25AA", "*");  // ▪ small black square
-        content = content.replace("\u25CF", "*");  // ● black circle
-        content = content.replace("\u2022", "*");  // • bullet
-        content = content.replace("\u25E6", "o");  // ◦ white bullet
-        content = content.replace("\u25B8", ">");  // ▸ right arrow
-        content = content.replace("\u25BA", ">");  // ► right pointer
-        content = content.replace("\u25C6", "*");  // ◆ black diamond
-        content = content.replace("\u2756", "*");  // ❖ diamond minus
-        
-        // Replace arrows
-        content = content.replace("\u2192", "->");  // → right arrow
-        content = content.replace("\u2190", "<-");  // ← left arrow
-        content = content.replace("\u2191", "^");   // ↑ up arrow
-        content = content.replace("\u2193", "v");   // ↓ down arrow
-        
-        // Replace dashes and quotes
-        content = content.replace("\u2013", "-");   // – en dash
-        content = content.replace("\u2014", "--");  // — em dash
-        content = content.replace("\u2018", "'");   // ' left single quote
-        content = content.replace("\u2019", "'");   // ' right single quote
-        content = content.replace("\u201C", "\"");  // " left double quote
-        content = content.replace("\u201D", "\"");  // " right double quote
-        content = content.replace("\u2026", "..."); // … ellipsis
-        
-        // Replace other common symbols
-        content = content.replace("\u00A9", "(c)");  // © copyright
-        content = content.replace("\u00AE", "(R)");  // ® registered
-        content = content.replace("\u2122", "(TM)"); // ™ trademark
-        content = content.replace("\u00B0", " deg"); // ° degree
-        content = content.replace("\u00B7", "*");    // · middle dot
-        content = content.replace("\u2023", ">");    // ‣ triangular bullet
-        content = content.replace("\u2043", "-");    // ⁃ hyphen bullet
-        
-        // Replace checkmarks and crosses
-        content = content.replace("\u2713", "[x]");  // ✓ check mark
-        content = content.replace("\u2714", "[x]");  // ✔ heavy check mark
-        content = content.replace("\u2715", "[X]");  // ✕ multiplication x
-        content = content.replace("\u2717", "[X]");  // ✗ ballot x
-        content = content.replace("\u2718", "[X]");  // ✘ heavy ballot x
-        
-        // Replace stars
-        content = content.replace("\u2605", "*");    // ★ black star
-        content = content.replace("\u2606", "*");    // ☆ white star
-        
-        // Remove any remaining non-ASCII characters that Helvetica can't handle
-        content = content.replaceAll("[^\\x00-\\x7F]", "");
-        
-        return content;
-    }
-
-    /**
-     * Helper method to wrap text at a specified width
-     */
-    private String[] wrapText(String text, int width) {
-        if (text.length() <= width) {
-            return new String[]{text};
-        }
-
-        java.util.List<String> lines = new java.util.ArrayList<>();
-        int start = 0;
-        while (start < text.length()) {
-            int end = Math.min(start + width, text.length());
-
-            // Try to break at a space if possible
-            if (end < text.length()) {
-                int lastSpace = text.lastIndexOf(' ', end);
-                if (lastSpace > start) {
-                    end = lastSpace;
-                }
-            }
-
-            lines.add(text.substring(start, end).trim());
-            start = end + 1;
-        }
-
-        return lines.toArray(new String[0]);
-    }
-
     /**
      * Gets a suggested filename for export
      */
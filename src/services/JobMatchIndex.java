@@ -0,0 +1,343 @@
+package services;
+
+import dao.JobDescriptionDAO;
+import models.JobDescription;
+import services.ResumeParserService.ParsedResume;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse matching: ranks stored job descriptions for one resume ("which openings fit me best").
+ *
+ * Each job description is a sparse vector over its scoring keywords (computed once, when it is
+ * saved) with weight 1/n for each of its n keywords. A resume is the set of words it contains,
+ * so the dot product is the fraction of the JD's keywords the resume has: the keyword coverage
+ * score ResumeAnalyzeService reports by default, here scaled to 0-100 as well.
+ *
+ * Vectors are kept as an inverted index (keyword -> JDs and weights). A query looks up each
+ * distinct word of the resume once, adds the weights into a per-JD accumulator, and keeps the
+ * top K in a bounded heap, so the cost depends on how many JDs share words with the resume,
+ * not on the size of the corpus.
+ *
+ * getInstance() is the index over the job_descriptions table, loaded on a background thread
+ * the first time it is used; save(), remember() and delete() keep the table and the index in
+ * step. AnalysisService remembers the job description of every saved analysis and ranks the
+ * user's other saved ones against the resume.
+ * new JobMatchIndex() gives a standalone index filled with add().
+ */
+public class JobMatchIndex {
+
+    private static JobMatchIndex instance;
+
+    // ---------------------------------------------------------
+    // Job Match Object
+    // ---------------------------------------------------------
+    public static class Match {
+        private final JobDescription jobDescription;
+        private final double score;                   // 0-100, percent of the JD's keywords found
+        private final List<String> matchedKeywords;   // in the JD's keyword order
+
+        Match(JobDescription jobDescription, double score, List<String> matchedKeywords) {
+            this.jobDescription = jobDescription;
+            this.score = score;
+            this.matchedKeywords = matchedKeywords;
+        }
+
+        public JobDescription getJobDescription() { return jobDescription; }
+        public double getScore() { return score; }
+        public List<String> getMatchedKeywords() { return matchedKeywords; }
+    }
+
+    // Internal JD numbers only ever grow, so appending keeps every postings list sorted
+    private static final class Postings {
+        int[] docs = new int[4];
+        double[] weights = new double[4];
+        int size;
+
+        void append(int doc, double weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i < 0) return;
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+            size--;
+        }
+    }
+
+    private static final class Doc {
+        final JobDescription jd;
+        final String[] keywords;   // distinct, in the JD's keyword order
+        final int[] termIds;       // aligned with keywords
+
+        Doc(JobDescription jd, String[] keywords, int[] termIds) {
+            this.jd = jd;
+            this.keywords = keywords;
+            this.termIds = termIds;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final Map<Integer, Integer> docById = new HashMap<>();
+    private Doc[] docs = new Doc[64];
+    private int nextDoc;
+    private int liveDocs;
+
+    private final ResumeAnalyzeService analyzer;
+
+    // Only set on the shared instance
+    private JobDescriptionDAO dao;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    public JobMatchIndex() {
+        this.analyzer = new ResumeAnalyzeService();
+        loaded.countDown();
+    }
+
+    public static synchronized JobMatchIndex getInstance() {
+        if (instance == null) {
+            instance = new JobMatchIndex(new JobDescriptionDAO());
+        }
+        return instance;
+    }
+
+    private JobMatchIndex(JobDescriptionDAO dao) {
+        this.analyzer = new ResumeAnalyzeService();
+        this.dao = dao;
+
+        ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "job-match-index");
+            t.setDaemon(true);
+            return t;
+        });
+        loader.submit(() -> {
+            try {
+                for (JobDescription jd : dao.getAllJobDescriptions()) {
+                    add(jd);
+                }
+            } catch (Exception e) {
+                System.err.println("Job match index: initial load failed: " + e.getMessage());
+            } finally {
+                loaded.countDown();
+            }
+        });
+        loader.shutdown();
+    }
+
+    // ---------------------------------------------------------
+    // Updates
+    // ---------------------------------------------------------
+
+    /**
+     * Computes the JD's scoring keywords, stores it (on the shared instance) and indexes it.
+     * The keywords are set on the model and returned with every match.
+     */
+    public void save(JobDescription jd) throws SQLException {
+        jd.setKeywords(analyzer.scoringKeywords(jd.getDescription()));
+        if (dao != null) {
+            awaitLoaded();
+            dao.saveJobDescription(jd);
+        }
+        add(jd);
+    }
+
+    /**
+     * Like save, unless the user already has a job description with the same text: that one
+     * is returned instead, so analyzing several resumes against one posting stores it once.
+     */
+    public synchronized JobDescription remember(JobDescription jd) throws SQLException {
+        awaitLoaded();
+        String text = jd.getDescription() == null ? "" : jd.getDescription().trim();
+        lock.readLock().lock();
+        try {
+            for (int doc = 0; doc < nextDoc; doc++) {
+                Doc d = docs[doc];
+                if (d != null && Objects.equals(d.jd.getUserId(), jd.getUserId())
+                        && text.equals(d.jd.getDescription() == null ? "" : d.jd.getDescription().trim())) {
+                    return d.jd;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        save(jd);
+        return jd;
+    }
+
+    public boolean delete(int id, String userId) throws SQLException {
+        if (dao != null) {
+            awaitLoaded();
+            if (!dao.deleteJobDescription(id, userId)) return false;
+        }
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a job description by its keywords (computed now if it has none), replacing
+     * whatever was indexed for the same id before. Does not touch the database.
+     */
+    public void add(JobDescription jd) {
+        if (jd.getKeywords() == null) {
+            jd.setKeywords(analyzer.scoringKeywords(jd.getDescription()));
+        }
+        String[] keywords = new LinkedHashSet<>(jd.getKeywords()).toArray(new String[0]);
+        double weight = 1.0 / Math.max(1, keywords.length);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(jd.getId());
+
+            int doc = nextDoc++;
+            if (doc == docs.length) docs = Arrays.copyOf(docs, doc * 2);
+
+            int[] ids = new int[keywords.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = termIds.computeIfAbsent(keywords[i], k -> {
+                    postings.add(new Postings());
+                    return postings.size() - 1;
+                });
+                postings.get(ids[i]).append(doc, weight);
+            }
+            docs[doc] = new Doc(jd, keywords, ids);
+            docById.put(jd.getId(), doc);
+            liveDocs++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(int id) {
+        Integer doc = docById.remove(id);
+        if (doc == null) return false;
+        for (int termId : docs[doc].termIds) postings.get(termId).remove(doc);
+        docs[doc] = null;
+        liveDocs--;
+        return true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Matching
+    // ---------------------------------------------------------
+
+    /**
+     * The k job descriptions that fit the resume best, highest score first. Ties go to the
+     * JD saved first. JDs sharing no keyword with the resume are never returned.
+     */
+    public List<Match> topMatches(ParsedResume resume, int k) {
+        return topMatches(resume, null, k);
+    }
+
+    /**
+     * Same, among one user's job descriptions (every user's when userId is null)
+     */
+    public List<Match> topMatches(ParsedResume resume, String userId, int k) {
+        if (resume == null || resume.getFullText() == null || k <= 0) return new ArrayList<>();
+        awaitLoaded();
+
+        lock.readLock().lock();
+        try {
+            BitSet words = termIdsIn(resume.getFullText());
+            // Only the user's JDs that share a word with the resume get an entry, so a query
+            // costs what it touches, not the size of the index
+            Map<Integer, double[]> scores = new HashMap<>();
+            for (int termId = words.nextSetBit(0); termId >= 0; termId = words.nextSetBit(termId + 1)) {
+                Postings p = postings.get(termId);
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docs[i];
+                    if (userId != null && !userId.equals(docs[doc].jd.getUserId())) continue;
+                    scores.computeIfAbsent(doc, d -> new double[1])[0] += p.weights[i];
+                }
+            }
+
+            // Min-heap of the best k: lowest score on top, later JD on top among equals
+            PriorityQueue<Integer> top = new PriorityQueue<>(k + 1, (a, b) -> {
+                int c = Double.compare(scores.get(a)[0], scores.get(b)[0]);
+                return c != 0 ? c : Integer.compare(b, a);
+            });
+            for (int doc : scores.keySet()) {
+                top.offer(doc);
+                if (top.size() > k) top.poll();
+            }
+
+            Match[] ranked = new Match[top.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                int doc = top.poll();
+                Doc d = docs[doc];
+                List<String> matched = new ArrayList<>();
+                for (int j = 0; j < d.termIds.length; j++) {
+                    if (words.get(d.termIds[j])) matched.add(d.keywords[j]);
+                }
+                // Same arithmetic as MatchScorer.KEYWORD_COVERAGE, so the two agree to the last bit
+                ranked[i] = new Match(d.jd, matched.size() / (double) d.keywords.length * 100.0, matched);
+            }
+            return new ArrayList<>(Arrays.asList(ranked));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of the indexed keywords that occur in the text as whole words. A word is a run of
+    // [a-zA-Z0-9+], lowercased: the boundaries KeywordMatcher uses, so a resume
+    // matches a JD keyword here exactly when the keyword coverage score would count it.
+    private BitSet termIdsIn(String text) {
+        BitSet ids = new BitSet(postings.size());
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (KeywordMatcher.isWordChar(c)) {
+                word.append(Character.toLowerCase(c));
+                continue;
+            }
+            if (word.length() == 0) continue;
+            Integer id = termIds.get(word.toString());
+            word.setLength(0);
+            if (id != null) ids.set(id);
+        }
+        return ids;
+    }
+
+    private void awaitLoaded() {
+        try {
+            loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
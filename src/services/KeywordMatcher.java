@@ -0,0 +1,242 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aho-Corasick matcher over a fixed keyword list.
+ * Compile it once per job description and reuse it for every resume: a search is one pass
+ * over the text no matter how many keywords there are. Matching is case-insensitive and only
+ * counts whole words, so "java" does not match inside "javascript".
+ * Instances are immutable and safe to share between threads.
+ */
+public class KeywordMatcher {
+
+    private final String[] keywords;   // lowercased, distinct, in input order
+    private final int[] lengths;
+
+    // Trie flattened into arrays: node n has edges labels[n][i] -> targets[n][i] (labels sorted)
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    private final int[][] outputs;     // keyword ids ending at each node, fail chain included
+    private final int[] rootAscii;     // dense root edges for ASCII, -1 when absent
+
+    private KeywordMatcher(String[] keywords, char[][] labels, int[][] targets, int[] fail, int[][] outputs) {
+        this.keywords = keywords;
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.rootAscii = new int[128];
+        Arrays.fill(rootAscii, -1);
+        for (int i = 0; i < labels[0].length; i++) {
+            if (labels[0][i] < 128) rootAscii[labels[0][i]] = targets[0][i];
+        }
+        this.lengths = new int[keywords.length];
+        for (int i = 0; i < keywords.length; i++) lengths[i] = keywords[i].length();
+    }
+
+    /**
+     * Builds the automaton. Keywords are lowercased and de-duplicated; blanks are ignored.
+     */
+    public static KeywordMatcher compile(List<String> keywords) {
+        LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        if (keywords != null) {
+            for (String k : keywords) {
+                if (k != null && !k.isBlank()) distinct.add(k.toLowerCase(Locale.ROOT));
+            }
+        }
+        String[] words = distinct.toArray(new String[0]);
+
+        // 1. Build the trie with hash maps, then flatten
+        List<Map<Character, Integer>> edges = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        edges.add(new HashMap<>());
+        out.add(new ArrayList<>());
+
+        for (int id = 0; id < words.length; id++) {
+            int node = 0;
+            for (int i = 0; i < words[id].length(); i++) {
+                char c = words[id].charAt(i);
+                Integer next = edges.get(node).get(c);
+                if (next == null) {
+                    next = edges.size();
+                    edges.get(node).put(c, next);
+                    edges.add(new HashMap<>());
+                    out.add(new ArrayList<>());
+                }
+                node = next;
+            }
+            out.get(node).add(id);
+        }
+
+        int size = edges.size();
+        char[][] labels = new char[size][];
+        int[][] targets = new int[size][];
+        for (int n = 0; n < size; n++) {
+            Character[] keys = edges.get(n).keySet().toArray(new Character[0]);
+            Arrays.sort(keys);
+            labels[n] = new char[keys.length];
+            targets[n] = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                labels[n][i] = keys[i];
+                targets[n][i] = edges.get(n).get(keys[i]);
+            }
+        }
+
+        // 2. Failure links, breadth first so parents are done before children
+        int[] fail = new int[size];
+        int[] queue = new int[size];
+        int head = 0, tail = 0;
+        for (int child : targets[0]) queue[tail++] = child;
+
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = 0; i < labels[node].length; i++) {
+                char c = labels[node][i];
+                int child = targets[node][i];
+                int f = fail[node];
+                int next;
+                while ((next = step(labels, targets, f, c)) < 0 && f != 0) f = fail[f];
+                fail[child] = next < 0 || next == child ? 0 : next;
+                out.get(child).addAll(out.get(fail[child]));
+                queue[tail++] = child;
+            }
+        }
+
+        int[][] outputs = new int[size][];
+        for (int n = 0; n < size; n++) {
+            outputs[n] = out.get(n).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new KeywordMatcher(words, labels, targets, fail, outputs);
+    }
+
+    /**
+     * The compiled keywords, lowercased, in their original order
+     */
+    public List<String> getKeywords() {
+        return Collections.unmodifiableList(Arrays.asList(keywords));
+    }
+
+    /**
+     * Returns which keywords occur in the text as whole words, indexed like getKeywords()
+     */
+    public boolean[] find(CharSequence text) {
+        boolean[] found = new boolean[keywords.length];
+        if (text == null || keywords.length == 0) return found;
+
+        int remaining = keywords.length;
+        int node = 0;
+        int n = text.length();
+        for (int i = 0; i < n && remaining > 0; i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            } else {
+                c = Character.toLowerCase(c);
+            }
+            int next = -1;
+            while (node != 0 && (next = step(labels, targets, node, c)) < 0) node = fail[node];
+            if (node == 0) {
+                next = c < 128 ? rootAscii[c] : step(labels, targets, 0, c);
+            }
+            node = next < 0 ? 0 : next;
+
+            for (int id : outputs[node]) {
+                if (found[id]) continue;
+                int start = i - lengths[id] + 1;
+                boolean leftOk = start == 0 || !isWordChar(text.charAt(start - 1));
+                boolean rightOk = i + 1 == n || !isWordChar(text.charAt(i + 1));
+                if (leftOk && rightOk) {
+                    found[id] = true;
+                    remaining--;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Counts the whole-word occurrences of each keyword in the text, indexed like getKeywords()
+     */
+    public int[] count(CharSequence text) {
+        int[] counts = new int[keywords.length];
+        if (text == null || keywords.length == 0) return counts;
+
+        int node = 0;
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            } else {
+                c = Character.toLowerCase(c);
+            }
+            int next = -1;
+            while (node != 0 && (next = step(labels, targets, node, c)) < 0) node = fail[node];
+            if (node == 0) {
+                next = c < 128 ? rootAscii[c] : step(labels, targets, 0, c);
+            }
+            node = next < 0 ? 0 : next;
+
+            for (int id : outputs[node]) {
+                int start = i - lengths[id] + 1;
+                boolean leftOk = start == 0 || !isWordChar(text.charAt(start - 1));
+                boolean rightOk = i + 1 == n || !isWordChar(text.charAt(i + 1));
+                if (leftOk && rightOk) counts[id]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Number of words in the text, a word being a run of the characters keywords are matched on
+     */
+    public static int wordCount(CharSequence text) {
+        if (text == null) return 0;
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean word = isWordChar(text.charAt(i));
+            if (word && !inWord) words++;
+            inWord = word;
+        }
+        return words;
+    }
+
+    /**
+     * Returns the keywords that occur in the text as whole words, in keyword order
+     */
+    public List<String> findAll(CharSequence text) {
+        boolean[] found = find(text);
+        List<String> matched = new ArrayList<>();
+        for (int i = 0; i < found.length; i++) {
+            if (found[i]) matched.add(keywords[i]);
+        }
+        return matched;
+    }
+
+    // Same character class the job description tokenizer keeps ([a-zA-Z0-9+])
+    static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '+';
+    }
+
+    private static int step(char[][] labels, int[][] targets, int node, char c) {
+        char[] l = labels[node];
+        int lo = 0, hi = l.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (l[mid] < c) lo = mid + 1;
+            else if (l[mid] > c) hi = mid - 1;
+            else return targets[node][mid];
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,46 @@
+package services;
+
+/**
+ * How ResumeAnalyzeService turns a resume and a job's scoring keywords into a match score
+ * from 0 to 100. The keywords arrive compiled, so a scorer can count them in the resume in
+ * one pass; they already exclude the blacklist.
+ *
+ *   keywords   share of the keywords the resume contains (the original score, the default)
+ *   tfidf      cosine between the keywords weighted by idf and the resume's log-scaled
+ *              counts of them, so rare keywords count for more than common ones
+ *   bm25       BM25 over the keywords, divided by what a resume containing every keyword
+ *              many times would get, so it stays a percentage
+ *
+ * tfidf and bm25 take their document frequencies from the stored resumes
+ * (DocumentFrequencies.getInstance()). Only those two modes reach getInstance, so with the
+ * default the corpus is never loaded. It starts loading in the background when forMode
+ * builds the scorer (at app start), and until it is done a score waits for it, up to
+ * DocumentFrequencies.LOAD_WAIT_SECONDS: an analysis started right after launch can take
+ * that much longer. Pick one with MATCH_SCORING in .env.
+ */
+public interface MatchScorer {
+
+    double score(CharSequence resumeText, KeywordMatcher keywords);
+
+    MatchScorer KEYWORD_COVERAGE = (resumeText, keywords) -> {
+        int total = keywords.getKeywords().size();
+        if (resumeText == null || total == 0) return 0.0;
+        int matched = 0;
+        for (boolean found : keywords.find(resumeText)) {
+            if (found) matched++;
+        }
+        return (matched / (double) total) * 100.0;
+    };
+
+    /**
+     * The scorer for a MATCH_SCORING value; anything unrecognized means keyword coverage
+     */
+    static MatchScorer forMode(String mode) {
+        if (mode == null) return KEYWORD_COVERAGE;
+        return switch (mode.trim().toLowerCase()) {
+            case "tfidf", "tf-idf" -> new TfIdfScorer(DocumentFrequencies.getInstance());
+            case "bm25" -> new Bm25Scorer(DocumentFrequencies.getInstance());
+            default -> KEYWORD_COVERAGE;
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package services;
+
+import dao.ParsedResumeCacheDAO;
+import services.ResumeParserService.ParsedResume;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed cache of parse results, keyed by SHA-256 of the file bytes together
+ * with ResumeParserService.PARSER_VERSION. Two tiers: an in-memory LRU for the current
+ * session and the SQLite tables behind ParsedResumeCacheDAO, so a resume that was parsed
+ * once is not run through PDFBox/POI again. Edited files get a new hash and a changed parser
+ * a new version, so entries never need invalidating; entries nobody can look up any more
+ * age out. The database tier is pruned to Constants.ParseCache.MAX_ENTRIES entries no older
+ * than MAX_AGE_DAYS, in the background, when first used and every PRUNE_INTERVAL writes.
+ */
+public class ParsedResumeCache {
+
+    private static final int MEMORY_CAPACITY = 64;
+    private static final int PRUNE_INTERVAL = 200;
+
+    private static ParsedResumeCache instance;
+
+    private final Map<String, ParsedResume> memory;
+    private ParsedResumeCacheDAO dao;   // created on first use so the cache works without a database
+    private int writes;                 // guarded by this
+
+    private ParsedResumeCache() {
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedResume> eldest) {
+                return size() > MEMORY_CAPACITY;
+            }
+        };
+    }
+
+    public static synchronized ParsedResumeCache getInstance() {
+        if (instance == null) {
+            instance = new ParsedResumeCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a copy of the cached parse for this hash, or null on a miss in both tiers
+     */
+    public ParsedResume get(String contentHash) {
+        String key = key(contentHash);
+        ParsedResume cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+
+        if (cached == null) {
+            try {
+                cached = dao().find(key);
+            } catch (SQLException e) {
+                System.err.println("Parsed resume cache lookup failed: " + e.getMessage());
+            }
+            if (cached == null) {
+                return null;
+            }
+            synchronized (memory) {
+                memory.put(key, cached);
+            }
+        }
+        return copyOf(cached);
+    }
+
+    /**
+     * Stores a parse result in both tiers
+     */
+    public void put(String contentHash, ParsedResume parsed) {
+        String key = key(contentHash);
+        ParsedResume stored = copyOf(parsed);
+        synchronized (memory) {
+            memory.put(key, stored);
+        }
+        try {
+            dao().save(key, stored);
+        } catch (SQLException e) {
+            System.err.println("Parsed resume cache write failed: " + e.getMessage());
+        }
+        synchronized (this) {
+            if (++writes % PRUNE_INTERVAL == 0) prune();
+        }
+    }
+
+    private synchronized ParsedResumeCacheDAO dao() {
+        if (dao == null) {
+            dao = new ParsedResumeCacheDAO();
+            prune();
+        }
+        return dao;
+    }
+
+    // Off the caller's thread: after a version bump the first prune deletes every old entry
+    private void prune() {
+        ParsedResumeCacheDAO target = dao;
+        BlockingTaskExecutor.shared().submit(() -> {
+            int deleted = target.prune(utils.Constants.ParseCache.MAX_ENTRIES, utils.Constants.ParseCache.MAX_AGE_DAYS);
+            if (deleted > 0) System.out.println("Parsed resume cache: pruned " + deleted + " entries");
+            return null;
+        }, utils.Constants.Timeouts.DATABASE).exceptionally(e -> {
+            System.err.println("Parsed resume cache prune failed: " + e.getMessage());
+            return null;
+        });
+    }
+
+    private static String key(String contentHash) {
+        return ResumeParserService.PARSER_VERSION + ":" + contentHash;
+    }
+
+    // Callers may modify what they get back, so the cache never hands out its own instances.
+    // Fresh parser results are read-only views over their text and are shared instead.
+    private static ParsedResume copyOf(ParsedResume source) {
+        if (source.isIndexed()) {
+            return source;
+        }
+        ParsedResume copy = new ParsedResume();
+        copy.setRawText(source.getRawText());
+        copy.setFullText(source.getFullText());
+        copy.setSections(new LinkedHashMap<>(source.getSections()));
+        copy.setExperiences(new ArrayList<>(source.getExperiences()));
+        return copy;
+    }
+}
@@ -0,0 +1,156 @@
+package services;
+
+import org.apache.fontbox.ttf.CmapLookup;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of the fonts PdfTextRenderer writes with, each loaded once together
+ * with a table of glyph advance widths, so laying out a document never parses a font or
+ * asks PDFBox to measure a string.
+ *
+ * The default is the standard Helvetica, which needs no embedding and is shared by every
+ * document as is. PDF_FONT_FILE in .env can name a TrueType font instead: it is read and
+ * parsed once, and each document embeds a subset of the same parsed font. Subsetting
+ * reads the parsed font's glyph data, so documents using it are saved one at a time.
+ */
+public final class PdfFontCache {
+
+    private static final Map<String, CachedFont> FONTS = new ConcurrentHashMap<>();
+
+    // ---------------------------------------------------------
+    // Cached Font
+    // ---------------------------------------------------------
+    public static final class CachedFont {
+        private final String name;
+        private final PDType1Font standardFont;     // shared by all documents; null for TrueType
+        private final TrueTypeFont trueTypeFont;    // parsed once; embedded per document
+        private final float[] widths;               // advance width per char in 1/1000 em, -1 = no glyph
+
+        private CachedFont(String name, PDType1Font standardFont, TrueTypeFont trueTypeFont, float[] widths) {
+            this.name = name;
+            this.standardFont = standardFont;
+            this.trueTypeFont = trueTypeFont;
+            this.widths = widths;
+        }
+
+        public String getName() { return name; }
+        public boolean isEmbedded() { return trueTypeFont != null; }
+
+        /**
+         * Whether the font has a glyph for the character, i.e. showText will accept it
+         */
+        public boolean canShow(char c) {
+            return c < widths.length && widths[c] >= 0;
+        }
+
+        /**
+         * Width of the characters in points at the font size; characters without a glyph count 0
+         */
+        public float width(char[] text, int from, int to, float fontSize) {
+            float units = 0;
+            for (int i = from; i < to; i++) {
+                units += glyphWidth(text[i]);
+            }
+            return units * fontSize / 1000f;
+        }
+
+        float glyphWidth(char c) {
+            return c < widths.length && widths[c] > 0 ? widths[c] : 0;
+        }
+
+        /**
+         * The font to draw with in this document. For a TrueType font this adds a subset of
+         * it to the document, so call it once per document.
+         */
+        public PDFont fontFor(PDDocument document) throws IOException {
+            if (standardFont != null) return standardFont;
+            synchronized (this) {
+                return PDType0Font.load(document, trueTypeFont, true);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Lookup
+    // ---------------------------------------------------------
+
+    /**
+     * PDF_FONT_FILE when it is set and loads, otherwise Helvetica
+     */
+    public static CachedFont defaultFont() {
+        String file = utils.Constants.Pdf.FONT_FILE;
+        if (file == null || file.isBlank()) {
+            return helvetica();
+        }
+        try {
+            return trueType(Paths.get(file));
+        } catch (IOException | RuntimeException e) {
+            // Remembered under the path as well, so the failure is reported only once
+            System.err.println("PDF font " + file + " could not be loaded, using Helvetica: " + e.getMessage());
+            CachedFont fallback = helvetica();
+            FONTS.putIfAbsent(Paths.get(file).toAbsolutePath().normalize().toString(), fallback);
+            return fallback;
+        }
+    }
+
+    public static CachedFont helvetica() {
+        return FONTS.computeIfAbsent("Helvetica", key -> standard(PDType1Font.HELVETICA));
+    }
+
+    public static CachedFont trueType(Path file) throws IOException {
+        String key = file.toAbsolutePath().normalize().toString();
+        CachedFont font = FONTS.get(key);
+        if (font != null) return font;
+
+        // Parsed from memory, so the cached font holds no open file
+        TrueTypeFont ttf = new TTFParser().parse(new ByteArrayInputStream(Files.readAllBytes(file)));
+        CmapLookup cmap = ttf.getUnicodeCmapLookup();
+        float scale = 1000f / ttf.getUnitsPerEm();
+        float[] widths = new float[Character.MAX_VALUE + 1];
+        Arrays.fill(widths, -1);
+        for (int c = 0x20; c <= Character.MAX_VALUE; c++) {
+            if (c == 0x7F || Character.isSurrogate((char) c)) continue;
+            int gid = cmap.getGlyphId(c);
+            if (gid > 0) widths[c] = ttf.getAdvanceWidth(gid) * scale;
+        }
+
+        CachedFont loaded = new CachedFont(ttf.getName(), null, ttf, widths);
+        CachedFont existing = FONTS.putIfAbsent(key, loaded);
+        if (existing != null) {
+            ttf.close();
+            return existing;
+        }
+        return loaded;
+    }
+
+    // Standard fonts are limited to printable ASCII, like the text exports have always been
+    private static CachedFont standard(PDType1Font font) {
+        float[] widths = new float[128];
+        Arrays.fill(widths, -1);
+        for (char c = 0x20; c < 0x7F; c++) {
+            try {
+                widths[c] = font.getWidth(c);
+            } catch (IOException e) {
+                widths[c] = font.getAverageFontWidth();
+            }
+        }
+        return new CachedFont(font.getName(), font, null, widths);
+    }
+
+    private PdfFontCache() {
+    }
+}
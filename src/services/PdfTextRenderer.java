@@ -0,0 +1,276 @@
+package services;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import services.PdfFontCache.CachedFont;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes plain text to a PDF in the PdfFontCache default font (Helvetica unless
+ * PDF_FONT_FILE is set), one line per text line, wrapping lines wider than the page
+ * margins and starting a new page every LINES_PER_PAGE lines.
+ *
+ * The content is read once, character by character: carriage returns and control
+ * characters are dropped, tabs become four spaces, characters the font cannot show are
+ * replaced through a small glyph table (bullets, arrows, typographic quotes and dashes)
+ * or dropped, and each finished line goes straight to the current page. Line widths are
+ * measured with the font's cached glyph widths. No intermediate
+ * strings are built for the whole text. Page content streams beyond MAIN_MEMORY_BYTES are
+ * kept in a scratch file, so a long document does not grow the heap page by page.
+ *
+ * Blank lines at the very end are not written, matching String.split("\n").
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class PdfTextRenderer {
+
+    private static final float MARGIN_LEFT = 50;
+    private static final float FIRST_LINE_Y = 750;
+    private static final float LINE_HEIGHT = 15;
+    private static final float WRAP_WIDTH = PDRectangle.LETTER.getWidth() - 2 * MARGIN_LEFT;    // points
+    private static final int LINES_PER_PAGE = 45;
+    private static final long MAIN_MEMORY_BYTES = 1024 * 1024;
+    private static final int OUTPUT_BUFFER_BYTES = 64 * 1024;
+
+    // Replacements shared by both tables
+    private static final String[][] COMMON_GLYPHS = {
+            {"→", "->"},  {"←", "<-"},                              // arrows
+            {"–", "-"},   {"‘", "'"},  {"’", "'"},             // dash, single quotes
+            {"“", "\""},  {"”", "\""}, {"…", "..."},           // double quotes, ellipsis
+            {"©", "(c)"}, {"®", "(R)"}, {"™", "(TM)"}, {"°", " deg"},
+    };
+
+    /**
+     * Analyzed and edited resumes: 11pt, every bullet a dash
+     */
+    public static final PdfTextRenderer DOCUMENT = new PdfTextRenderer(11, glyphs(COMMON_GLYPHS, new String[][]{
+            {"■", "-"}, {"▪", "-"}, {"●", "-"}, {"•", "-"},
+            {"◦", "-"}, {"▸", "-"}, {"►", "-"}, {"—", "-"},
+    }));
+
+    /**
+     * Exports of non-PDF resumes: 12pt, with box drawing, check marks and stars mapped as well
+     */
+    public static final PdfTextRenderer EXPORT = new PdfTextRenderer(12, glyphs(COMMON_GLYPHS, new String[][]{
+            // box drawing
+            {"═", "="}, {"║", "|"}, {"╔", "+"}, {"╗", "+"}, {"╚", "+"},
+            {"╝", "+"}, {"╠", "+"}, {"╣", "+"}, {"╦", "+"}, {"╩", "+"},
+            {"╬", "+"}, {"─", "-"}, {"│", "|"},
+            // bullets and squares
+            {"■", "*"}, {"▪", "*"}, {"●", "*"}, {"•", "*"}, {"◦", "o"},
+            {"▸", ">"}, {"►", ">"}, {"◆", "*"}, {"❖", "*"}, {"·", "*"},
+            {"‣", ">"}, {"⁃", "-"},
+            // arrows, dashes
+            {"↑", "^"}, {"↓", "v"}, {"—", "--"},
+            // check marks, crosses and stars
+            {"✓", "[x]"}, {"✔", "[x]"}, {"✕", "[X]"}, {"✗", "[X]"}, {"✘", "[X]"},
+            {"★", "*"}, {"☆", "*"},
+    }));
+
+    private final float fontSize;
+    private final char[] glyphFrom;        // sorted
+    private final String[] glyphTo;        // aligned with glyphFrom
+
+    private PdfTextRenderer(float fontSize, String[][] glyphs) {
+        this.fontSize = fontSize;
+        this.glyphFrom = new char[glyphs.length];
+        this.glyphTo = new String[glyphs.length];
+        for (int i = 0; i < glyphs.length; i++) {
+            glyphFrom[i] = glyphs[i][0].charAt(0);
+            glyphTo[i] = glyphs[i][1];
+        }
+    }
+
+    // Merges the tables (later entries win) and sorts them by character for binary search
+    private static String[][] glyphs(String[][] common, String[][] specific) {
+        java.util.TreeMap<Character, String> merged = new java.util.TreeMap<>();
+        for (String[] g : common) merged.put(g[0].charAt(0), g[1]);
+        for (String[] g : specific) merged.put(g[0].charAt(0), g[1]);
+        String[][] out = new String[merged.size()][];
+        int i = 0;
+        for (java.util.Map.Entry<Character, String> e : merged.entrySet()) {
+            out[i++] = new String[]{String.valueOf(e.getKey()), e.getValue()};
+        }
+        return out;
+    }
+
+    // ---------------------------------------------------------
+    // Rendering
+    // ---------------------------------------------------------
+
+    /**
+     * Renders the content to the file, replacing it. The file is only opened once the
+     * document is complete, so a failure while laying out leaves an existing file alone.
+     */
+    public void render(CharSequence content, Path file) throws IOException {
+        CachedFont font = PdfFontCache.defaultFont();
+        try (PDDocument document = layOut(content, font);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), OUTPUT_BUFFER_BYTES)) {
+            save(document, font, out);
+        }
+    }
+
+    /**
+     * Renders the content to the stream, which is left open
+     */
+    public void render(CharSequence content, OutputStream out) throws IOException {
+        CachedFont font = PdfFontCache.defaultFont();
+        try (PDDocument document = layOut(content, font)) {
+            save(document, font, out);
+        }
+    }
+
+    // Saving subsets an embedded font, which reads the shared parsed font
+    private static void save(PDDocument document, CachedFont font, OutputStream out) throws IOException {
+        if (font.isEmbedded()) {
+            synchronized (font) {
+                document.save(out);
+            }
+        } else {
+            document.save(out);
+        }
+    }
+
+    private PDDocument layOut(CharSequence content, CachedFont font) throws IOException {
+        PDDocument document = new PDDocument(MemoryUsageSetting.setupMixed(MAIN_MEMORY_BYTES));
+        try {
+            Pages pages = new Pages(document, font.fontFor(document));
+            char[] line = new char[256];
+            int length = 0;
+            int pendingBlankLines = 0;
+
+            int n = content == null ? 0 : content.length();
+            for (int i = 0; i <= n; i++) {
+                char c = i < n ? content.charAt(i) : '\n';
+                if (c == '\n') {
+                    if (length == 0) {
+                        // Held back until a non-blank line follows, so trailing ones are dropped
+                        pendingBlankLines++;
+                    } else {
+                        for (; pendingBlankLines > 0; pendingBlankLines--) pages.line("");
+                        writeWrapped(pages, font, line, length);
+                        length = 0;
+                    }
+                    continue;
+                }
+
+                String replacement = null;
+                if (c == '\t') {
+                    replacement = "    ";
+                } else if (c < 0x20 || c == 0x7F) {
+                    continue;
+                } else if (!font.canShow(c)) {
+                    int k = Arrays.binarySearch(glyphFrom, c);
+                    if (k < 0) continue;
+                    replacement = glyphTo[k];
+                }
+
+                int needed = replacement == null ? 1 : replacement.length();
+                if (length + needed > line.length) line = Arrays.copyOf(line, Math.max(line.length * 2, length + needed));
+                if (replacement == null) {
+                    line[length++] = c;
+                } else {
+                    replacement.getChars(0, needed, line, length);
+                    length += needed;
+                }
+            }
+            pages.finish();
+            return document;
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        }
+    }
+
+    /*
+         Breaks the line into pieces no wider than WRAP_WIDTH, at the last space that fits
+         when there is one, and trims each piece. A word wider than the page is split, with
+         at least one character per piece.
+    */
+    private void writeWrapped(Pages pages, CachedFont font, char[] line, int length) throws IOException {
+        if (font.width(line, 0, length, fontSize) <= WRAP_WIDTH) {
+            pages.line(new String(line, 0, length));
+            return;
+        }
+        float maxUnits = WRAP_WIDTH * 1000f / fontSize;
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            int lastSpace = -1;
+            float units = 0;
+            while (end < length) {
+                float w = font.glyphWidth(line[end]);
+                if (units + w > maxUnits && end > start) break;
+                if (line[end] == ' ') lastSpace = end;
+                units += w;
+                end++;
+            }
+            if (end < length && line[end] != ' ' && lastSpace > start) end = lastSpace;
+
+            int from = start;
+            int to = end;
+            while (from < to && line[from] == ' ') from++;
+            while (to > from && line[to - 1] == ' ') to--;
+            if (to > from) pages.line(new String(line, from, to - from));
+
+            start = end < length && line[end] == ' ' ? end + 1 : end;
+        }
+    }
+
+    // The page being filled; a new one is started when it has LINES_PER_PAGE lines
+    private final class Pages {
+        private final PDDocument document;
+        private final PDFont font;
+        private PDPageContentStream stream;
+        private int linesOnPage;
+
+        Pages(PDDocument document, PDFont font) {
+            this.document = document;
+            this.font = font;
+        }
+
+        void line(String text) throws IOException {
+            if (stream == null || linesOnPage == LINES_PER_PAGE) newPage();
+            if (!text.isEmpty()) stream.showText(text);
+            stream.newLineAtOffset(0, -LINE_HEIGHT);
+            linesOnPage++;
+        }
+
+        private void newPage() throws IOException {
+            closePage();
+            PDPage page = new PDPage();
+            document.addPage(page);
+            stream = new PDPageContentStream(document, page);
+            stream.setFont(font, fontSize);
+            stream.beginText();
+            stream.newLineAtOffset(MARGIN_LEFT, FIRST_LINE_Y);
+            linesOnPage = 0;
+        }
+
+        private void closePage() throws IOException {
+            if (stream != null) {
+                stream.endText();
+                stream.close();
+                stream = null;
+            }
+        }
+
+        // An empty document still gets one (blank) page
+        void finish() throws IOException {
+            if (document.getNumberOfPages() == 0) {
+                document.addPage(new PDPage());
+            }
+            closePage();
+        }
+    }
+}
@@ -11,17 +11,21 @@ package services;
 
 import java.util.*;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import utils.TextPatterns;
+import utils.TextScanner;
 
 public class ResumeAnalyzeService {
 
-    private static final Set<String> STOPWORDS = Set.of(
+    static final Set<String> STOPWORDS = Set.of(
             "and", "or", "with", "the", "a", "an", "to", "of", "in", "for",
             "on", "at", "by", "is", "are", "as", "be", "this", "that", "will",
             "we", "our", "you", "your", "from"
     );
 
+    // Terms of 3+ chars, stopwords skipped; counted without a String per token
+    private static final TermCounter JD_TERMS = new TermCounter(STOPWORDS, 3);
+
     private static final Set<String> SOFT_SKILLS = Set.of(
             "communication", "teamwork", "leadership", "problem-solving",
             "adaptability", "critical thinking", "time management", "collaboration"
@@ -42,6 +46,20 @@ public class ResumeAnalyzeService {
     );
 
 
+    // Turns resume text and scoring keywords into the match score
+    private final MatchScorer scorer;
+
+    /**
+     * Scores by keyword coverage, the share of the job's keywords found in the resume
+     */
+    public ResumeAnalyzeService() {
+        this(MatchScorer.KEYWORD_COVERAGE);
+    }
+
+    public ResumeAnalyzeService(MatchScorer scorer) {
+        this.scorer = scorer == null ? MatchScorer.KEYWORD_COVERAGE : scorer;
+    }
+
     /**
      * Extracts and ranks important keywords from a job description
      */
@@ -50,36 +68,48 @@ public class ResumeAnalyzeService {
             return Collections.emptyList();
         }
 
-        String[] tokens = jobDescription.toLowerCase().split("[^a-zA-Z0-9+]+");
-        Map<String, Long> frequency = Arrays.stream(tokens)
-                .filter(token -> token.length() > 2 && !STOPWORDS.contains(token))
-                .collect(Collectors.groupingBy(token -> token, Collectors.counting()));
-
-        return frequency.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(20)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return JD_TERMS.topTerms(jobDescription, 20);
     }
 
     /**
-     * Matches extracted job keywords against resume text
+     * Matches extracted job keywords against resume text (whole words only)
      */
     public List<String> mapKeywords(String resumeText, List<String> jobKeywords) {
         if (resumeText == null || jobKeywords == null) {
             return Collections.emptyList();
         }
 
-        String lowerResume = resumeText.toLowerCase();
+        return mapKeywords(resumeText, KeywordMatcher.compile(jobKeywords));
+    }
 
-        return jobKeywords.stream()
-                .map(String::toLowerCase)             // lowercase keywords first
-                .filter(lowerResume::contains)        // then check if present in resume
+    /**
+     * Matches a precompiled keyword set against resume text.
+     * Compile the matcher once per job description to reuse it across resumes.
+     */
+    public List<String> mapKeywords(String resumeText, KeywordMatcher matcher) {
+        if (resumeText == null || matcher == null) {
+            return Collections.emptyList();
+        }
+
+        return matcher.findAll(resumeText).stream()
                 .filter(k -> !blacklist.contains(k))  // remove unwanted keywords
-                .distinct()
                 .map(this::capitalize)                // capitalize for feedback
                 .collect(Collectors.toList());
     }
+    /**
+     * Computes the per-request analysis once: job keywords, matched and missing keywords, score.
+     * Both parts of tailorResume (and any caller that wants the numbers) read from the result.
+     */
+    public AnalysisContext analyze(ResumeParserService.ParsedResume parsedResume, String jobDescription) {
+        String resumeText = parsedResume.getFullText();
+        List<String> jobKeywords = analyzeJobDescription(jobDescription);
+        List<String> scoring = scoringKeywords(jobKeywords);
+        KeywordMatcher matcher = KeywordMatcher.compile(scoring);
+        boolean[] found = matcher.find(resumeText);
+        double score = matchScore(resumeText, matcher);
+        return new AnalysisContext(parsedResume, jobDescription, jobKeywords, scoring, matcher, found, score);
+    }
+
     /**
      * Generates a complete, professionally formatted tailored resume with feedback.
      */
@@ -88,46 +118,40 @@ public class ResumeAnalyzeService {
             return "Error: Resume is empty or invalid.";
         }
 
-        if (jobDescription == null || jobDescription.trim().isEmpty()) {
-            return formatProfessionalResume(parsedResume, Collections.emptyList(), jobDescription);
-        }
+        return tailorResume(analyze(parsedResume, jobDescription));
+    }
 
-        String originalResume = parsedResume.getFullText();
-        List<String> jobKeywords = analyzeJobDescription(jobDescription);
-        List<String> matchedKeywords = mapKeywords(originalResume, jobKeywords);
+    /**
+     * Same as tailorResume(parsedResume, jobDescription), from an analysis already computed
+     */
+    public String tailorResume(AnalysisContext context) {
+        if (!context.hasJobDescription()) {
+            return formatProfessionalResume(context);
+        }
 
         // Build output with clear separation markers
         StringBuilder output = new StringBuilder();
 
         // Add feedback section
         output.append("===FEEDBACK_START===\n");
-        output.append(buildFeedbackSection(parsedResume, matchedKeywords, jobKeywords, jobDescription));
+        output.append(buildFeedbackSection(context));
         output.append("===FEEDBACK_END===\n\n");
 
         // Add tailored resume
         output.append("===RESUME_START===\n");
-        output.append(formatProfessionalResume(parsedResume, matchedKeywords, jobDescription));
+        output.append(formatProfessionalResume(context));
         output.append("===RESUME_END===\n");
 
         return output.toString();
     }
 
-    private String buildFeedbackSection(ResumeParserService.ParsedResume parsedResume,
-                                        List<String> matchedKeywords,
-                                        List<String> allJobKeywords,
-                                        String jobDescription) {
+    private String buildFeedbackSection(AnalysisContext context) {
         StringBuilder feedback = new StringBuilder();
+        List<String> matchedKeywords = context.getMatchedKeywords();
 
-        List<String> filteredJobKeywords = allJobKeywords.stream()
-                .map(String::toLowerCase)
-                .filter(k -> !blacklist.contains(k))
-                .collect(Collectors.toList());
-
-        double matchScore = calculatedMatchScore(parsedResume.getFullText(), jobDescription);
-
-        feedback.append("Job Match Score: ").append(String.format("%.1f%%", matchScore)).append("\n");
+        feedback.append("Job Match Score: ").append(String.format("%.1f%%", context.getScore())).append("\n");
         feedback.append("Keywords Matched: ").append(matchedKeywords.size())
-                .append("/").append(filteredJobKeywords.size()).append("\n\n");
+                .append("/").append(context.getScoringKeywords().size()).append("\n\n");
 
         if (!matchedKeywords.isEmpty()) {
             feedback.append("MATCHED KEYWORDS (Already in your resume):\n");
@@ -137,15 +161,7 @@ public class ResumeAnalyzeService {
             feedback.append("\n");
         }
 
-        List<String> missingKeywords = filteredJobKeywords.stream()
-                .map(String::toLowerCase)              // normalize
-                .filter(k -> !blacklist.contains(k))   // remove unwanted words
-                .filter(kw -> !matchedKeywords.stream()
-                        .map(String::toLowerCase)
-                        .collect(Collectors.toSet())
-                        .contains(kw))
-                .collect(Collectors.toList());
-
+        List<String> missingKeywords = context.getMissingKeywords();
         if (!missingKeywords.isEmpty()) {
             feedback.append("KEYWORDS TO CONSIDER ADDING:\n");
             for (String keyword : missingKeywords) {
@@ -156,9 +172,9 @@ public class ResumeAnalyzeService {
         return feedback.toString();
     }
 
-    private String formatProfessionalResume(ResumeParserService.ParsedResume parsedResume,
-                                            List<String> matchedKeywords,
-                                            String jobDescription) {
+    private String formatProfessionalResume(AnalysisContext context) {
+        ResumeParserService.ParsedResume parsedResume = context.getParsedResume();
+        List<String> matchedKeywords = context.getMatchedKeywords();
         StringBuilder resume = new StringBuilder();
         Map<String, String> sections = parsedResume.getSections();
 
@@ -172,7 +188,7 @@ public class ResumeAnalyzeService {
         String summary = sections.get("summary");
         if (summary != null && !summary.trim().isEmpty()) {
             resume.append("PROFESSIONAL SUMMARY\n").append(repeatChar('─', 80)).append("\n");
-            resume.append(formatSummary(summary, matchedKeywords)).append("\n\n");
+            resume.append(formatSummary(summary, context)).append("\n\n");
         } else if (!matchedKeywords.isEmpty()) {
             resume.append("PROFESSIONAL SUMMARY\n").append(repeatChar('─', 80)).append("\n");
             resume.append("Results-driven professional with expertise in ");
@@ -186,7 +202,7 @@ public class ResumeAnalyzeService {
         String skills = sections.get("skills");
         if (skills != null && !skills.trim().isEmpty()) {
             resume.append("CORE COMPETENCIES\n").append(repeatChar('─', 80)).append("\n");
-            String formattedSkills = formatSkillsSection(skills, matchedKeywords);
+            String formattedSkills = formatSkillsSection(skills, context);
             if (!formattedSkills.trim().isEmpty()) {
                 resume.append(formattedSkills).append("\n");
             }
@@ -201,7 +217,7 @@ public class ResumeAnalyzeService {
 
         if (experience != null && !experience.trim().isEmpty()) {
             resume.append("PROFESSIONAL EXPERIENCE\n").append(repeatChar('─', 80)).append("\n");
-            resume.append(formatExperienceSection(experience, matchedKeywords));
+            resume.append(formatExperienceSection(experience, context));
             hasExperience = true;
         } else if (!parsedResume.getExperiences().isEmpty()) {
             resume.append("PROFESSIONAL EXPERIENCE\n").append(repeatChar('─', 80)).append("\n");
@@ -209,7 +225,7 @@ public class ResumeAnalyzeService {
             for (int i = 0; i < parsedResume.getExperiences().size(); i++) {
                 String exp = parsedResume.getExperiences().get(i);
                 if (!seen.contains(exp.trim())) {
-                    resume.append(formatExperienceEntry(exp, matchedKeywords));
+                    resume.append(formatExperienceEntry(exp, context));
                     if (i < parsedResume.getExperiences().size() - 1) resume.append("\n");
                     seen.add(exp.trim());
                 }
@@ -221,7 +237,7 @@ public class ResumeAnalyzeService {
             String projects = sections.get("projects");
             if (projects != null && !projects.trim().isEmpty()) {
                 resume.append("PROFESSIONAL EXPERIENCE\n").append(repeatChar('─', 80)).append("\n");
-                resume.append(formatExperienceSection(projects, matchedKeywords));
+                resume.append(formatExperienceSection(projects, context));
                 hasExperience = true;
             }
         }
@@ -245,7 +261,7 @@ public class ResumeAnalyzeService {
             String projects = sections.get("projects");
             if (projects != null && !projects.trim().isEmpty()) {
                 resume.append("KEY PROJECTS\n").append(repeatChar('─', 80)).append("\n");
-                resume.append(formatProjectsSection(projects, matchedKeywords));
+                resume.append(formatProjectsSection(projects, context));
             }
         }
 
@@ -253,10 +269,9 @@ public class ResumeAnalyzeService {
         return resume.toString();
     }
 
-    private String formatSummary(String summary, List<String> matchedKeywords) {
-        String cleaned = summary.trim().replaceAll("\\s+", " ");
-        List<String> lower = Arrays.stream(cleaned.toLowerCase().split("\\s+"))
-                .collect(Collectors.toList());
+    private String formatSummary(String summary, AnalysisContext context) {
+        String cleaned = TextScanner.collapseWhitespace(summary.trim());
+        Set<String> lower = new HashSet<>(TextScanner.words(cleaned.toLowerCase()));
 
         List<String> missingSoftSkills = SOFT_SKILLS.stream()
                 .filter(skill -> !lower.contains(skill))
@@ -273,7 +288,7 @@ public class ResumeAnalyzeService {
     }
 
     // --- Soft skills integrated into skills section ---
-    private String formatSkillsSection(String skills, List<String> matchedKeywords) {
+    private String formatSkillsSection(String skills, AnalysisContext context) {
         List<String> skillList = extractSkills(skills);
         skillList = skillList.stream().distinct().filter(s -> !s.isEmpty()).collect(Collectors.toList());
 
@@ -311,13 +326,13 @@ public class ResumeAnalyzeService {
         return header.toString();
     }
 
-    private String formatExperienceSection(String experience, List<String> matchedKeywords) {
+    private String formatExperienceSection(String experience, AnalysisContext context) {
         StringBuilder formatted = new StringBuilder();
         List<String> projects = splitIntoProjects(experience);
         for (int i = 0; i < projects.size(); i++) {
             String project = projects.get(i).trim();
             if (!project.isEmpty()) {
-                formatted.append(formatSingleProject(project, matchedKeywords));
+                formatted.append(formatSingleProject(project, context));
                 if (i < projects.size() - 1) formatted.append("\n");
             }
         }
@@ -326,8 +341,7 @@ public class ResumeAnalyzeService {
 
     private List<String> splitIntoProjects(String experience) {
         List<String> projects = new ArrayList<>();
-        Pattern projectPattern = Pattern.compile("^([A-Z][^\\n-]+ -|[A-Z][^\\n:]+:)", Pattern.MULTILINE);
-        Matcher matcher = projectPattern.matcher(experience);
+        Matcher matcher = TextPatterns.PROJECT_START.matcher(experience);
         List<Integer> starts = new ArrayList<>();
         while (matcher.find()) starts.add(matcher.start());
         if (starts.isEmpty()) projects.add(experience);
@@ -342,7 +356,7 @@ public class ResumeAnalyzeService {
         return projects;
     }
 
-    private String formatSingleProject(String projectText, List<String> matchedKeywords) {
+    private String formatSingleProject(String projectText, AnalysisContext context) {
         StringBuilder formatted = new StringBuilder();
         String[] lines = projectText.split("\n");
         String projectTitle = null;
@@ -362,16 +376,16 @@ public class ResumeAnalyzeService {
 
         StringBuilder allContent = new StringBuilder();
         for (int i = contentStartIndex; i < lines.length; i++) {
-            String line = lines[i].trim().replaceAll("^[•★●■▪-]\\s*", "");
+            String line = TextScanner.stripBullet(lines[i].trim(), "•★●■▪-");
             if (!line.isEmpty()) {
-                if (allContent.length() > 0 && !allContent.toString().endsWith(" ")) allContent.append(" ");
+                if (allContent.length() > 0 && allContent.charAt(allContent.length() - 1) != ' ') allContent.append(" ");
                 allContent.append(line);
             }
         }
 
         String content = allContent.toString();
         List<String> bullets = new ArrayList<>();
-        String[] sentences = content.split("(?<=\\.)\\s+(?=[A-Z])");
+        String[] sentences = TextPatterns.SENTENCE_BREAK.split(content);
         for (String sentence : sentences) {
             sentence = sentence.trim();
             if (!sentence.endsWith(".")) sentence += ".";
@@ -383,12 +397,12 @@ public class ResumeAnalyzeService {
         return formatted.toString();
     }
 
-    private String formatExperienceEntry(String text, List<String> matchedKeywords) {
-        return formatSingleProject(text, matchedKeywords);
+    private String formatExperienceEntry(String text, AnalysisContext context) {
+        return formatSingleProject(text, context);
     }
 
-    private String formatProjectsSection(String projects, List<String> matchedKeywords) {
-        return formatExperienceSection(projects, matchedKeywords);
+    private String formatProjectsSection(String projects, AnalysisContext context) {
+        return formatExperienceSection(projects, context);
     }
 
     private String formatEducationSection(String education) {
@@ -405,7 +419,7 @@ public class ResumeAnalyzeService {
         StringBuilder formatted = new StringBuilder();
         String[] lines = content.split("\n");
         for (String line : lines) {
-            String trimmed = line.trim().replaceAll("^[•●■▪-]\\s*", "");
+            String trimmed = TextScanner.stripBullet(line.trim(), "•●■▪-");
             if (!trimmed.isEmpty() && trimmed.length() > 3) formatted.append("• ").append(trimmed).append("\n");
         }
         return formatted.toString();
@@ -413,7 +427,7 @@ public class ResumeAnalyzeService {
 
     private String wrapText(String text, int width) {
         StringBuilder wrapped = new StringBuilder();
-        String[] words = text.split("\\s+");
+        List<String> words = TextScanner.words(text);
         int lineLength = 0;
         for (String word : words) {
             if (lineLength + word.length() + 1 > width) { wrapped.append("\n"); lineLength = 0; }
@@ -426,7 +440,7 @@ public class ResumeAnalyzeService {
 
     private String wrapBullet(String text, int width, int indent) {
         StringBuilder wrapped = new StringBuilder();
-        String[] words = text.split("\\s+");
+        List<String> words = TextScanner.words(text);
         int lineLength = 0;
         String indentStr = " ".repeat(indent);
         boolean firstLine = true;
@@ -451,7 +465,7 @@ public class ResumeAnalyzeService {
                 "EMPLOYMENT", "SKILLS", "TECHNICAL SKILLS", "CORE COMPETENCIES",
                 "EDUCATION", "CERTIFICATIONS", "PROJECTS", "AWARDS", "PUBLICATIONS"
         };
-        String upper = line.toUpperCase().replaceAll("[^A-Z\\s]", "").trim();
+        String upper = TextScanner.keepUpperAndSpace(line.toUpperCase()).trim();
         for (String section : sections) if (upper.equals(section) || upper.startsWith(section)) return true;
         return false;
     }
@@ -468,32 +482,57 @@ public class ResumeAnalyzeService {
     public double calculatedMatchScore(String resumeText, String jobDescription) {
         if (resumeText == null || jobDescription == null) return 0.0;
 
-        List<String> allKeywords = analyzeJobDescription(jobDescription).stream()
+        return matchScore(resumeText, scoringKeywords(jobDescription));
+    }
+
+    /**
+     * Keywords used for scoring: the ranked job keywords, lowercased, minus the blacklist.
+     * Compute this once per job description and pass it to matchScore for every resume.
+     */
+    public List<String> scoringKeywords(String jobDescription) {
+        return scoringKeywords(analyzeJobDescription(jobDescription));
+    }
+
+    private List<String> scoringKeywords(List<String> jobKeywords) {
+        return jobKeywords.stream()
                 .map(String::toLowerCase)
                 .filter(k -> !blacklist.contains(k))
                 .collect(Collectors.toList());
+    }
+
+    /**
+     * Scores resume text against keywords already produced by scoringKeywords
+     */
+    public double matchScore(String resumeText, List<String> scoringKeywords) {
+        if (resumeText == null || scoringKeywords == null || scoringKeywords.isEmpty()) return 0.0;
+
+        return matchScore(resumeText, KeywordMatcher.compile(scoringKeywords));
+    }
 
-        if (allKeywords.isEmpty()) return 0.0;
+    /**
+     * Scores resume text against a matcher compiled from scoringKeywords
+     */
+    public double matchScore(String resumeText, KeywordMatcher matcher) {
+        if (resumeText == null || matcher == null || matcher.getKeywords().isEmpty()) return 0.0;
 
-        List<String> matched = mapKeywords(resumeText, allKeywords);
-        return (matched.size() / (double) allKeywords.size()) * 100.0;
+        return scorer.score(resumeText, matcher);
     }
 
     /**
      * Better skill extraction
      */
     private List<String> extractSkills(String skillsText) {
-        String normalized = skillsText.replaceAll("\\s+", " ").trim();
-        normalized = normalized.replaceAll("[•★●■▪]", " ");
-        normalized = normalized.replaceAll("\\s+", " ").replaceAll("^[&\\s]+", "").trim();
-        normalized = normalized.replaceAll("Problem\\s+solving", "Problem-solving");
-        normalized = normalized.replaceAll("(Languages|Frameworks|Tools|APIs?\\s*&?\\s*Services|Skills|Technologies)\\s*:\\s*", "");
-        String[] parts = normalized.split("[;,|]+");
+        String normalized = TextScanner.collapseWhitespace(skillsText).trim();
+        normalized = TextScanner.replaceChars(normalized, "•★●■▪", ' ');
+        normalized = TextScanner.stripLeading(TextScanner.collapseWhitespace(normalized), "&").trim();
+        normalized = TextPatterns.PROBLEM_SOLVING.matcher(normalized).replaceAll("Problem-solving");
+        normalized = TextPatterns.SKILL_CATEGORY_LABEL.matcher(normalized).replaceAll("");
+        String[] parts = TextPatterns.SKILL_LIST_SEPARATORS.split(normalized);
         List<String> skills = new ArrayList<>();
         for (String part : parts) {
-            String skill = part.trim().replaceAll("^[-–—&\\s]+", "").trim();
+            String skill = TextScanner.stripLeading(part.trim(), "-–—&").trim();
             if (skill.isEmpty() || skill.length() < 2 || skill.length() > 60 || skill.equals("&")) continue;
-            if (skill.matches("(?i)(languages|frameworks|tools|apis?\\s*&?\\s*services|skills|technologies)")) continue;
+            if (TextPatterns.SKILL_CATEGORY_NAME.matcher(skill).matches()) continue;
             skills.add(skill);
         }
         return skills;
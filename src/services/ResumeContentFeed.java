@@ -0,0 +1,118 @@
+package services;
+
+import dao.ResumeDAO;
+import models.Resume;
+import services.ResumeParserService.ParsedResume;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ResumeDAO change notifications with the resume's content already parsed, for the indexes
+ * that are built from it (ResumeSearchIndex, DocumentFrequencies).
+ *
+ * There is one ResumeDAO listener for all of them: a saved or moved resume is parsed once
+ * (through the parse cache) on this feed's thread and the same ParsedResume is handed to
+ * every subscriber, instead of each index reading the new file itself. Subscribers are
+ * called on that thread and should pass the work on to their own. They must not modify
+ * the ParsedResume, it is shared.
+ */
+public final class ResumeContentFeed {
+
+    public interface Subscriber {
+        // A resume was saved, or its file was replaced; resume carries the new path
+        default void resumeParsed(Resume resume, ParsedResume parsed) {}
+        default void resumeDeleted(int resumeId, String userId) {}
+    }
+
+    private static ResumeContentFeed instance;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ResumeParserService parser;
+    private final ResumeDAO resumeDAO;
+    private final ExecutorService updates;
+
+    public static synchronized ResumeContentFeed getInstance() {
+        if (instance == null) {
+            instance = new ResumeContentFeed(new ResumeParserService(), new ResumeDAO());
+        }
+        return instance;
+    }
+
+    private ResumeContentFeed(ResumeParserService parser, ResumeDAO resumeDAO) {
+        this.parser = parser;
+        this.resumeDAO = resumeDAO;
+        this.updates = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "resume-content-feed");
+            t.setDaemon(true);
+            return t;
+        });
+
+        ResumeDAO.addChangeListener(new ResumeDAO.ChangeListener() {
+            @Override
+            public void resumeSaved(Resume resume) {
+                Resume copy = copyOf(resume);
+                updates.submit(() -> parsed(copy));
+            }
+
+            @Override
+            public void resumeFilePathChanged(int resumeId, String userId, String newFilePath) {
+                updates.submit(() -> {
+                    try {
+                        Resume resume = resumeDAO.getResumeById(resumeId, userId);
+                        if (resume != null) {
+                            resume.setFilePath(newFilePath);
+                            parsed(resume);
+                        }
+                    } catch (Exception e) {
+                        System.err.println("Resume content: could not load resume " + resumeId + ": " + e.getMessage());
+                    }
+                });
+            }
+
+            @Override
+            public void resumeDeleted(int resumeId, String userId) {
+                updates.submit(() -> subscribers.forEach(s -> s.resumeDeleted(resumeId, userId)));
+            }
+        });
+    }
+
+    /**
+     * Changes from now on; a subscriber loads what is already stored itself
+     */
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private void parsed(Resume resume) {
+        if (subscribers.isEmpty()) return;
+        ParsedResume parsed;
+        try {
+            parsed = parser.parseResumeForImport(new File(resume.getFilePath()));
+        } catch (Exception e) {
+            System.err.println("Resume content: skipping unreadable resume " + resume.getFilePath() + ": " + e.getMessage());
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.resumeParsed(resume, parsed);
+            } catch (RuntimeException e) {
+                System.err.println("Resume content: subscriber failed on " + resume.getFilePath() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static Resume copyOf(Resume resume) {
+        Resume copy = new Resume(resume.getUserId(), resume.getFileName(), resume.getFilePath());
+        copy.setId(resume.getId());
+        copy.setUploadedAt(resume.getUploadedAt());
+        return copy;
+    }
+}
@@ -12,56 +12,155 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
-import java.util.regex.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.poi.hwpf.HWPFDocument;
 import org.apache.poi.hwpf.extractor.WordExtractor;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import utils.FileHashUtil;
 
 /**
  * Fully rebuilt ResumeParserService (Option C: Experience + Projects merged)
  */
 public class ResumeParserService {
 
+    private static final long MAX_UPLOAD_BYTES = 5L * 1024 * 1024;
+    private static final long MAX_BULK_IMPORT_BYTES = 50L * 1024 * 1024;
+
+    // Part of every parse cache key. Bump it whenever a change here alters what a file
+    // parses to, so results cached by the older code are not served any more.
+    // 2: entries carry the raw text
+    static final int PARSER_VERSION = 2;
+
+    // PDF extraction tuning
+    private static final int PARALLEL_MIN_PAGES = 8;
+    private static final int PAGES_PER_RANGE = 4;
+    private static final int PDF_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long PDF_MAIN_MEMORY_BYTES = 16L * 1024 * 1024;
+
+    private static ExecutorService pdfWorkers;
+
     // ---------------------------------------------------------
     // Parsed Resume Object
     // ---------------------------------------------------------
     public static class ParsedResume {
-        private String fullText;
+        private String rawText;       // as extracted, for showing, editing and exporting
+        private String fullText;      // normalized, for parsing and scoring
         private Map<String, String> sections = new HashMap<>();
         private List<String> experiences = new ArrayList<>();
+        private SectionIndex index;   // set by parseText; null for results loaded from the cache tables
 
+        public String getRawText() { return rawText; }
         public String getFullText() { return fullText; }
         public Map<String, String> getSections() { return sections; }
         public List<String> getExperiences() { return experiences; }
 
+        public void setRawText(String rawText) { this.rawText = rawText; }
         public void setFullText(String fullText) { this.fullText = fullText; }
-        public void setSections(Map<String, String> sections) { this.sections = sections; }
+        public void setSections(Map<String, String> sections) { this.sections = sections; this.index = null; }
         public void setExperiences(List<String> experiences) { this.experiences = experiences; }
+
+        /**
+         * The named section without copying it out of the full text, or null if there is none
+         */
+        public CharSequence getSection(String name) {
+            return index != null ? index.section(name) : sections.get(name);
+        }
+
+        // Sections and experiences become read-only views over the indexed text
+        void setIndex(SectionIndex index) {
+            this.sections = index.sections();
+            this.experiences = index.experiences();
+            this.index = index;
+        }
+
+        boolean isIndexed() { return index != null; }
     }
 
     // ---------------------------------------------------------
     // Public main API
     // ---------------------------------------------------------
     public ParsedResume parseResumeComplete(File file) throws IOException {
-        validateFile(file);
+        validateFile(file, MAX_UPLOAD_BYTES);
+        return parseCached(file);
+    }
 
-        String rawText = extractText(file);
-        rawText = normalizeText(rawText);
+    /**
+     * Same as parseResumeComplete but with the larger bulk-import size limit.
+     * Large PDFs are extracted page range by page range on parallel workers.
+     */
+    public ParsedResume parseResumeForImport(File file) throws IOException {
+        validateFile(file, MAX_BULK_IMPORT_BYTES);
+        return parseCached(file);
+    }
 
-        ParsedResume parsed = new ParsedResume();
-        parsed.setFullText(rawText);
+    /**
+     * Normalized full text of a resume, served from the parse cache when possible.
+     * Unlike parseResumeComplete this does not enforce the upload size limit.
+     */
+    public String readFullText(File file) throws IOException {
+        String name = file.getName().toLowerCase();
+        if (!name.endsWith(".pdf") && !name.endsWith(".docx") && !name.endsWith(".doc")) {
+            return extractText(file);
+        }
+        return parseCached(file).getFullText();
+    }
 
-        Map<String, String> sections = extractSections(rawText);
-        parsed.setSections(sections);
+    /**
+     * Text of a resume as extracted, with its bullets, dashes and blank lines, served from the
+     * parse cache when possible. This is what is shown, edited and exported; readFullText is
+     * for matching.
+     */
+    public String readRawText(File file) throws IOException {
+        String name = file.getName().toLowerCase();
+        if (!name.endsWith(".pdf") && !name.endsWith(".docx") && !name.endsWith(".doc")) {
+            return extractText(file);
+        }
+        String rawText = parseCached(file).getRawText();
+        return rawText != null ? rawText : extractText(file);
+    }
 
-        // Experience splitting (Option C: Combined experience/projects)
-        List<String> experiences = splitExperienceBlocks(
-                sections.getOrDefault("experience", "")
-        );
-        parsed.setExperiences(experiences);
+    // ---------------------------------------------------------
+    // Cache lookup (keyed by SHA-256 of the file bytes)
+    // ---------------------------------------------------------
+    private ParsedResume parseCached(File file) throws IOException {
+        String contentHash = FileHashUtil.sha256(file.toPath());
+        ParsedResumeCache cache = ParsedResumeCache.getInstance();
+
+        ParsedResume cached = cache.get(contentHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        ParsedResume parsed = parse(file);
+        cache.put(contentHash, parsed);
+        return parsed;
+    }
+
+    private ParsedResume parse(File file) throws IOException {
+        return parseText(extractText(file));
+    }
+
+    /**
+     * Normalizes already-extracted text and splits it into sections and experience blocks.
+     * No file access and no cache, so it's also what the parse benchmarks measure.
+     */
+    public ParsedResume parseText(String rawText) {
+        String text = normalizeText(rawText);
+
+        ParsedResume parsed = new ParsedResume();
+        parsed.setRawText(rawText);
+        parsed.setFullText(text);
+
+        // Sections and experience blocks (Option C: combined experience/projects) are
+        // found in one pass and only copied out of the text when they are read
+        parsed.setIndex(SectionIndex.of(text));
 
         return parsed;
     }
@@ -69,7 +168,7 @@ public class ResumeParserService {
     // ---------------------------------------------------------
     // Validation
     // ---------------------------------------------------------
-    private void validateFile(File file) {
+    private void validateFile(File file, long maxBytes) {
         if (!file.exists())
             throw new IllegalArgumentException("File does not exist");
 
@@ -77,8 +176,8 @@ public class ResumeParserService {
         if (!name.endsWith(".pdf") && !name.endsWith(".docx") && !name.endsWith(".doc"))
             throw new IllegalArgumentException("Invalid file type (.pdf, .docx, .doc only)");
 
-        if (file.length() > 5 * 1024 * 1024)
-            throw new IllegalArgumentException("File too large (max 5MB)");
+        if (file.length() > maxBytes)
+            throw new IllegalArgumentException("File too large (max " + (maxBytes / (1024 * 1024)) + "MB)");
     }
 
     // ---------------------------------------------------------
@@ -94,10 +193,73 @@ public class ResumeParserService {
         return "";
     }
 
+    // Small PDFs (every normal resume) are stripped in one go; longer ones are split
+    // into page ranges, each loaded and stripped by its own worker, then joined in order.
+    // All loads use a capped main-memory buffer that spills to a scratch file, so peak
+    // heap is bounded by workers x PDF_MAIN_MEMORY_BYTES plus the extracted text.
     private String extractPDF(File file) throws IOException {
-        try (PDDocument doc = PDDocument.load(file)) {
-            return new PDFTextStripper().getText(doc);
+        int pageCount;
+        try (PDDocument doc = PDDocument.load(file, pdfMemory())) {
+            pageCount = doc.getNumberOfPages();
+            if (pageCount < PARALLEL_MIN_PAGES || PDF_WORKERS == 1) {
+                return new PDFTextStripper().getText(doc);
+            }
+        }
+        return extractPDFParallel(file, pageCount);
+    }
+
+    private String extractPDFParallel(File file, int pageCount) throws IOException {
+        int ranges = Math.min(PDF_WORKERS, (pageCount + PAGES_PER_RANGE - 1) / PAGES_PER_RANGE);
+        int perRange = (pageCount + ranges - 1) / ranges;
+
+        List<Future<String>> parts = new ArrayList<>();
+        for (int start = 1; start <= pageCount; start += perRange) {
+            int first = start;
+            int last = Math.min(pageCount, start + perRange - 1);
+            parts.add(pdfWorkers().submit(() -> extractPDFPages(file, first, last)));
+        }
+
+        StringBuilder text = new StringBuilder();
+        try {
+            for (Future<String> part : parts) {
+                text.append(part.get());
+            }
+        } catch (InterruptedException e) {
+            parts.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("PDF extraction interrupted", e);
+        } catch (ExecutionException e) {
+            parts.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            throw new IOException("PDF extraction failed: " + cause.getMessage(), cause);
+        }
+        return text.toString();
+    }
+
+    // PDDocument is not thread-safe, so every worker opens its own copy
+    private String extractPDFPages(File file, int firstPage, int lastPage) throws IOException {
+        try (PDDocument doc = PDDocument.load(file, pdfMemory())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(firstPage);
+            stripper.setEndPage(lastPage);
+            return stripper.getText(doc);
+        }
+    }
+
+    private static MemoryUsageSetting pdfMemory() {
+        return MemoryUsageSetting.setupMixed(PDF_MAIN_MEMORY_BYTES);
+    }
+
+    private static synchronized ExecutorService pdfWorkers() {
+        if (pdfWorkers == null) {
+            pdfWorkers = Executors.newFixedThreadPool(PDF_WORKERS, r -> {
+                Thread t = new Thread(r, "pdf-extract");
+                t.setDaemon(true);
+                return t;
+            });
         }
+        return pdfWorkers;
     }
 
     private String extractDOCX(File file) throws IOException {
@@ -126,141 +288,44 @@ public class ResumeParserService {
     }
 
     // ---------------------------------------------------------
-    // Normalization
+    // Normalization (PUBLIC)
     // ---------------------------------------------------------
-    private String normalizeText(String text) {
-        return text
-                .replace("\r", "\n")
-                .replaceAll("\n{3,}", "\n\n")
-                .replace("▪", "-")
-                .replace("•", "-")
-                .replace("●", "-")
-                .replace("■", "-")
-                .replace("–", "-")
-                .replace("—", "-")
-                .trim();
-    }
-
-    // ---------------------------------------------------------
-    // Extract Sections
-    // ---------------------------------------------------------
-    private Map<String, String> extractSections(String text) {
-        Map<String, String> sections = new LinkedHashMap<>();
-
-        // Normalize combined headers BEFORE regex
-        text = text.replaceAll("(?i)skills\\s*[/&]\\s*interests", "skills");
-        text = text.replaceAll("(?i)experience\\s*[/&]\\s*projects", "experience");
-
-        // Supported headers
-        String[] headers = {
-                "experience", "work experience", "professional experience",
-                "projects",
-                "skills", "technical skills",
-                "education",
-                "certifications", "awards", "honors",
-                "languages",
-                "interests"
-        };
-
-        // Build regex to detect headers
-        String headerRegex = "(?im)^(" + String.join("|", headers) + ")\\s*:?$";
-
-        Pattern pattern = Pattern.compile(headerRegex);
-        Matcher matcher = pattern.matcher(text);
-
-        List<Integer> indices = new ArrayList<>();
-        List<String> names = new ArrayList<>();
-
-        while (matcher.find()) {
-            indices.add(matcher.start());
-            names.add(matcher.group(1).trim().toLowerCase());
-        }
-
-        // end of document
-        indices.add(text.length());
-
-        // Build section blocks
-        for (int i = 0; i < names.size(); i++) {
-            int start = indices.get(i);
-            int end = indices.get(i + 1);
-
-            String header = names.get(i);
-            String content = text.substring(start, end)
-                    .replaceFirst("(?i)^" + Pattern.quote(header) + "\\s*:?", "")
-                    .trim();
-
-            sections.put(header, content);
-        }
-
-        // -----------------------------------------------------
-        // Auto-detect Education if missing
-        // -----------------------------------------------------
-        if (!sections.containsKey("education")) {
-            Pattern edu = Pattern.compile(
-                    "(?i)([A-Z][A-Za-z0-9 .,&-]+University[\\s\\S]{30,400})"
-            );
-            Matcher m = edu.matcher(text);
-            if (m.find()) {
-                sections.put("education", m.group(1).trim());
+    // One pass: \r becomes \n, runs of 3+ newlines become two, bullets and dashes become '-', then trim
+    public String normalizeText(String text) {
+        int n = text.length();
+        StringBuilder sb = new StringBuilder(n);
+        int newlines = 0;
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '\r' || c == '\n') {
+                newlines++;
+                continue;
             }
-        }
-
-        // -----------------------------------------------------
-        // Fallback SKILL extraction if no SKILLS section present
-        // -----------------------------------------------------
-        if (!sections.containsKey("skills")) {
-            Pattern skillPattern = Pattern.compile(
-                    "(?i)(skills?)[:\\s\\n-]+([\\s\\S]{20,200})(?=\\n[A-Z][A-Za-z ]+:|$)"
-            );
-            Matcher sm = skillPattern.matcher(text);
-            if (sm.find()) {
-                sections.put("skills", cleanSkills(sm.group(2)));
+            if (newlines > 0) {
+                sb.append(newlines >= 2 ? "\n\n" : "\n");
+                newlines = 0;
+            }
+            switch (c) {
+                case '▪', '•', '●', '■', '–', '—' -> sb.append('-');
+                default -> sb.append(c);
             }
-        } else {
-            sections.put("skills", cleanSkills(sections.get("skills")));
         }
-
-        return sections;
-    }
-
-    // ---------------------------------------------------------
-    // Clean Skills Block
-    // ---------------------------------------------------------
-    private String cleanSkills(String block) {
-        block = block
-                .replaceAll("(?i)interests?:.*", "")
-                .replaceAll("(?i)languages?:.*", "")
-                .trim();
-
-        String[] parts = block.split("[-,\\n]+");
-
-        List<String> cleaned = new ArrayList<>();
-        for (String p : parts) {
-            p = p.trim();
-            if (p.length() > 1) cleaned.add(p);
+        if (newlines > 0) {
+            sb.append(newlines >= 2 ? "\n\n" : "\n");
         }
 
-        return String.join(", ", cleaned);
+        // trim() on the builder, so the text is copied out once
+        int start = 0;
+        int end = sb.length();
+        while (start < end && sb.charAt(start) <= ' ') start++;
+        while (end > start && sb.charAt(end - 1) <= ' ') end--;
+        return sb.substring(start, end);
     }
 
     // ---------------------------------------------------------
-    // Split Experience Blocks
+    // Extract Sections (PUBLIC)
     // ---------------------------------------------------------
-    private List<String> splitExperienceBlocks(String text) {
-        List<String> blocks = new ArrayList<>();
-
-        if (text == null || text.isEmpty()) return blocks;
-
-        // Split on lines starting with capitalized titles
-        String[] candidates = text.split("(?m)^(?=[A-Z][A-Za-z0-9 ]{3,})");
-
-        for (String c : candidates) {
-            c = c.trim();
-            if (c.length() > 60) {
-                blocks.add(c);
-            }
-        }
-
-        return blocks;
+    public Map<String, String> extractSections(String text) {
+        return SectionIndex.of(text).sections();
     }
 }
@@ -0,0 +1,651 @@
+package services;
+
+import dao.ResumeDAO;
+import models.Resume;
+import services.ResumeParserService.ParsedResume;
+import utils.TextScanner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the content of stored resumes, ranked with BM25.
+ *
+ * Each resume is indexed from its ParsedResume sections (the full text when no section was
+ * found) plus its list of skills. Terms are the same tokens the keyword code uses: runs of
+ * [a-z0-9+] after lowercasing. Query syntax:
+ *
+ *   kubernetes go              both terms (AND is implied)
+ *   kubernetes AND go          the same
+ *   java OR kotlin             either side
+ *   "machine learning"         a phrase, the words in order within one section
+ *   skill:go  skill:"ci/cd"    an entry of the resume's skills list
+ *   NOT php  or  -php          exclude
+ *
+ * AND binds tighter than OR. A resume's score is the best score among the OR groups it
+ * matches. Terms and phrases are scored with BM25 (phrases by summing their terms' idf,
+ * the way Lucene does); skills add their idf. Postings keep each term's positions so a phrase
+ * is checked from the positions of its own terms only.
+ *
+ * getInstance() is the index over the resumes table behind the Saved Resumes search box. It
+ * is built on the first search and kept up to date through ResumeContentFeed, which parses
+ * each change once for every index; they are applied on a background thread.
+ * new ResumeSearchIndex() gives a standalone index filled with add().
+ */
+public class ResumeSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SECTION_GAP = 2;   // positions skipped between sections, so phrases don't span them
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private static ResumeSearchIndex instance;
+
+    // ---------------------------------------------------------
+    // Search Hit Object
+    // ---------------------------------------------------------
+    public static class Hit {
+        private final Resume resume;
+        private final double score;
+
+        Hit(Resume resume, double score) {
+            this.resume = resume;
+            this.score = score;
+        }
+
+        public Resume getResume() { return resume; }
+        public double getScore() { return score; }
+    }
+
+    // Internal doc numbers only ever grow, so appending keeps every postings list sorted.
+    // The positions of posting i are positions[offsets[i] .. offsets[i] + freqs[i]).
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int[] offsets = new int[4];
+        int[] positions = new int[8];
+        int size;
+        int positionCount;
+
+        void append(int doc, int[] docPositions, int from, int count) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            if (positionCount + count > positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(positions.length * 2, positionCount + count));
+            }
+            docs[size] = doc;
+            freqs[size] = count;
+            offsets[size] = positionCount;
+            System.arraycopy(docPositions, from, positions, positionCount, count);
+            positionCount += count;
+            size++;
+        }
+
+        void remove(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i < 0) return;
+            int freq = freqs[i];
+            int offset = offsets[i];
+            System.arraycopy(positions, offset + freq, positions, offset, positionCount - offset - freq);
+            positionCount -= freq;
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            System.arraycopy(freqs, i + 1, freqs, i, size - i - 1);
+            System.arraycopy(offsets, i + 1, offsets, i, size - i - 1);
+            size--;
+            for (int j = i; j < size; j++) offsets[j] -= freq;
+        }
+
+        // Position of doc at or after from, or -1
+        int find(int doc, int from) {
+            int i = Arrays.binarySearch(docs, from, size, doc);
+            return i >= 0 ? i : -1;
+        }
+
+        boolean hasPosition(int posting, int position) {
+            return Arrays.binarySearch(positions, offsets[posting], offsets[posting] + freqs[posting], position) >= 0;
+        }
+    }
+
+    private static final class Doc {
+        final Resume resume;
+        final int length;        // tokens, for BM25 length normalization
+        final int[] termIds;     // distinct terms, to unlink the doc on removal
+        final String[] skills;
+
+        Doc(Resume resume, int length, int[] termIds, String[] skills) {
+            this.resume = resume;
+            this.length = length;
+            this.termIds = termIds;
+            this.skills = skills;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();          // by term id
+    private final Map<String, Postings> skillPostings = new HashMap<>();
+    private final Map<Integer, Integer> docByResumeId = new HashMap<>();
+    private Doc[] docs = new Doc[64];
+    private int nextDoc;
+    private int liveDocs;
+    private long totalLength;
+
+    // Only set on the shared instance
+    private ResumeParserService parser;
+    private ExecutorService updates;
+    private final CountDownLatch built = new CountDownLatch(1);
+
+    public ResumeSearchIndex() {
+        built.countDown();
+    }
+
+    public static synchronized ResumeSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new ResumeSearchIndex(new ResumeParserService(), new ResumeDAO());
+        }
+        return instance;
+    }
+
+    // Listens before loading, so nothing saved during the load is missed; replaying an
+    // event the load already saw is harmless because add() replaces
+    private ResumeSearchIndex(ResumeParserService parser, ResumeDAO resumeDAO) {
+        this.parser = parser;
+        this.updates = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "resume-search-index");
+            t.setDaemon(true);
+            return t;
+        });
+
+        ResumeContentFeed.getInstance().subscribe(new ResumeContentFeed.Subscriber() {
+            @Override
+            public void resumeParsed(Resume resume, ParsedResume parsed) {
+                updates.submit(() -> add(resume, parsed));
+            }
+
+            @Override
+            public void resumeDeleted(int resumeId, String userId) {
+                updates.submit(() -> remove(resumeId));
+            }
+        });
+
+        updates.submit(() -> {
+            try {
+                for (Resume resume : resumeDAO.getAllResumes()) {
+                    indexFile(resume);
+                }
+            } catch (Exception e) {
+                System.err.println("Search index: initial load failed: " + e.getMessage());
+            } finally {
+                built.countDown();
+            }
+        });
+    }
+
+    private void indexFile(Resume resume) {
+        try {
+            add(resume, parser.parseResumeForImport(new File(resume.getFilePath())));
+        } catch (Exception e) {
+            System.err.println("Search index: skipping unreadable resume " + resume.getFilePath() + ": " + e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Updates
+    // ---------------------------------------------------------
+
+    /**
+     * Indexes a resume, replacing whatever was indexed for the same id before
+     */
+    public void add(Resume resume, ParsedResume parsed) {
+        // Tokenize outside the lock; only the term ids need it
+        List<String> tokens = new ArrayList<>();
+        Map<String, String> sections = parsed.getSections();
+        if (sections.isEmpty()) {
+            tokenize(parsed.getFullText(), tokens);
+        } else {
+            for (String name : sections.keySet()) {
+                if (!tokens.isEmpty()) tokens.add(null);   // section break
+                tokenize(parsed.getSection(name), tokens);
+            }
+        }
+        String[] skills = skillsOf(sections.get("skills"));
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(resume.getId());
+
+            int doc = nextDoc++;
+            if (doc == docs.length) docs = Arrays.copyOf(docs, doc * 2);
+
+            // Positions of each term in this resume; slot 0 holds how many follow
+            Map<Integer, int[]> termPositions = new LinkedHashMap<>();
+            int position = 0;
+            int length = 0;
+            for (String token : tokens) {
+                if (token == null) {
+                    position += SECTION_GAP;
+                    continue;
+                }
+                int id = termIds.computeIfAbsent(token, t -> {
+                    postings.add(new Postings());
+                    return postings.size() - 1;
+                });
+                int[] at = termPositions.get(id);
+                if (at == null) {
+                    at = new int[3];
+                    termPositions.put(id, at);
+                } else if (at[0] + 1 == at.length) {
+                    at = Arrays.copyOf(at, at.length * 2);
+                    termPositions.put(id, at);
+                }
+                at[++at[0]] = position++;
+                length++;
+            }
+
+            int[] distinct = new int[termPositions.size()];
+            int n = 0;
+            for (Map.Entry<Integer, int[]> e : termPositions.entrySet()) {
+                int[] at = e.getValue();
+                postings.get(e.getKey()).append(doc, at, 1, at[0]);
+                distinct[n++] = e.getKey();
+            }
+            for (String skill : skills) {
+                skillPostings.computeIfAbsent(skill, k -> new Postings()).append(doc, NO_POSITIONS, 0, 0);
+            }
+
+            docs[doc] = new Doc(resume, length, distinct, skills);
+            docByResumeId.put(resume.getId(), doc);
+            liveDocs++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int resumeId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(resumeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int resumeId) {
+        Integer doc = docByResumeId.remove(resumeId);
+        if (doc == null) return;
+
+        Doc removed = docs[doc];
+        for (int id : removed.termIds) postings.get(id).remove(doc);
+        for (String skill : removed.skills) {
+            Postings p = skillPostings.get(skill);
+            p.remove(doc);
+            if (p.size == 0) skillPostings.remove(skill);
+        }
+        docs[doc] = null;
+        liveDocs--;
+        totalLength -= removed.length;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Search (PUBLIC)
+    // ---------------------------------------------------------
+
+    /**
+     * Best matches across every user's resumes, highest score first
+     */
+    public List<Hit> search(String query, int limit) {
+        return search(query, null, limit);
+    }
+
+    /**
+     * Best matches among one user's resumes (every user's when userId is null), highest score first.
+     * The shared index waits for its initial load before answering.
+     */
+    public List<Hit> search(String query, String userId, int limit) {
+        if (query == null || limit <= 0) return Collections.emptyList();
+        try {
+            built.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
+        }
+
+        List<List<Clause>> groups = parseQuery(query);
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Hit> top = new PriorityQueue<>(
+                    (a, b) -> a.score != b.score ? Double.compare(a.score, b.score)
+                            : Integer.compare(b.resume.getId(), a.resume.getId()));
+            ScoreSink offer = (doc, score) -> {
+                if (top.size() < limit || score > top.peek().score) {
+                    top.add(new Hit(docs[doc].resume, score));
+                    if (top.size() > limit) top.poll();
+                }
+            };
+
+            if (groups.size() == 1) {
+                evaluate(groups.get(0), userId, offer);
+            } else {
+                // Each group yields docs in ascending order; merge them, keeping a resume's best score
+                ScoredDocs merged = new ScoredDocs();
+                for (List<Clause> group : groups) {
+                    ScoredDocs matches = new ScoredDocs();
+                    evaluate(group, userId, matches::add);
+                    merged = ScoredDocs.mergeMax(merged, matches);
+                }
+                for (int i = 0; i < merged.size; i++) offer.accept(merged.docs[i], merged.scores[i]);
+            }
+
+            Hit[] ranked = new Hit[top.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) ranked[i] = top.poll();
+            return Arrays.asList(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One AND group: walk the rarest required list and probe the others
+    private interface ScoreSink {
+        void accept(int doc, double score);
+    }
+
+    // Matches of one OR group, docs ascending
+    private static final class ScoredDocs {
+        int[] docs = new int[16];
+        double[] scores = new double[16];
+        int size;
+
+        void add(int doc, double score) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        static ScoredDocs mergeMax(ScoredDocs a, ScoredDocs b) {
+            ScoredDocs out = new ScoredDocs();
+            int i = 0;
+            int j = 0;
+            while (i < a.size || j < b.size) {
+                if (j == b.size || (i < a.size && a.docs[i] < b.docs[j])) {
+                    out.add(a.docs[i], a.scores[i++]);
+                } else if (i == a.size || b.docs[j] < a.docs[i]) {
+                    out.add(b.docs[j], b.scores[j++]);
+                } else {
+                    out.add(a.docs[i], Math.max(a.scores[i++], b.scores[j++]));
+                }
+            }
+            return out;
+        }
+    }
+
+    private void evaluate(List<Clause> group, String userId, ScoreSink sink) {
+        List<Clause> required = new ArrayList<>();
+        List<Clause> excluded = new ArrayList<>();
+        for (Clause clause : group) {
+            if (!clause.resolve()) {
+                if (!clause.negated) return;    // a required term nobody has
+                continue;                       // excluding a term nobody has excludes nothing
+            }
+            (clause.negated ? excluded : required).add(clause);
+        }
+        if (required.isEmpty()) return;
+
+        Postings driver = null;
+        for (Clause clause : required) {
+            for (Postings p : clause.lists) {
+                if (driver == null || p.size < driver.size) driver = p;
+            }
+        }
+
+        double avgLength = liveDocs == 0 ? 1 : Math.max(1, (double) totalLength / liveDocs);
+        for (int i = 0; i < driver.size; i++) {
+            int doc = driver.docs[i];
+            Doc d = docs[doc];
+            if (userId != null && !userId.equals(d.resume.getUserId())) continue;
+
+            double score = 0;
+            boolean match = true;
+            for (Clause clause : required) {
+                double s = clause.score(doc, d, avgLength);
+                if (s < 0) {
+                    match = false;
+                    break;
+                }
+                score += s;
+            }
+            if (!match) continue;
+            for (Clause clause : excluded) {
+                if (clause.score(doc, d, avgLength) >= 0) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) sink.accept(doc, score);
+        }
+    }
+
+    private double idf(int df) {
+        return Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+    }
+
+    private static double bm25(double idf, int tf, int length, double avgLength) {
+        return idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+    }
+
+    // ---------------------------------------------------------
+    // Query clauses
+    // ---------------------------------------------------------
+    private final class Clause {
+        final String[] terms;      // one for a term, several for a phrase
+        final String skill;        // set for skill: clauses
+        final boolean negated;
+
+        Postings[] lists;
+        int[] ids;
+        int[] cursors;
+        int[] tfs;
+
+        Clause(String[] terms, String skill, boolean negated) {
+            this.terms = terms;
+            this.skill = skill;
+            this.negated = negated;
+        }
+
+        // Looks up the postings; false when some part of the clause matches no resume
+        boolean resolve() {
+            if (skill != null) {
+                Postings p = skillPostings.get(skill);
+                lists = p == null ? null : new Postings[]{p};
+            } else {
+                lists = new Postings[terms.length];
+                ids = new int[terms.length];
+                for (int i = 0; i < terms.length; i++) {
+                    Integer id = termIds.get(terms[i]);
+                    if (id == null || postings.get(id).size == 0) {
+                        lists = null;
+                        break;
+                    }
+                    ids[i] = id;
+                    lists[i] = postings.get(id);
+                }
+            }
+            if (lists == null) return false;
+            cursors = new int[lists.length];
+            tfs = new int[lists.length];
+            return true;
+        }
+
+        // The clause's score for doc, or -1 if doc doesn't match. Docs arrive in ascending
+        // order, so each list is only searched from where the last probe left off.
+        double score(int doc, Doc d, double avgLength) {
+            for (int i = 0; i < lists.length; i++) {
+                int at = lists[i].find(doc, cursors[i]);
+                if (at < 0) return -1;
+                cursors[i] = at;
+                tfs[i] = lists[i].freqs[at];
+            }
+            if (skill != null) return idf(lists[0].size);
+            if (terms.length == 1) return bm25(idf(lists[0].size), tfs[0], d.length, avgLength);
+
+            int tf = phraseCount(lists, cursors);
+            if (tf == 0) return -1;
+            double idf = 0;
+            for (Postings p : lists) idf += idf(p.size);
+            return bm25(idf, tf, d.length, avgLength);
+        }
+    }
+
+    // Occurrences of the phrase in one doc: positions p of the first term where term k
+    // is at p + k. Sections are SECTION_GAP positions apart, so matches can't cross them.
+    private static int phraseCount(Postings[] lists, int[] postingIndexes) {
+        Postings first = lists[0];
+        int at = postingIndexes[0];
+        int count = 0;
+        for (int i = first.offsets[at], end = i + first.freqs[at]; i < end; i++) {
+            int start = first.positions[i];
+            int k = 1;
+            while (k < lists.length && lists[k].hasPosition(postingIndexes[k], start + k)) k++;
+            if (k == lists.length) count++;
+        }
+        return count;
+    }
+
+    // OR-separated groups of implicitly ANDed clauses
+    private List<List<Clause>> parseQuery(String query) {
+        List<List<Clause>> groups = new ArrayList<>();
+        List<Clause> group = new ArrayList<>();
+        boolean negateNext = false;
+
+        int i = 0;
+        int n = query.length();
+        while (i < n) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            boolean negated = negateNext;
+            negateNext = false;
+            if (c == '-') {
+                negated = true;
+                i++;
+                if (i >= n) break;
+                c = query.charAt(i);
+            }
+
+            String skill = null;
+            if (query.startsWith("skill:", i)) {
+                i += 6;
+                int end;
+                if (i < n && query.charAt(i) == '"') {
+                    end = query.indexOf('"', i + 1);
+                    if (end < 0) end = n;
+                    skill = normalizeSkill(query.substring(i + 1, end));
+                    i = Math.min(n, end + 1);
+                } else {
+                    end = i;
+                    while (end < n && !Character.isWhitespace(query.charAt(end))) end++;
+                    skill = normalizeSkill(query.substring(i, end));
+                    i = end;
+                }
+                if (!skill.isEmpty()) group.add(new Clause(null, skill, negated));
+                continue;
+            }
+
+            String text;
+            if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) end = n;
+                text = query.substring(i + 1, end);
+                i = Math.min(n, end + 1);
+            } else {
+                int end = i;
+                while (end < n && !Character.isWhitespace(query.charAt(end))) end++;
+                text = query.substring(i, end);
+                i = end;
+
+                if (text.equals("AND")) continue;
+                if (text.equals("NOT")) {
+                    negateNext = true;
+                    continue;
+                }
+                if (text.equals("OR")) {
+                    if (!group.isEmpty()) groups.add(group);
+                    group = new ArrayList<>();
+                    continue;
+                }
+            }
+
+            // "node.js" is two tokens, so like a quoted phrase it becomes a phrase clause
+            List<String> tokens = new ArrayList<>();
+            tokenize(text, tokens);
+            if (!tokens.isEmpty()) group.add(new Clause(tokens.toArray(new String[0]), null, negated));
+        }
+        if (!group.isEmpty()) groups.add(group);
+        return groups;
+    }
+
+    // ---------------------------------------------------------
+    // Text helpers
+    // ---------------------------------------------------------
+
+    // Runs of [a-z0-9+] after lowercasing, the tokens TermCounter counts
+    private static void tokenize(CharSequence text, List<String> out) {
+        if (text == null) return;
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '+') {
+                token.append(c);
+            } else if (token.length() > 0) {
+                out.add(token.toString());
+                token.setLength(0);
+            }
+        }
+    }
+
+    // The parser's skills section is a ", " separated list
+    private static String[] skillsOf(String skills) {
+        if (skills == null || skills.isEmpty()) return new String[0];
+        List<String> distinct = new ArrayList<>();
+        for (String skill : skills.split(",")) {
+            String normalized = normalizeSkill(skill);
+            if (!normalized.isEmpty() && !distinct.contains(normalized)) distinct.add(normalized);
+        }
+        return distinct.toArray(new String[0]);
+    }
+
+    private static String normalizeSkill(String skill) {
+        return TextScanner.collapseWhitespace(skill.trim().toLowerCase());
+    }
+}
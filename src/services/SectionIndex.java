@@ -0,0 +1,365 @@
+package services;
+
+import java.nio.CharBuffer;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+import utils.TextPatterns;
+import utils.TextScanner;
+
+/**
+ * Start/end offsets of the sections and experience blocks of one normalized resume text,
+ * found in a single pass over the text. Nothing is copied while indexing: a section is
+ * handed out as a CharSequence view over the text, and only turned into a String the
+ * first time someone asks for it through sections() or experiences().
+ *
+ * Produces the same sections, in the same order, as the substring/trim based extractor
+ * it replaced. Instances are read-only and may be shared between threads.
+ */
+public final class SectionIndex {
+
+    private final String text;
+
+    // One slot per distinct section name, in first-seen order (LinkedHashMap semantics)
+    private final List<String> names = new ArrayList<>();
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private String[] values = new String[8];   // materialized text, filled lazily
+
+    private int[] blockStarts = new int[8];
+    private int[] blockEnds = new int[8];
+    private String[] blocks = new String[8];
+    private int blockCount;
+
+    private SectionIndex(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Indexes a text that already went through ResumeParserService.normalizeText
+     */
+    public static SectionIndex of(String normalizedText) {
+        SectionIndex index = new SectionIndex(expandCombinedHeaders(normalizedText));
+        index.findSections();
+        index.findExperienceBlocks();
+        return index;
+    }
+
+    // ---------------------------------------------------------
+    // Reading
+    // ---------------------------------------------------------
+
+    /**
+     * The (possibly rewritten) text the offsets point into
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * A view of the named section without copying it, or null if the resume has no such section
+     */
+    public CharSequence section(String name) {
+        int slot = names.indexOf(name);
+        if (slot < 0) return null;
+        if (values[slot] != null) return values[slot];
+        return CharBuffer.wrap(text, starts[slot], ends[slot]);
+    }
+
+    /**
+     * Sections by name as a read-only map; each value is materialized on first access
+     */
+    public Map<String, String> sections() {
+        return new SectionMap();
+    }
+
+    /**
+     * Experience blocks as a read-only list; each block is materialized on first access
+     */
+    public List<String> experiences() {
+        return new BlockList();
+    }
+
+    // Racing threads may both build the same substring; either copy is fine to keep
+    private String value(int slot) {
+        String value = values[slot];
+        if (value == null) {
+            value = text.substring(starts[slot], ends[slot]);
+            values[slot] = value;
+        }
+        return value;
+    }
+
+    private String block(int i) {
+        String block = blocks[i];
+        if (block == null) {
+            block = text.substring(blockStarts[i], blockEnds[i]);
+            blocks[i] = block;
+        }
+        return block;
+    }
+
+    // ---------------------------------------------------------
+    // Indexing
+    // ---------------------------------------------------------
+    private void findSections() {
+        Matcher matcher = TextPatterns.SECTION_HEADER.matcher(text);
+
+        // A section runs from the end of its header name to the start of the next header
+        int pendingSlot = -1;
+        int pendingStart = 0;
+        while (matcher.find()) {
+            if (pendingSlot >= 0) setContent(pendingSlot, pendingStart, matcher.start());
+
+            String name = matcher.group(1).trim().toLowerCase();
+            pendingSlot = slotFor(name);
+            pendingStart = matcher.start() + name.length();
+        }
+        if (pendingSlot >= 0) setContent(pendingSlot, pendingStart, text.length());
+
+        // Auto-detect Education if missing
+        if (!names.contains("education")) {
+            Matcher m = TextPatterns.EDUCATION_FALLBACK.matcher(text);
+            if (m.find()) {
+                setRange(slotFor("education"), m.start(1), m.end(1));
+            }
+        }
+
+        // Skills are always cleaned, so this is the one section that is a new String rather than a view
+        int skills = names.indexOf("skills");
+        if (skills >= 0) {
+            values[skills] = cleanSkills(CharBuffer.wrap(text, starts[skills], ends[skills]));
+        } else {
+            Matcher m = TextPatterns.SKILLS_FALLBACK.matcher(text);
+            if (m.find()) {
+                skills = slotFor("skills");
+                values[skills] = cleanSkills(CharBuffer.wrap(text, m.start(2), m.end(2)));
+            }
+        }
+    }
+
+    // "Skills & Interests" becomes "skills" and "Experience / Projects" becomes "experience",
+    // the same as replacing (?i)skills\s*[/&]\s*interests and (?i)experience\s*[/&]\s*projects.
+    // Candidates are found from the '/' and '&' separators instead of trying a regex at every
+    // offset, and the text itself is returned when there are none.
+    private static String expandCombinedHeaders(String text) {
+        StringBuilder sb = null;
+        int last = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '/' && c != '&') continue;
+
+            int before = i;
+            while (before > last && TextScanner.isSpace(text.charAt(before - 1))) before--;
+            int after = i + 1;
+            while (after < text.length() && TextScanner.isSpace(text.charAt(after))) after++;
+
+            String replacement;
+            int start;
+            int end;
+            if (endsWithAscii(text, last, before, "skills") && startsWithAscii(text, after, "interests")) {
+                replacement = "skills";
+                start = before - 6;
+                end = after + 9;
+            } else if (endsWithAscii(text, last, before, "experience") && startsWithAscii(text, after, "projects")) {
+                replacement = "experience";
+                start = before - 10;
+                end = after + 8;
+            } else {
+                continue;
+            }
+
+            if (sb == null) sb = new StringBuilder(text.length());
+            sb.append(text, last, start).append(replacement);
+            last = end;
+            i = end - 1;
+        }
+        return sb == null ? text : sb.append(text, last, text.length()).toString();
+    }
+
+    // (?i) without UNICODE_CASE only folds ASCII letters
+    private static boolean startsWithAscii(String text, int from, String lowerWord) {
+        if (from + lowerWord.length() > text.length()) return false;
+        for (int k = 0; k < lowerWord.length(); k++) {
+            char c = text.charAt(from + k);
+            if (c >= 'A' && c <= 'Z') c = (char) (c + ('a' - 'A'));
+            if (c != lowerWord.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private static boolean endsWithAscii(String text, int floor, int end, String lowerWord) {
+        return end - lowerWord.length() >= floor && startsWithAscii(text, end - lowerWord.length(), lowerWord);
+    }
+
+    // A header seen again keeps its original position and takes the later content
+    private int slotFor(String name) {
+        int slot = names.indexOf(name);
+        if (slot >= 0) {
+            values[slot] = null;
+            return slot;
+        }
+        slot = names.size();
+        names.add(name);
+        if (slot == starts.length) {
+            starts = Arrays.copyOf(starts, slot * 2);
+            ends = Arrays.copyOf(ends, slot * 2);
+            values = Arrays.copyOf(values, slot * 2);
+        }
+        return slot;
+    }
+
+    // The content skips the whitespace after the header and one ':'
+    private void setContent(int slot, int start, int end) {
+        while (start < end && TextScanner.isSpace(text.charAt(start))) start++;
+        if (start < end && text.charAt(start) == ':') start++;
+        setRange(slot, start, end);
+    }
+
+    // Stores [start, end) with String.trim() whitespace removed from both ends
+    private void setRange(int slot, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        starts[slot] = start;
+        ends[slot] = end;
+    }
+
+    private static String cleanSkills(CharSequence block) {
+        String cleaned = TextPatterns.INTERESTS_LINE.matcher(block).replaceAll("");
+        cleaned = TextPatterns.LANGUAGES_LINE.matcher(cleaned).replaceAll("").trim();
+
+        StringBuilder joined = new StringBuilder(cleaned.length());
+        for (String p : TextPatterns.SKILL_SEPARATORS.split(cleaned)) {
+            p = p.trim();
+            if (p.length() > 1) {
+                if (joined.length() > 0) joined.append(", ");
+                joined.append(p);
+            }
+        }
+        return joined.toString();
+    }
+
+    // Blocks start at every line that begins with a capitalized title (Option C: experience and
+    // projects merged). The matcher runs over the section's region instead of a copy of it,
+    // and pieces are kept as offsets, same boundaries as Pattern.split on the section text.
+    private void findExperienceBlocks() {
+        int slot = names.indexOf("experience");
+        if (slot < 0 || starts[slot] == ends[slot]) return;
+        int start = starts[slot];
+        int end = ends[slot];
+
+        Matcher matcher = TextPatterns.EXPERIENCE_BLOCK_START.matcher(text);
+        matcher.region(start, end);
+        int pieceStart = start;
+        while (matcher.find()) {
+            if (matcher.start() == start) continue;   // split() drops an empty leading piece
+            addBlock(pieceStart, matcher.start());
+            pieceStart = matcher.start();
+        }
+        addBlock(pieceStart, end);
+    }
+
+    private void addBlock(int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        if (end - start <= 60) return;
+
+        if (blockCount == blockStarts.length) {
+            blockStarts = Arrays.copyOf(blockStarts, blockCount * 2);
+            blockEnds = Arrays.copyOf(blockEnds, blockCount * 2);
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+        }
+        blockStarts[blockCount] = start;
+        blockEnds[blockCount] = end;
+        blockCount++;
+    }
+
+    // ---------------------------------------------------------
+    // Read-only collection views
+    // ---------------------------------------------------------
+    private final class SectionMap extends AbstractMap<String, String> {
+        @Override
+        public String get(Object key) {
+            int slot = names.indexOf(key);
+            return slot < 0 ? null : value(slot);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return names.contains(key);
+        }
+
+        @Override
+        public int size() {
+            return names.size();
+        }
+
+        // Walking the names alone doesn't materialize any section
+        @Override
+        public Set<String> keySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return names.size();
+                }
+
+                @Override
+                public Iterator<String> iterator() {
+                    return Collections.unmodifiableList(names).iterator();
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return names.size();
+                }
+
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int slot;
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < names.size();
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            int current = slot++;
+                            return new SimpleImmutableEntry<>(names.get(current), value(current));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private final class BlockList extends AbstractList<String> {
+        @Override
+        public String get(int i) {
+            if (i < 0 || i >= blockCount) throw new IndexOutOfBoundsException(i);
+            return block(i);
+        }
+
+        @Override
+        public int size() {
+            return blockCount;
+        }
+    }
+}
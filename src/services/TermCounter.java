@@ -0,0 +1,212 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Counts the terms in a text and returns the most frequent ones, without building a String
+ * per token. A token is a run of [a-z0-9+] after ASCII lowercasing, the same tokens
+ * toLowerCase().split("[^a-zA-Z0-9+]+") produces.
+ *
+ * The text is scanned once into a lowercase char buffer. Terms are counted in an
+ * open-addressing table of primitive arrays that point back into that buffer, and the
+ * top K are picked with a bounded min-heap. All scratch arrays are per thread and reused,
+ * so the only allocations per call are the K result strings and their list.
+ * Instances are immutable and safe to share between threads.
+ */
+public class TermCounter {
+
+    private static final int STOPWORD = -1;   // count marker for terms that are never returned
+
+    private final char[][] stopwords;
+    private final int minLength;
+
+    // Reusable per-thread working memory, grown on demand
+    private static final class Scratch {
+        char[] text = new char[1024];
+        int[] slots = new int[256];       // open addressing: term index + 1, 0 = empty
+        int[] hashes = new int[128];      // per term, in first-seen order
+        int[] starts = new int[128];
+        int[] lengths = new int[128];
+        int[] counts = new int[128];
+        int[] heap = new int[32];
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * @param stopwords lowercase terms to skip
+     * @param minLength shortest term that is counted
+     */
+    public TermCounter(Collection<String> stopwords, int minLength) {
+        this.stopwords = new char[stopwords.size()][];
+        int i = 0;
+        for (String s : stopwords) {
+            this.stopwords[i++] = s.toLowerCase().toCharArray();
+        }
+        this.minLength = minLength;
+    }
+
+    /**
+     * Returns up to k terms, most frequent first; ties go to the term that appeared first
+     */
+    public List<String> topTerms(CharSequence text, int k) {
+        List<String> result = new ArrayList<>(Math.max(0, k));
+        if (text == null || k <= 0) {
+            return result;
+        }
+
+        Scratch s = SCRATCH.get();
+        int n = text.length();
+        char[] buf = s.text.length >= n ? s.text : (s.text = new char[Math.max(n, s.text.length * 2)]);
+
+        // Table sized for the worst case (every 4th char starts a new term) at load <= 0.5
+        int capacity = 256;
+        while (capacity < n / 2) capacity <<= 1;
+        if (s.slots.length < capacity) s.slots = new int[capacity];
+        int[] slots = s.slots;
+        Arrays.fill(slots, 0, capacity, 0);
+        int mask = capacity - 1;
+        int terms = 0;
+
+        int start = -1;
+        int hash = 0;
+        for (int i = 0; i <= n; i++) {
+            char c = i < n ? lower(text.charAt(i)) : 0;
+            boolean wordChar = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '+';
+            if (wordChar) {
+                buf[i] = c;
+                if (start < 0) {
+                    start = i;
+                    hash = 0;
+                }
+                hash = hash * 31 + c;
+                continue;
+            }
+            if (start < 0) {
+                continue;
+            }
+
+            int length = i - start;
+            if (length >= minLength) {
+                int h = hash ^ (hash >>> 16);
+                int slot = h & mask;
+                while (true) {
+                    int entry = slots[slot];
+                    if (entry == 0) {
+                        if (terms == s.hashes.length) grow(s);
+                        s.hashes[terms] = h;
+                        s.starts[terms] = start;
+                        s.lengths[terms] = length;
+                        s.counts[terms] = isStopword(buf, start, length) ? STOPWORD : 1;
+                        slots[slot] = ++terms;
+                        break;
+                    }
+                    int t = entry - 1;
+                    if (s.hashes[t] == h && s.lengths[t] == length && sameChars(buf, s.starts[t], start, length)) {
+                        if (s.counts[t] != STOPWORD) s.counts[t]++;
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+            start = -1;
+        }
+
+        // Bounded min-heap of term indexes: the root is the weakest of the current top k
+        if (s.heap.length < k) s.heap = new int[k];
+        int[] heap = s.heap;
+        int size = 0;
+        for (int t = 0; t < terms; t++) {
+            if (s.counts[t] == STOPWORD) continue;
+            if (size < k) {
+                heap[size] = t;
+                siftUp(heap, size++, s.counts);
+            } else if (ranksAbove(t, heap[0], s.counts)) {
+                heap[0] = t;
+                siftDown(heap, size, s.counts);
+            }
+        }
+
+        // Pop weakest first, filling the result from the back
+        String[] ordered = new String[size];
+        for (int i = size - 1; i >= 0; i--) {
+            int t = heap[0];
+            ordered[i] = new String(buf, s.starts[t], s.lengths[t]);
+            heap[0] = heap[--size];
+            siftDown(heap, size, s.counts);
+        }
+        for (String term : ordered) result.add(term);
+        return result;
+    }
+
+    // Same result as String.toLowerCase() for every char that can end up in a token
+    private static char lower(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);   // e.g. KELVIN SIGN -> 'k'
+    }
+
+    private boolean isStopword(char[] buf, int start, int length) {
+        for (char[] stop : stopwords) {
+            if (stop.length == length && sameChars(buf, start, stop, length)) return true;
+        }
+        return false;
+    }
+
+    private static boolean sameChars(char[] buf, int a, int b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buf[a + i] != buf[b + i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean sameChars(char[] buf, int start, char[] word, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buf[start + i] != word[i]) return false;
+        }
+        return true;
+    }
+
+    // Higher count wins; on a tie the earlier term (lower index) wins
+    private static boolean ranksAbove(int a, int b, int[] counts) {
+        return counts[a] != counts[b] ? counts[a] > counts[b] : a < b;
+    }
+
+    private static void siftUp(int[] heap, int i, int[] counts) {
+        int t = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksAbove(heap[parent], t, counts)) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = t;
+    }
+
+    private static void siftDown(int[] heap, int size, int[] counts) {
+        if (size == 0) return;
+        int t = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && ranksAbove(heap[child], heap[child + 1], counts)) child++;
+            if (!ranksAbove(t, heap[child], counts)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = t;
+    }
+
+    private static void grow(Scratch s) {
+        int size = s.hashes.length * 2;
+        s.hashes = Arrays.copyOf(s.hashes, size);
+        s.starts = Arrays.copyOf(s.starts, size);
+        s.lengths = Arrays.copyOf(s.lengths, size);
+        s.counts = Arrays.copyOf(s.counts, size);
+    }
+}
@@ -0,0 +1,127 @@
+package services;
+
+import dao.TextSearchDAO;
+import dao.TextSearchDAO.Match;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Search over the user's past analyses, answered by the tailored_fts table in the database.
+ * Used by the upload flow (has this job description been analyzed before?) and the saved
+ * resumes search (which resumes were analyzed for "acme"?).
+ *
+ * tailored_fts is kept in step with tailored_resumes by triggers. The first getInstance()
+ * rebuilds it on a background thread if it is out of step (rows saved before the triggers
+ * existed), and searches wait for that.
+ *
+ * Queries are plain words, e.g. "kubernetes go" finds analyses containing both. Words are
+ * quoted before they reach MATCH, so FTS5 operators and punctuation in user input are inert.
+ * Snippets mark matched words with HIGHLIGHT_OPEN / HIGHLIGHT_CLOSE.
+ */
+public class TextSearchService {
+
+    public static final String HIGHLIGHT_OPEN = "[";
+    public static final String HIGHLIGHT_CLOSE = "]";
+
+    // Top job description terms used to look up past analyses of a similar JD
+    private static final int JD_LOOKUP_TERMS = 12;
+    private static final TermCounter JD_TERMS = new TermCounter(ResumeAnalyzeService.STOPWORDS, 3);
+
+    private static TextSearchService instance;
+
+    private final TextSearchDAO searchDAO;
+    private final CountDownLatch checked = new CountDownLatch(1);
+
+    public static synchronized TextSearchService getInstance() {
+        if (instance == null) {
+            instance = new TextSearchService(new TextSearchDAO());
+        }
+        return instance;
+    }
+
+    private TextSearchService(TextSearchDAO searchDAO) {
+        this.searchDAO = searchDAO;
+        ExecutorService startup = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "text-search-index");
+            t.setDaemon(true);
+            return t;
+        });
+        startup.submit(this::rebuildIfStale);
+        startup.shutdown();
+    }
+
+    private void rebuildIfStale() {
+        try {
+            if (searchDAO.rebuildTailoredIndexIfStale()) {
+                System.out.println("Text search: rebuilt the analysis index");
+            }
+        } catch (SQLException e) {
+            System.err.println("Text search: could not check the analysis index: " + e.getMessage());
+        } finally {
+            checked.countDown();
+        }
+    }
+
+    private void awaitCheck() {
+        try {
+            checked.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Public search API
+    // ---------------------------------------------------------
+
+    /**
+     * The user's analyses containing every word of the query in the job title, company,
+     * job description or tailored text
+     */
+    public List<Match> searchAnalyses(String userId, String query, int limit) throws SQLException {
+        String match = toMatchQuery(words(query), " ");
+        if (match.isEmpty()) return new ArrayList<>();
+        awaitCheck();
+        return searchDAO.searchTailored(userId, match, HIGHLIGHT_OPEN, HIGHLIGHT_CLOSE, limit);
+    }
+
+    /**
+     * Past analyses whose job description shares key terms with this one, most similar first.
+     * Answers "have I already analyzed against this JD (or one like it)?"
+     */
+    public List<Match> findAnalyzedJobs(String userId, String jobDescription, int limit) throws SQLException {
+        String match = toMatchQuery(JD_TERMS.topTerms(jobDescription, JD_LOOKUP_TERMS), " OR ");
+        if (match.isEmpty()) return new ArrayList<>();
+        awaitCheck();
+        return searchDAO.searchJobDescriptions(userId, match, HIGHLIGHT_OPEN, HIGHLIGHT_CLOSE, limit);
+    }
+
+    // Letter/digit runs of the query. Anything else (quotes, '*', ':', '-') only separates words
+    static List<String> words(String query) {
+        List<String> words = new ArrayList<>();
+        if (query == null) return words;
+        int i = 0;
+        while (i < query.length()) {
+            while (i < query.length() && !Character.isLetterOrDigit(query.charAt(i))) i++;
+            int start = i;
+            while (i < query.length() && Character.isLetterOrDigit(query.charAt(i))) i++;
+            if (i > start) words.add(query.substring(start, i));
+        }
+        return words;
+    }
+
+    // Every word becomes an FTS5 string ("word"), so none of them can be read as an operator
+    static String toMatchQuery(List<String> words, String joiner) {
+        StringBuilder sb = new StringBuilder();
+        for (String word : words) {
+            if (sb.length() > 0) sb.append(joiner);
+            sb.append('"').append(word.replace("\"", "\"\"")).append('"');
+        }
+        return sb.toString();
+    }
+}
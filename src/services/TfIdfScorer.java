@@ -0,0 +1,42 @@
+package services;
+
+import java.util.List;
+
+/**
+ * TF-IDF match score: the cosine between the job's keywords, each weighted by its idf, and
+ * the resume's counts of those keywords, weighted (1 + ln tf) * idf. Only the keyword
+ * dimensions are compared, so a resume that contains every keyword in proportion scores 100
+ * however long it is. idf is smoothed, ln((N + 1) / (df + 1)) + 1, so it stays positive
+ * and an empty corpus weighs every keyword the same.
+ */
+public class TfIdfScorer implements MatchScorer {
+
+    private final DocumentFrequencies corpus;
+
+    public TfIdfScorer(DocumentFrequencies corpus) {
+        this.corpus = corpus;
+    }
+
+    @Override
+    public double score(CharSequence resumeText, KeywordMatcher keywords) {
+        List<String> terms = keywords.getKeywords();
+        if (resumeText == null || terms.isEmpty()) return 0.0;
+
+        int[] counts = keywords.count(resumeText);
+        int documents = corpus.documentCount();
+
+        double dot = 0;
+        double queryNorm = 0;
+        double resumeNorm = 0;
+        for (int i = 0; i < counts.length; i++) {
+            double idf = Math.log((documents + 1.0) / (corpus.documentFrequency(terms.get(i)) + 1.0)) + 1.0;
+            queryNorm += idf * idf;
+            if (counts[i] == 0) continue;
+            double weight = (1 + Math.log(counts[i])) * idf;
+            dot += idf * weight;
+            resumeNorm += weight * weight;
+        }
+        if (dot == 0) return 0.0;
+        return dot / (Math.sqrt(queryNorm) * Math.sqrt(resumeNorm)) * 100.0;
+    }
+}
@@ -47,6 +47,11 @@ public class TwilioService {
             props.put("mail.smtp.port", SMTP_PORT);
             props.put("mail.smtp.ssl.trust", SMTP_HOST);
             props.put("mail.smtp.ssl.protocols", "TLSv1.2");
+            // Give up on an unresponsive server instead of blocking the sending thread indefinitely
+            String timeoutMillis = String.valueOf(Constants.Timeouts.EMAIL.toMillis());
+            props.put("mail.smtp.connectiontimeout", timeoutMillis);
+            props.put("mail.smtp.timeout", timeoutMillis);
+            props.put("mail.smtp.writetimeout", timeoutMillis);
 
             // Create email session with authentication
             this.emailSession = Session.getInstance(props, new Authenticator() {
@@ -0,0 +1,96 @@
+package services;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BlockingTaskExecutor that gives every task its own virtual thread. A virtual thread
+ * blocked on a socket or a lock costs next to nothing, so unlike SwingWorker's pool of ten
+ * there is nothing for slow servers to exhaust.
+ *
+ * Virtual threads need Java 21; the factories are looked up reflectively so the code still
+ * builds and runs on 17, where newExecutor falls back to daemon platform threads. The
+ * timeouts are then what keeps stuck tasks from piling up.
+ */
+public final class VirtualThreadTaskExecutor implements BlockingTaskExecutor {
+
+    private static VirtualThreadTaskExecutor shared;
+
+    // One timer thread for every executor; it only ever completes futures
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "task-timeouts");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ExecutorService executor;
+
+    public VirtualThreadTaskExecutor(String name) {
+        this.executor = newExecutor(name, 0);
+    }
+
+    static synchronized VirtualThreadTaskExecutor shared() {
+        if (shared == null) {
+            shared = new VirtualThreadTaskExecutor("blocking-io");
+        }
+        return shared;
+    }
+
+    /**
+     * One virtual thread per task, named name-1, name-2, ... when the JVM has virtual threads.
+     * Otherwise daemon platform threads: a fixed pool of platformThreads, or a pool that grows
+     * as needed when platformThreads is 0.
+     */
+    public static ExecutorService newExecutor(String name, int platformThreads) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            return platformThreads > 0
+                    ? Executors.newFixedThreadPool(platformThreads, factory)
+                    : Executors.newCachedThreadPool(factory);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(Callable<T> task, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        ScheduledFuture<?> timer = TIMEOUTS.schedule(() -> {
+            String limit = timeout.toMillis() < 1000 ? timeout.toMillis() + " ms" : timeout.toSeconds() + " seconds";
+            result.completeExceptionally(new TimeoutException("Timed out after " + limit));
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Timed out or cancelled: interrupt the task, which is still running
+        result.whenComplete((value, error) -> {
+            timer.cancel(false);
+            if (result.isCancelled() || error instanceof TimeoutException) running.cancel(true);
+        });
+        return result;
+    }
+}
@@ -49,6 +49,9 @@ public class ResumeAnalyzingContainer extends JFrame {
     // Reference to inner UploadPanel for controllers
     private UploadPanel uploadPanel;
 
+    // Runs after the session is cleared on logout
+    private Runnable onLogout;
+
     public ResumeAnalyzingContainer() {
         super("Resume Analyzer");
 
@@ -82,6 +85,7 @@ public class ResumeAnalyzingContainer extends JFrame {
                 if (result != JOptionPane.YES_OPTION) return;
 
                 try { utils.Constants.Session.logout(); } catch (Throwable ignored) {}
+                if (onLogout != null) onLogout.run();
 
                 JOptionPane.showMessageDialog(
                         this,
@@ -122,6 +126,7 @@ public class ResumeAnalyzingContainer extends JFrame {
     public void setOnNavBuild(ActionListener l)    { buildResumeButton.addActionListener(l); }
     public void setOnNavSaved(ActionListener l)    { savedResumesButton.addActionListener(l); }
     public void setOnNavProfile(ActionListener l)  { profileButton.addActionListener(l); }
+    public void setOnLogout(Runnable r)            { this.onLogout = r; }
 
     public void showHome()     { go(CARD_HOME); }
     public void showBuild()    { go(CARD_BUILD); }
@@ -395,7 +395,7 @@ public class ResumeEditFrame extends JFrame {
 
         try {
             ResumeParserService parser = new ResumeParserService();
-            return parser.extractText(file);
+            return parser.readRawText(file);
         } catch (IOException e) {
             return "(Error reading file: " + e.getMessage() + ")";
         }
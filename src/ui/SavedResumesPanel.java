@@ -7,21 +7,42 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.plaf.basic.BasicButtonUI; // <- add this import
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 public class SavedResumesPanel extends JPanel {
 
     private final JButton sortByDateBtn;
     private final JButton sortByNameBtn;
+    private final JButton rankBtn;
+    private final JTextField searchField;
     private final JButton uploadBtn;
+    private final JButton importBtn;
+    private final JButton exportBtn;
+    private final JProgressBar importProgress;
+    private final JLabel importStatus;
     private final JPanel listPanel;
     private final JLabel emptyLabel;
 
+    // Resumes on screen and the ids of the ones ticked for bulk export
+    private final List<Resume> shownResumes = new ArrayList<>();
+    private final Set<Integer> selectedIds = new LinkedHashSet<>();
+    // Extra line per card by resume id, e.g. its match score when ranked for a job
+    private final Map<Integer, String> cardNotes = new HashMap<>();
+
     // Callbacks provided by controller
     private Runnable onUpload;
+    private Runnable onImportFolder;
+    private Runnable onBulkExport;
     private Runnable onSortByDate;
     private Runnable onSortByName;
+    private Consumer<String> onSearch;
+    private Runnable onRankForJob;
     private Consumer<Resume> onEdit;
     private Consumer<Resume> onDelete;
     private Consumer<Resume> onExportPdf;
@@ -31,7 +52,7 @@ public class SavedResumesPanel extends JPanel {
         setLayout(new BorderLayout());
         setBackground(Color.WHITE);
 
-        // TOP BAR (title + sort buttons on the right)
+        // TOP BAR (title + search box and sort buttons on the right)
         JPanel topBar = new JPanel(new BorderLayout());
         topBar.setBackground(Color.WHITE);
         topBar.setBorder(new EmptyBorder(10, 16, 10, 16));
@@ -43,8 +64,23 @@ public class SavedResumesPanel extends JPanel {
         JPanel sortPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
         sortPanel.setOpaque(false);
 
+        // Searches the resume contents: words, "a phrase", skill:name, OR, -exclude; then the analyses
+        searchField = new JTextField(18);
+        searchField.setFont(searchField.getFont().deriveFont(12f));
+        searchField.setToolTipText("Search resume contents and analyses: words, \"a phrase\", skill:go, java OR kotlin, -php");
+        searchField.addActionListener(e -> {
+            if (onSearch != null) onSearch.accept(searchField.getText().trim());
+        });
+
+        JButton clearSearchBtn = createChipButton("Clear");
+        clearSearchBtn.addActionListener(e -> {
+            searchField.setText("");
+            if (onSearch != null) onSearch.accept("");
+        });
+
         sortByDateBtn = createChipButton("Sort by date");
         sortByNameBtn = createChipButton("Sort by name");
+        rankBtn = createChipButton("Rank for a job…");
 
         sortByDateBtn.addActionListener(e -> {
             if (onSortByDate != null) onSortByDate.run();
@@ -52,9 +88,15 @@ public class SavedResumesPanel extends JPanel {
         sortByNameBtn.addActionListener(e -> {
             if (onSortByName != null) onSortByName.run();
         });
+        rankBtn.addActionListener(e -> {
+            if (onRankForJob != null) onRankForJob.run();
+        });
 
+        sortPanel.add(searchField);
+        sortPanel.add(clearSearchBtn);
         sortPanel.add(sortByDateBtn);
         sortPanel.add(sortByNameBtn);
+        sortPanel.add(rankBtn);
 
         topBar.add(title, BorderLayout.WEST);
         topBar.add(sortPanel, BorderLayout.EAST);
@@ -105,7 +147,34 @@ public class SavedResumesPanel extends JPanel {
             if (onUpload != null) onUpload.run();
         });
 
+        importBtn = new JButton("Import folder");
+        stylePrimaryButton(importBtn);
+        importBtn.addActionListener(e -> {
+            if (onImportFolder != null) onImportFolder.run();
+        });
+
+        exportBtn = new JButton("Export all");
+        stylePrimaryButton(exportBtn);
+        exportBtn.addActionListener(e -> {
+            if (onBulkExport != null) onBulkExport.run();
+        });
+
+        // Bulk import / export progress, only shown while one is running
+        importProgress = new JProgressBar(0, 100);
+        importProgress.setStringPainted(true);
+        importProgress.setPreferredSize(new Dimension(220, 20));
+        importProgress.setVisible(false);
+
+        importStatus = new JLabel();
+        importStatus.setForeground(new Color(0x374151));
+        importStatus.setFont(importStatus.getFont().deriveFont(11f));
+        importStatus.setVisible(false);
+
         bottomBar.add(uploadBtn);
+        bottomBar.add(importBtn);
+        bottomBar.add(exportBtn);
+        bottomBar.add(importProgress);
+        bottomBar.add(importStatus);
         add(bottomBar, BorderLayout.SOUTH);
     }
 
@@ -169,7 +238,22 @@ public class SavedResumesPanel extends JPanel {
 
     // Public API used by controller
     public void showResumes(List<Resume> resumes) {
+        showResumes(resumes, Map.of());
+    }
+
+    // Same, with an extra line on the cards of the resumes that have a note
+    public void showResumes(List<Resume> resumes, Map<Integer, String> notes) {
         listPanel.removeAll();
+        cardNotes.clear();
+        cardNotes.putAll(notes);
+
+        // Keep the selection for resumes that are still listed
+        shownResumes.clear();
+        if (resumes != null) shownResumes.addAll(resumes);
+        Set<Integer> stillShown = new LinkedHashSet<>();
+        for (Resume r : shownResumes) stillShown.add(r.getId());
+        selectedIds.retainAll(stillShown);
+        updateExportButton();
 
         if (resumes == null || resumes.isEmpty()) {
             listPanel.add(emptyLabel);
@@ -189,6 +273,84 @@ public class SavedResumesPanel extends JPanel {
         this.onUpload = onUpload;
     }
 
+    public void setOnImportFolder(Runnable onImportFolder) {
+        this.onImportFolder = onImportFolder;
+    }
+
+    // Shows or hides the bulk import progress bar and disables the import button while busy
+    public void setImportBusy(boolean busy) {
+        importBtn.setEnabled(!busy);
+        importProgress.setVisible(busy);
+        importStatus.setVisible(busy);
+        if (!busy) {
+            importProgress.setValue(0);
+            importStatus.setText("");
+        }
+        revalidate();
+        repaint();
+    }
+
+    public void setOnBulkExport(Runnable onBulkExport) {
+        this.onBulkExport = onBulkExport;
+    }
+
+    // The ticked resumes in list order; empty when none are ticked
+    public List<Resume> getSelectedResumes() {
+        List<Resume> selected = new ArrayList<>();
+        for (Resume r : shownResumes) {
+            if (selectedIds.contains(r.getId())) selected.add(r);
+        }
+        return selected;
+    }
+
+    // Same progress bar as the import; the export button is disabled while busy
+    public void setExportBusy(boolean busy) {
+        exportBtn.setEnabled(!busy);
+        importProgress.setVisible(busy);
+        importStatus.setVisible(busy);
+        if (!busy) {
+            importProgress.setValue(0);
+            importStatus.setText("");
+        }
+        revalidate();
+        repaint();
+    }
+
+    public void setExportProgress(int percent, String status) {
+        setImportProgress(percent, status);
+    }
+
+    private void updateExportButton() {
+        exportBtn.setText(selectedIds.isEmpty() ? "Export all" : "Export selected (" + selectedIds.size() + ")");
+    }
+
+    public void setImportProgress(int percent, String status) {
+        importProgress.setValue(percent);
+        importStatus.setText(status);
+    }
+
+    // Called with the trimmed query on Enter, and with "" when the search is cleared
+    public void setOnSearch(Consumer<String> onSearch) {
+        this.onSearch = onSearch;
+    }
+
+    // The list shows search results when searching, otherwise the whole library
+    public void setSearching(boolean searching) {
+        emptyLabel.setText(searching ? "No saved resumes match the search." : "There are no saved resumes.");
+        sortByDateBtn.setEnabled(!searching);
+        sortByNameBtn.setEnabled(!searching);
+        rankBtn.setEnabled(!searching);
+    }
+
+    public void setOnRankForJob(Runnable onRankForJob) {
+        this.onRankForJob = onRankForJob;
+    }
+
+    public void setRankBusy(boolean busy) {
+        rankBtn.setEnabled(!busy);
+        rankBtn.setText(busy ? "Ranking…" : "Rank for a job…");
+    }
+
     public void setOnSortByDate(Runnable onSortByDate) {
         this.onSortByDate = onSortByDate;
     }
@@ -236,7 +398,26 @@ public class SavedResumesPanel extends JPanel {
         previewLabel.setFont(previewLabel.getFont().deriveFont(11f));
         preview.add(previewLabel, BorderLayout.CENTER);
 
-        card.add(preview, BorderLayout.WEST);
+        // Tick box for bulk export, left of the preview
+        JCheckBox selectBox = new JCheckBox();
+        selectBox.setOpaque(false);
+        selectBox.setSelected(selectedIds.contains(resume.getId()));
+        selectBox.setToolTipText("Select for export");
+        selectBox.addActionListener(e -> {
+            if (selectBox.isSelected()) {
+                selectedIds.add(resume.getId());
+            } else {
+                selectedIds.remove(resume.getId());
+            }
+            updateExportButton();
+        });
+
+        JPanel left = new JPanel(new BorderLayout(8, 0));
+        left.setOpaque(false);
+        left.add(selectBox, BorderLayout.WEST);
+        left.add(preview, BorderLayout.CENTER);
+
+        card.add(left, BorderLayout.WEST);
 
         // Center: resume info (on dark background -> light text)
         JPanel info = new JPanel();
@@ -265,6 +446,14 @@ public class SavedResumesPanel extends JPanel {
             info.add(Box.createVerticalStrut(2));
             info.add(pathLabel);
         }
+        String note = cardNotes.get(resume.getId());
+        if (note != null) {
+            JLabel noteLabel = new JLabel(note);
+            noteLabel.setForeground(new Color(0xFDE68A)); // amber, stands out on the dark card
+            noteLabel.setFont(noteLabel.getFont().deriveFont(Font.BOLD, 11f));
+            info.add(Box.createVerticalStrut(4));
+            info.add(noteLabel);
+        }
 
         card.add(info, BorderLayout.CENTER);
 
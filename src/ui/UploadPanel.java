@@ -27,12 +27,14 @@ public class UploadPanel extends JPanel {
     private JButton buildButton;
     private JLabel  fileLabel;
     private JProgressBar progress;
+    private JButton cancelButton;   // shown while an analysis runs
 
     private JButton pasteButton;
     private JButton clearButton;
 
     private Consumer<File> onFileDropped;
     private BiConsumer<File, String> onBuild;
+    private Runnable onCancel;
 //    private java.awt.event.ActionListener onParseListener;
 
     private File selectedFile;
@@ -144,11 +146,19 @@ public class UploadPanel extends JPanel {
         progress.setAlignmentX(Component.CENTER_ALIGNMENT);
         progress.setMaximumSize(new Dimension(360, 14));
 
+        cancelButton = new JButton("Cancel");
+        cancelButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        cancelButton.addActionListener(e -> { if (onCancel != null) onCancel.run(); });
+        styleSecondary(cancelButton);
+        cancelButton.setVisible(false);
+
         south.add(fileLabel);
         south.add(Box.createVerticalStrut(10));
         south.add(buildButton);
         south.add(Box.createVerticalStrut(10));
         south.add(progress);
+        south.add(Box.createVerticalStrut(8));
+        south.add(cancelButton);
 
         add(south, BorderLayout.SOUTH);
 
@@ -181,6 +191,7 @@ public class UploadPanel extends JPanel {
 
     public void setOnFileDropped(Consumer<File> c) { this.onFileDropped = c; }
     public void setOnBuild(BiConsumer<File, String> c) { this.onBuild = c; }
+    public void setOnCancel(Runnable r) { this.onCancel = r; }
 //    public void setOnParse(java.awt.event.ActionListener l) { this.onParseListener = l; }
 
     public File getSelectedFile() { return selectedFile; }
@@ -203,6 +214,7 @@ public class UploadPanel extends JPanel {
         jobDescArea.setEnabled(!busy);
         pasteButton.setEnabled(!busy);
         clearButton.setEnabled(!busy);
+        cancelButton.setVisible(busy);
     }
 
     public void setProgressValue(int v) {
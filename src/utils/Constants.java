@@ -2,6 +2,8 @@ package utils;
 
 import models.User;
 
+import java.time.Duration;
+
 public class Constants {
 
     // Initialize DotEnvLoader when Constants class is loaded
@@ -33,6 +35,35 @@ public class Constants {
         public static final String FROM_NAME = "Resume Builder";
     }
 
+    // Match scoring - keywords (default), tfidf or bm25, see services.MatchScorer
+    public static final class Scoring {
+        public static final String MODE = DotEnvLoader.get("MATCH_SCORING", "keywords");
+    }
+
+    // Generated PDFs - optional TrueType font to write with instead of Helvetica, see services.PdfFontCache
+    public static final class Pdf {
+        public static final String FONT_FILE = DotEnvLoader.get("PDF_FONT_FILE", "");
+    }
+
+    // Parsed resume cache bounds (database tier), see services.ParsedResumeCache
+    public static final class ParseCache {
+        public static final int MAX_ENTRIES = Integer.parseInt(DotEnvLoader.get("PARSE_CACHE_MAX_ENTRIES", "5000"));
+        public static final int MAX_AGE_DAYS = Integer.parseInt(DotEnvLoader.get("PARSE_CACHE_MAX_AGE_DAYS", "180"));
+    }
+
+    // Exports - hard links share bytes with the stored upload, so they are opt-in, see utils.FileCopier
+    public static final class Export {
+        public static final boolean HARD_LINKS = Boolean.parseBoolean(DotEnvLoader.get("EXPORT_HARD_LINKS", "false"));
+    }
+
+    // Timeouts for blocking work run off the event thread, see services.BlockingTaskExecutor
+    public static final class Timeouts {
+        public static final Duration EMAIL = Duration.ofSeconds(30);
+        public static final Duration DATABASE = Duration.ofSeconds(20);
+        // The browser sign-in itself may take up to 5 minutes
+        public static final Duration OAUTH = Duration.ofSeconds(330);
+    }
+
     // Session management
     public static class Session {
         private static User currentUser = null;
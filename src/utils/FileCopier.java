@@ -0,0 +1,110 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies whole files for exports without moving their bytes through the heap.
+ *
+ * In order of preference:
+ *   - nothing at all, when the target already has the same content (same file, or same
+ *     size and SHA-256)
+ *   - a hard link, when allowed and the filesystem supports it: only a directory entry
+ *     is written, whatever the file size
+ *   - FileChannel.transferTo, which lets the OS move the bytes (sendfile / copy_file_range
+ *     on Linux) instead of reading them into a Java buffer
+ *
+ * The new file is written under a temporary name next to the target and then moved over
+ * it, so the target is never seen half-written. Hashes are remembered per path, size and
+ * modification time, so exporting the same originals again does not re-read them.
+ */
+public final class FileCopier {
+
+    public enum Outcome { UNCHANGED, LINKED, COPIED }
+
+    private static final int MAX_CACHED_HASHES = 10_000;
+    private static final Map<String, String> HASHES = new ConcurrentHashMap<>();
+
+    /**
+     * Makes target a copy of source, replacing it. A hard link is only tried when
+     * allowLink is set: the two names then share their bytes, so writing to one in place
+     * changes the other.
+     */
+    public static Outcome copy(Path source, Path target, boolean allowLink) throws IOException {
+        if (!Files.isRegularFile(source)) {
+            throw new NoSuchFileException(source.toString());
+        }
+        if (Files.isRegularFile(target) && sameContent(source, target)) {
+            return Outcome.UNCHANGED;
+        }
+
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = dir.resolve("." + target.getFileName() + "." + System.nanoTime() + ".tmp");
+        try {
+            Outcome outcome;
+            if (allowLink && link(temp, source)) {
+                outcome = Outcome.LINKED;
+            } else {
+                transfer(source, temp);
+                outcome = Outcome.COPIED;
+            }
+            replace(temp, target);
+            return outcome;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static boolean sameContent(Path source, Path target) throws IOException {
+        if (Files.isSameFile(source, target)) return true;
+        if (Files.size(source) != Files.size(target)) return false;
+        return sha256(source).equals(sha256(target));
+    }
+
+    // Fails quietly on filesystems without hard links or when source is on another volume
+    private static boolean link(Path link, Path source) {
+        try {
+            Files.createLink(link, source);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static void transfer(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        String key = file.toAbsolutePath().normalize() + "|" + Files.size(file)
+                + "|" + Files.getLastModifiedTime(file).toMillis();
+        String hash = HASHES.get(key);
+        if (hash == null) {
+            hash = FileHashUtil.sha256(file);
+            if (HASHES.size() >= MAX_CACHED_HASHES) HASHES.clear();
+            HASHES.put(key, hash);
+        }
+        return hash;
+    }
+
+    private FileCopier() {
+    }
+}
@@ -0,0 +1,58 @@
+package utils;
+
+import java.util.regex.Pattern;
+
+/**
+ * Every regular expression the parser and the resume formatter use, compiled once.
+ * String.replaceAll/split/matches recompile their pattern on each call, which showed up
+ * as a large share of parse time; use these with Pattern.matcher()/split() instead.
+ * Simple character-level rewrites don't belong here; TextScanner does those in one pass.
+ */
+public final class TextPatterns {
+
+    private TextPatterns() {}
+
+    // ---------------------------------------------------------
+    // ResumeParserService: sections
+    // ---------------------------------------------------------
+    // A line that is only a supported section header, optionally followed by ':'
+    public static final Pattern SECTION_HEADER = Pattern.compile(
+            "(?im)^(experience|work experience|professional experience|projects|skills|technical skills"
+                    + "|education|certifications|awards|honors|languages|interests)\\s*:?$");
+
+    public static final Pattern EDUCATION_FALLBACK =
+            Pattern.compile("(?i)([A-Z][A-Za-z0-9 .,&-]+University[\\s\\S]{30,400})");
+
+    public static final Pattern SKILLS_FALLBACK =
+            Pattern.compile("(?i)(skills?)[:\\s\\n-]+([\\s\\S]{20,200})(?=\\n[A-Z][A-Za-z ]+:|$)");
+
+    // ---------------------------------------------------------
+    // ResumeParserService: skills and experience blocks
+    // ---------------------------------------------------------
+    public static final Pattern INTERESTS_LINE = Pattern.compile("(?i)interests?:.*");
+
+    public static final Pattern LANGUAGES_LINE = Pattern.compile("(?i)languages?:.*");
+
+    public static final Pattern SKILL_SEPARATORS = Pattern.compile("[-,\\n]+");
+
+    // Zero-width split point before a line that starts with a capitalized title
+    public static final Pattern EXPERIENCE_BLOCK_START = Pattern.compile("(?m)^(?=[A-Z][A-Za-z0-9 ]{3,})");
+
+    // ---------------------------------------------------------
+    // ResumeAnalyzeService: formatting
+    // ---------------------------------------------------------
+    public static final Pattern PROJECT_START =
+            Pattern.compile("^([A-Z][^\\n-]+ -|[A-Z][^\\n:]+:)", Pattern.MULTILINE);
+
+    public static final Pattern SENTENCE_BREAK = Pattern.compile("(?<=\\.)\\s+(?=[A-Z])");
+
+    public static final Pattern PROBLEM_SOLVING = Pattern.compile("Problem\\s+solving");
+
+    public static final Pattern SKILL_CATEGORY_LABEL = Pattern.compile(
+            "(Languages|Frameworks|Tools|APIs?\\s*&?\\s*Services|Skills|Technologies)\\s*:\\s*");
+
+    public static final Pattern SKILL_CATEGORY_NAME = Pattern.compile(
+            "(?i)(languages|frameworks|tools|apis?\\s*&?\\s*services|skills|technologies)");
+
+    public static final Pattern SKILL_LIST_SEPARATORS = Pattern.compile("[;,|]+");
+}
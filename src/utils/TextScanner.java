@@ -0,0 +1,142 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass replacements for the simple regexes the parser, formatter and PDF export used
+ * (replaceAll("\\s+", " "), split("\\s+"), "[^\\x00-\\x7F]" and friends). Each method
+ * behaves like the regex it replaces and returns the input itself when nothing changes.
+ * Whitespace means the regex \s class: space, \t, \n, \x0B, \f, \r.
+ */
+public final class TextScanner {
+
+    private TextScanner() {}
+
+    public static boolean isSpace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    /**
+     * Same as text.replaceAll("\\s+", " ")
+     */
+    public static String collapseWhitespace(String text) {
+        int n = text.length();
+        StringBuilder sb = null;
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (!isSpace(c)) {
+                if (sb != null) sb.append(c);
+                continue;
+            }
+            int end = i + 1;
+            while (end < n && isSpace(text.charAt(end))) end++;
+            if (sb == null && (c != ' ' || end - i > 1)) {
+                sb = new StringBuilder(n).append(text, 0, i);
+            }
+            if (sb != null) sb.append(' ');
+            i = end - 1;
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    /**
+     * The non-empty pieces of text.split("\\s+")
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && isSpace(text.charAt(i))) i++;
+            int start = i;
+            while (i < n && !isSpace(text.charAt(i))) i++;
+            if (i > start) words.add(text.substring(start, i));
+        }
+        return words;
+    }
+
+    /**
+     * Same as text.replaceAll("^[" + bullets + "]\\s*", ""): drops one leading bullet character
+     * and the whitespace after it
+     */
+    public static String stripBullet(String text, String bullets) {
+        if (text.isEmpty() || bullets.indexOf(text.charAt(0)) < 0) return text;
+        int i = 1;
+        while (i < text.length() && isSpace(text.charAt(i))) i++;
+        return text.substring(i);
+    }
+
+    /**
+     * Same as text.replaceAll("^[" + chars + "\\s]+", ""): drops a leading run of the given
+     * characters and whitespace
+     */
+    public static String stripLeading(String text, String chars) {
+        int i = 0;
+        while (i < text.length() && (isSpace(text.charAt(i)) || chars.indexOf(text.charAt(i)) >= 0)) i++;
+        return i == 0 ? text : text.substring(i);
+    }
+
+    /**
+     * Same as text.replaceAll("[" + chars + "]", String.valueOf(replacement))
+     */
+    public static String replaceChars(String text, String chars, char replacement) {
+        char[] out = null;
+        for (int i = 0; i < text.length(); i++) {
+            if (chars.indexOf(text.charAt(i)) >= 0) {
+                if (out == null) out = text.toCharArray();
+                out[i] = replacement;
+            }
+        }
+        return out == null ? text : new String(out);
+    }
+
+    /**
+     * Same as text.replaceAll("[^\\x00-\\x7F]", "")
+     */
+    public static String removeNonAscii(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                if (sb != null) sb.append(c);
+            } else if (sb == null) {
+                sb = new StringBuilder(text.length()).append(text, 0, i);
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    /**
+     * Same as text.replaceAll("[\\p{Cntrl}&&[^\n]]", ""): removes ASCII control characters except newlines
+     */
+    public static String removeControlChars(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean control = (c < 0x20 && c != '\n') || c == 0x7F;
+            if (!control) {
+                if (sb != null) sb.append(c);
+            } else if (sb == null) {
+                sb = new StringBuilder(text.length()).append(text, 0, i);
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    /**
+     * Same as text.replaceAll("[^A-Z\\s]", ""): keeps only ASCII capitals and whitespace
+     */
+    public static String keepUpperAndSpace(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || isSpace(c)) {
+                if (sb != null) sb.append(c);
+            } else if (sb == null) {
+                sb = new StringBuilder(text.length()).append(text, 0, i);
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+}